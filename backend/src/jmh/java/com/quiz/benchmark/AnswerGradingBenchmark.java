@@ -0,0 +1,83 @@
+package com.quiz.benchmark;
+
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.entity.Question;
+import com.quiz.service.impl.AnswerGradingServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 判分基准测试（各题型）
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnswerGradingBenchmark {
+
+    @Param({"single", "multiple", "judge", "essay"})
+    private String type;
+
+    private AnswerGradingServiceImpl gradingService;
+    private Question question;
+    private String correctAnswer;
+    private String wrongAnswer;
+
+    @Setup
+    public void setup() {
+        gradingService = new AnswerGradingServiceImpl(new QuizSystemProperties());
+        question = new Question();
+        question.setId(1L);
+        question.setBankId(1L);
+        question.setType(Question.QuestionType.valueOf(type));
+        question.setUpdatedAt(LocalDateTime.now());
+
+        switch (question.getType()) {
+            case single:
+                question.setOptions(Arrays.asList("进程", "线程", "协程", "纤程"));
+                question.setCorrectAnswer("B");
+                correctAnswer = "B";
+                wrongAnswer = "C";
+                break;
+            case multiple:
+                question.setOptions(Arrays.asList("封装", "继承", "多态", "重载", "泛型"));
+                question.setCorrectAnswer("A,B,C");
+                correctAnswer = "C,A,B";
+                wrongAnswer = "A,B,D";
+                break;
+            case judge:
+                question.setCorrectAnswer("正确");
+                correctAnswer = "true";
+                wrongAnswer = "false";
+                break;
+            case essay:
+            default:
+                question.setCorrectAnswer("封装，继承，多态，抽象，接口，组合，委托，依赖倒置");
+                correctAnswer = "面向对象的基本特征包括封装、继承和多态，设计时应优先使用组合与委托，并遵循依赖倒置原则。"
+                        .repeat(4);
+                wrongAnswer = "这道题我不太会，只记得和类、对象有关。".repeat(4);
+                break;
+        }
+    }
+
+    @Benchmark
+    public void grade(Blackhole blackhole) {
+        blackhole.consume(gradingService.grade(question, correctAnswer));
+        blackhole.consume(gradingService.grade(question, wrongAnswer));
+    }
+
+    @Benchmark
+    public void compileAndGrade(Blackhole blackhole) {
+        gradingService.invalidate(question.getId());
+        blackhole.consume(gradingService.grade(question, correctAnswer));
+    }
+}
@@ -0,0 +1,106 @@
+package com.quiz.benchmark;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.entity.EmailOutbox;
+import com.quiz.mapper.EmailOutboxMapper;
+import com.quiz.service.impl.EmailOutboxServiceImpl;
+import com.quiz.support.SmtpStandIn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * 邮件发件箱投递基准测试（进程内 SMTP 替身接收邮件，发件箱表被替换为桩）
+ * batchSize=1 为每封邮件单独认领、单独建立 SMTP 连接，batchSize=50 为整批共用一个连接；
+ * 投递结果的正确性由 EmailOutboxServiceImplTest 校验
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailOutboxBenchmark {
+
+    private static final int MESSAGES = 50;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private final AtomicLong ids = new AtomicLong();
+    private SmtpStandIn smtp;
+    private EmailOutboxServiceImpl outboxService;
+
+    @Setup
+    public void setup() throws IOException {
+        // LambdaUpdateWrapper 解析列名需要实体的表信息
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), EmailOutbox.class);
+
+        smtp = new SmtpStandIn();
+        smtp.setCapture(false);
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtp.getPort());
+
+        EmailOutboxMapper mapper = Mockito.mock(EmailOutboxMapper.class);
+        Mockito.when(mapper.claimBatch(anyString(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> invocation.<Integer>getArgument(3));
+        Mockito.when(mapper.findClaimed(anyString())).thenAnswer(invocation -> claimed(batchSize));
+        Mockito.when(mapper.update(any(), any())).thenReturn(1);
+
+        QuizSystemProperties properties = new QuizSystemProperties();
+        properties.getMail().setBatchSize(batchSize);
+        outboxService = new EmailOutboxServiceImpl(mapper, mailSender, properties, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(outboxService, "fromEmail", "noreply@quiz.local");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @Benchmark
+    public int dispatch() {
+        int dispatched = 0;
+        while (dispatched < MESSAGES) {
+            dispatched += outboxService.dispatchBatch();
+        }
+        return dispatched;
+    }
+
+    private List<EmailOutbox> claimed(int count) {
+        List<EmailOutbox> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = ids.incrementAndGet();
+            EmailOutbox outbox = new EmailOutbox();
+            outbox.setId(id);
+            outbox.setRecipient("user" + id % 10 + "@quiz.local");
+            outbox.setSubject("在线答题系统 - 邮箱验证码 #" + id);
+            outbox.setContent("<p>您的验证码是：<strong>" + (100000 + id % 900000) + "</strong></p>");
+            outbox.setStatus(EmailOutbox.OutboxStatus.sending);
+            outbox.setAttempts(1);
+            outbox.setNextAttemptAt(LocalDateTime.now().plusSeconds(60));
+            batch.add(outbox);
+        }
+        return batch;
+    }
+}
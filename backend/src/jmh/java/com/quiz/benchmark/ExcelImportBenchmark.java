@@ -0,0 +1,123 @@
+package com.quiz.benchmark;
+
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.dto.QuestionImportResult;
+import com.quiz.service.QuestionService;
+import com.quiz.strategy.impl.ExcelQuestionImportStrategy;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Excel 题目导入解析基准测试（题目保存被替换为桩，只衡量 POI 读取与行解析）
+ * reader=sax 为事件模型逐行读取，reader=dom 为 XSSFWorkbook 整表读取；配合 -prof gc 比较分配量。
+ * 测试文件包含数值、布尔、公式与带格式的单元格；两种读取方式的一致性由 XlsxRowReaderTest 校验
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExcelImportBenchmark {
+
+    private static final String[] TYPES = {"单选题", "多选题", "判断题", "简答题"};
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    @Param({"sax", "dom"})
+    private String reader;
+
+    private ExcelQuestionImportStrategy strategy;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("quiz-import-benchmark", ".xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(file.toFile())) {
+            Sheet sheet = workbook.createSheet();
+            CellStyle thousands = workbook.createCellStyle();
+            thousands.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+            CellStyle date = workbook.createCellStyle();
+            date.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+            String[] header = {"试题类型", "题目", "答案", "解析", "选项1", "选项2", "选项3", "选项4"};
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < header.length; i++) {
+                headerRow.createCell(i).setCellValue(header[i]);
+            }
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                String type = TYPES[r % TYPES.length];
+                row.createCell(0).setCellValue(type);
+                row.createCell(1).setCellValue("第" + r + "题：关于 Java 内存模型的描述，下列说法正确的是？");
+                if (type.equals("判断题")) {
+                    row.createCell(2).setCellValue(r % 8 == 2);
+                } else if (type.equals("单选题")) {
+                    // 数值答案（选项序号）
+                    row.createCell(2).setCellValue(r / 4 % 4 + 1);
+                } else {
+                    row.createCell(2).setCellValue("A,C");
+                }
+                if (r % 3 == 0) {
+                    row.createCell(3).setCellFormula("\"happens-before 规则保证了可见性，题号 \"&ROW()");
+                } else {
+                    row.createCell(3).setCellValue("happens-before 规则保证了可见性。");
+                }
+                if (type.equals("单选题") || type.equals("多选题")) {
+                    Cell amount = row.createCell(4);
+                    amount.setCellValue(1000.0 * r);
+                    amount.setCellStyle(thousands);
+                    Cell day = row.createCell(5);
+                    day.setCellValue(new Date(1700000000000L + r * 86400000L));
+                    day.setCellStyle(date);
+                    row.createCell(6).setCellFormula("ROW()*0.5");
+                    row.createCell(7).setCellFormula("ROW()>" + rows / 2);
+                }
+            }
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(out);
+        }
+
+        strategy = createStrategy("sax".equals(reader));
+    }
+
+    private ExcelQuestionImportStrategy createStrategy(boolean streaming) {
+        QuestionService questionService = Mockito.mock(QuestionService.class);
+        Mockito.when(questionService.save(any())).thenReturn(true);
+        Mockito.when(questionService.insertBatch(any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        QuizSystemProperties properties = new QuizSystemProperties();
+        properties.getFile().setExcelStreamingRead(streaming);
+        ExcelQuestionImportStrategy importStrategy = new ExcelQuestionImportStrategy(questionService, properties);
+        ReflectionTestUtils.setField(importStrategy, "uploadPath", file.getParent().toString());
+        return importStrategy;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public QuestionImportResult importQuestions() {
+        return strategy.importQuestions(file.toString(), 1L, 1L);
+    }
+}
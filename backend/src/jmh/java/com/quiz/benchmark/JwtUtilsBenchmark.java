@@ -0,0 +1,52 @@
+package com.quiz.benchmark;
+
+import com.quiz.dto.TokenClaims;
+import com.quiz.utils.JwtUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 校验基准测试（每个请求的鉴权开销）
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = new JwtUtils();
+        // HS512 要求密钥不少于 512 位
+        ReflectionTestUtils.setField(jwtUtils, "secret",
+                "benchmark-quiz-system-jwt-secret-key-that-is-long-enough-for-hs512-signing");
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 604800L);
+        jwtUtils.init();
+        token = jwtUtils.generateToken("benchmark", 1L);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public TokenClaims verify() {
+        return jwtUtils.verify(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return jwtUtils.getUserIdFromToken(token);
+    }
+}
@@ -0,0 +1,96 @@
+package com.quiz.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.config.CacheConfig;
+import com.quiz.entity.Question;
+import com.quiz.entity.QuizSession;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 值序列化基准测试（与 CacheConfig 使用相同的 ObjectMapper 配置）
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisSerializerBenchmark {
+
+    private GenericJackson2JsonRedisSerializer serializer;
+    private Question question;
+    private QuizSession session;
+    private byte[] questionBytes;
+    private byte[] sessionBytes;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = ReflectionTestUtils.invokeMethod(new CacheConfig(), "createObjectMapper");
+        serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+
+        question = new Question();
+        question.setId(1001L);
+        question.setBankId(10L);
+        question.setType(Question.QuestionType.multiple);
+        question.setContent("以下哪些是 Java 面向对象的基本特征？");
+        question.setOptions(Arrays.asList("封装", "继承", "多态", "重载"));
+        question.setCorrectAnswer("A,B,C");
+        question.setAnalysis("重载属于多态的一种实现方式，不是独立的基本特征。");
+        question.setSortOrder(1);
+        question.setStatus(1);
+        question.setCreatedBy(1L);
+        question.setCreatedAt(LocalDateTime.now());
+        question.setUpdatedAt(LocalDateTime.now());
+
+        session = new QuizSession();
+        session.setId(1L);
+        session.setUserId(1L);
+        session.setBankId(10L);
+        session.setSessionId("8f14e45fceea167a5a36dedd4bea2543");
+        session.setMode(QuizSession.AnswerMode.values()[0]);
+        session.setTotalQuestions(100);
+        session.setAnsweredQuestions(42);
+        session.setCorrectAnswers(37);
+        session.setCurrentIndex(42);
+        session.setStartTime(LocalDateTime.now());
+        session.setStatus(QuizSession.SessionStatus.ongoing);
+        session.setDeleted(0);
+
+        questionBytes = serializer.serialize(question);
+        sessionBytes = serializer.serialize(session);
+    }
+
+    @Benchmark
+    public byte[] serializeQuestion() {
+        return serializer.serialize(question);
+    }
+
+    @Benchmark
+    public Object roundTripQuestion() {
+        return serializer.deserialize(serializer.serialize(question));
+    }
+
+    @Benchmark
+    public Object deserializeQuestion() {
+        return serializer.deserialize(questionBytes);
+    }
+
+    @Benchmark
+    public Object roundTripSession() {
+        return serializer.deserialize(serializer.serialize(session));
+    }
+
+    @Benchmark
+    public Object deserializeSession() {
+        return serializer.deserialize(sessionBytes);
+    }
+}
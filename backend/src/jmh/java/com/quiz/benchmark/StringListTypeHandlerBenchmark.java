@@ -0,0 +1,54 @@
+package com.quiz.benchmark;
+
+import com.quiz.handler.StringListTypeHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 题目选项 JSON 解析基准测试
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringListTypeHandlerBenchmark {
+
+    @Param({"4", "10"})
+    private int optionCount;
+
+    private StringListTypeHandler handler;
+    private ResultSet resultSet;
+
+    @Setup
+    public void setup() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < optionCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"选项内容").append(i).append("：Java 虚拟机内存模型\"");
+        }
+        String value = json.append(']').toString();
+
+        handler = new StringListTypeHandler();
+        // 只需要 getString 的结果集桩，避免依赖数据库驱动
+        resultSet = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> "getString".equals(method.getName()) ? value : null);
+    }
+
+    @Benchmark
+    public List<String> parseJson() throws SQLException {
+        return handler.getNullableResult(resultSet, "options");
+    }
+}
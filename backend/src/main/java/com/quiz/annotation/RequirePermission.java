@@ -16,12 +16,25 @@ import java.lang.annotation.Target;
 public @interface RequirePermission {
     
     /**
-     * 需要的权限
+     * 需要的权限（可指定多个）
      */
-    String value();
+    String[] value();
+
+    /**
+     * 多个权限的组合方式：ANY 满足任一即可，ALL 需全部满足
+     */
+    Logical logical() default Logical.ANY;
     
     /**
      * 权限描述
      */
     String description() default "";
+
+    /**
+     * 权限组合方式
+     */
+    enum Logical {
+        ANY,
+        ALL
+    }
 }
@@ -1,7 +1,9 @@
 package com.quiz.aspect;
 
 import com.quiz.annotation.RequirePermission;
-import com.quiz.service.PermissionService;
+import com.quiz.config.PermissionRegistry;
+import com.quiz.dto.UserPrincipal;
+import com.quiz.service.PrincipalCacheService;
 import com.quiz.utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,8 +14,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * 权限检查切面
+ * 注解上的权限在首次检查时编译为位掩码，之后每次检查只需一次掩码运算，不再查询用户表
  *
  * @author Quiz System
  * @since 2024-09-29
@@ -24,7 +31,13 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class PermissionAspect {
 
-    private final PermissionService permissionService;
+    private final PrincipalCacheService principalCacheService;
+    private final PermissionRegistry permissionRegistry;
+
+    /**
+     * 注解对应的已编译权限掩码
+     */
+    private final Map<RequirePermission, Long> requiredMasks = new ConcurrentHashMap<>();
 
     @Around("@annotation(requirePermission)")
     public Object checkPermission(ProceedingJoinPoint joinPoint, RequirePermission requirePermission) throws Throwable {
@@ -36,10 +49,16 @@ public class PermissionAspect {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("未授权访问");
             }
 
+            // 优先使用认证过滤器放入的用户快照
+            UserPrincipal principal = SecurityUtils.getCurrentPrincipal();
+            if (principal == null) {
+                principal = principalCacheService.getPrincipal(userId);
+            }
+
             // 检查权限
-            String permission = requirePermission.value();
-            if (!permissionService.hasPermission(userId, permission)) {
-                log.warn("用户 {} 没有权限 {} 访问 {}", userId, permission, joinPoint.getSignature().getName());
+            if (principal == null || !isGranted(principal, requirePermission)) {
+                log.warn("用户 {} 没有权限 {} 访问 {}", userId, Arrays.toString(requirePermission.value()),
+                        joinPoint.getSignature().getName());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body("权限不足");
             }
 
@@ -50,4 +69,18 @@ public class PermissionAspect {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("权限检查失败");
         }
     }
+
+    private boolean isGranted(UserPrincipal principal, RequirePermission requirePermission) {
+        String[] permissions = requirePermission.value();
+        boolean all = requirePermission.logical() == RequirePermission.Logical.ALL;
+
+        if (!permissionRegistry.isFullyMapped(permissions)) {
+            // 权限数量超出位掩码容量时逐个比较
+            return all ? Arrays.stream(permissions).allMatch(principal::hasPermission)
+                    : Arrays.stream(permissions).anyMatch(principal::hasPermission);
+        }
+
+        long mask = requiredMasks.computeIfAbsent(requirePermission, annotation -> permissionRegistry.maskOf(annotation.value()));
+        return all ? principal.hasAllPermissions(mask) : principal.hasAnyPermission(mask);
+    }
 }
@@ -0,0 +1,155 @@
+package com.quiz.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 自适应工作因子的 BCrypt 密码编码器
+ * <p>
+ * 启动时逐级测量 BCrypt 耗时（每级取多次采样的中位数），选取单次哈希不超过目标耗时的最大工作因子（不低于下限）；
+ * 工作因子随哈希值一起存储（$2a$10$...），校验时按哈希中的因子计算，
+ * 因子低于当前选定值的哈希通过 {@link #upgradeEncoding(String)} 提示在登录成功后重新哈希，不会降低已有哈希的强度。
+ * 各节点的测量结果可能不同，多节点部署应通过 password-hash-cost 固定工作因子。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    /**
+     * BCrypt 允许的工作因子范围
+     */
+    private static final int MIN_BCRYPT_COST = 4;
+    private static final int MAX_BCRYPT_COST = 31;
+
+    /**
+     * 每个工作因子的测量次数，取中位数以排除 GC、JIT 等偶发停顿
+     */
+    private static final int CALIBRATION_SAMPLES = 5;
+
+    private final int cost;
+    private final BCryptPasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    /**
+     * @param fixedCost    固定工作因子，大于 0 时跳过启动测量
+     * @param minCost      工作因子下限
+     * @param maxCost      工作因子上限
+     * @param targetMillis 单次哈希的目标耗时（毫秒）
+     */
+    public AdaptivePasswordEncoder(int fixedCost, int minCost, int maxCost, long targetMillis, MeterRegistry meterRegistry) {
+        int lower = clamp(minCost);
+        int upper = Math.max(lower, clamp(maxCost));
+        this.cost = fixedCost > 0 ? clamp(fixedCost) : calibrate(lower, upper, targetMillis);
+        this.delegate = new BCryptPasswordEncoder(cost);
+
+        this.encodeTimer = Timer.builder("quiz.password.hash")
+                .description("密码哈希耗时")
+                .tag("operation", "encode")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("quiz.password.hash")
+                .description("密码哈希耗时")
+                .tag("operation", "matches")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        meterRegistry.gauge("quiz.password.hash.cost", this, encoder -> encoder.cost);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matched = matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        return Boolean.TRUE.equals(matched);
+    }
+
+    /**
+     * 哈希的工作因子低于当前选定值时需要重新哈希；高于当前值的哈希保持不变，
+     * 避免测量结果不同的节点之间来回改写同一个哈希
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int stored = costOf(encodedPassword);
+        return stored > 0 && stored < cost;
+    }
+
+    /**
+     * 当前选定的工作因子
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * 解析哈希中的工作因子，无法识别时返回 -1
+     */
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * 从下限开始逐级测量，返回耗时不超过目标的最大工作因子；下限本身超过目标时仍使用下限
+     */
+    private static int calibrate(int minCost, int maxCost, long targetMillis) {
+        // 预热，避免首次调用的类加载和 JIT 开销计入测量
+        new BCryptPasswordEncoder(MIN_BCRYPT_COST).encode("warm-up");
+
+        int chosen = minCost;
+        long chosenMillis = -1;
+        for (int candidate = minCost; candidate <= maxCost; candidate++) {
+            long elapsed = measure(candidate);
+            if (elapsed > targetMillis && candidate > minCost) {
+                break;
+            }
+            chosen = candidate;
+            chosenMillis = elapsed;
+            // 工作因子每加 1 耗时翻倍，预计超过目标时不再测量
+            if (elapsed * 2 > targetMillis) {
+                break;
+            }
+        }
+        log.info("BCrypt工作因子已选定: cost={}, 单次耗时中位数={}ms, 目标耗时={}ms（多节点部署请配置 password-hash-cost 固定工作因子）",
+                chosen, chosenMillis, targetMillis);
+        return chosen;
+    }
+
+    /**
+     * 多次测量单次哈希耗时（毫秒），返回中位数
+     */
+    private static long measure(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long[] samples = new long[CALIBRATION_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    private static int clamp(int cost) {
+        return Math.max(MIN_BCRYPT_COST, Math.min(MAX_BCRYPT_COST, cost));
+    }
+}
@@ -1,6 +1,6 @@
 package com.quiz.config;
 
-import com.quiz.entity.User;
+import com.quiz.dto.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -18,12 +18,12 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class CustomUserDetails implements UserDetails {
 
-    private final User user;
+    private final UserPrincipal principal;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         // 为管理员角色添加ROLE_前缀
-        if ("admin".equals(user.getRole())) {
+        if (principal.isAdmin()) {
             return Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN"));
         }
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
@@ -31,12 +31,13 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        // 基于JWT认证，快照中不保存密码
+        return null;
     }
 
     @Override
     public String getUsername() {
-        return user.getUsername();
+        return principal.getUsername();
     }
 
     @Override
@@ -56,14 +57,14 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return user.getStatus() == 1;
+        return principal.isEnabled();
     }
 
     public Long getUserId() {
-        return user.getId();
+        return principal.getUserId();
     }
 
-    public User getUser() {
-        return user;
+    public UserPrincipal getPrincipal() {
+        return principal;
     }
 }
@@ -1,14 +1,14 @@
 package com.quiz.config;
 
-import com.quiz.entity.User;
-import com.quiz.service.UserService;
+import com.quiz.dto.TokenClaims;
+import com.quiz.dto.UserPrincipal;
+import com.quiz.service.PrincipalCacheService;
 import com.quiz.utils.JwtUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -31,9 +31,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
     
     @Autowired
-    private ApplicationContext applicationContext;
-    
-    private UserService userService;
+    private PrincipalCacheService principalCacheService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -41,19 +39,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         String token = getTokenFromRequest(request);
         
-        if (StringUtils.hasText(token) && jwtUtils.validateToken(token)) {
-            Long userId = jwtUtils.getUserIdFromToken(token);
+        // 一次验证同时得到用户ID，不再分别调用 validateToken 与 getUserIdFromToken
+        TokenClaims claims = StringUtils.hasText(token) ? jwtUtils.verify(token) : null;
+        if (claims != null) {
+            Long userId = claims.getUserId();
             
             if (userId != null) {
-                // 延迟获取UserService，避免循环依赖
-                if (userService == null) {
-                    userService = applicationContext.getBean(UserService.class);
-                }
-                
-                // 从数据库获取用户信息
-                User user = userService.getById(userId);
-                if (user != null) {
-                    CustomUserDetails userDetails = new CustomUserDetails(user);
+                // 从缓存获取用户快照，未命中时才查询数据库
+                UserPrincipal principal = principalCacheService.getPrincipal(userId);
+                if (principal != null) {
+                    CustomUserDetails userDetails = new CustomUserDetails(principal);
                     UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,113 @@
+package com.quiz.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限位注册表
+ * <p>
+ * 将权限标识映射为 long 位掩码中的一位：内置权限在启动时注册，其余权限首次出现时按需分配。
+ * 位编号只在当前节点内有效，因此位掩码不会写入 Redis，而是在加载用户快照时重新计算。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Component
+public class PermissionRegistry {
+
+    /**
+     * 内置权限
+     */
+    public static final String[] BUILT_IN_PERMISSIONS = {
+            "admin",
+            "question:create",
+            "question:edit",
+            "question:delete",
+            "question:upload",
+            "question:batch",
+            "question:manage",
+            "bank:manage"
+    };
+
+    /**
+     * 题目管理相关权限
+     */
+    public static final String[] QUESTION_MANAGE_PERMISSIONS = {
+            "question:create",
+            "question:edit",
+            "question:delete",
+            "question:upload",
+            "question:batch"
+    };
+
+    private final Map<String, Integer> bits = new ConcurrentHashMap<>();
+
+    public PermissionRegistry() {
+        for (String permission : BUILT_IN_PERMISSIONS) {
+            bitOf(permission);
+        }
+    }
+
+    /**
+     * 获取权限对应的位编号，未注册时分配新位；超过 64 个权限时返回 -1
+     */
+    public int bitOf(String permission) {
+        Integer bit = bits.get(permission);
+        if (bit != null) {
+            return bit;
+        }
+        synchronized (bits) {
+            bit = bits.get(permission);
+            if (bit == null) {
+                if (bits.size() >= Long.SIZE) {
+                    return -1;
+                }
+                bit = bits.size();
+                bits.put(permission, bit);
+            }
+            return bit;
+        }
+    }
+
+    /**
+     * 将权限集合编译为位掩码（无法分配位的权限被忽略）
+     */
+    public long maskOf(Collection<String> permissions) {
+        long mask = 0L;
+        if (permissions != null) {
+            for (String permission : permissions) {
+                mask |= maskOf(permission);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 将权限编译为位掩码（无法分配位的权限被忽略）
+     */
+    public long maskOf(String... permissions) {
+        long mask = 0L;
+        for (String permission : permissions) {
+            int bit = permission != null ? bitOf(permission) : -1;
+            if (bit >= 0) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 是否所有权限都已分配位（否则需要回退到逐个比较）
+     */
+    public boolean isFullyMapped(String... permissions) {
+        for (String permission : permissions) {
+            if (bitOf(permission) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
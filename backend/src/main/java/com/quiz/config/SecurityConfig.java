@@ -1,5 +1,7 @@
 package com.quiz.config;
 
+import com.quiz.config.properties.QuizSystemProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,7 +9,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -25,9 +26,14 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    /**
+     * 密码编码器：启动时按目标耗时选定 BCrypt 工作因子
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(QuizSystemProperties quizSystemProperties, MeterRegistry meterRegistry) {
+        QuizSystemProperties.SecurityConfig security = quizSystemProperties.getSecurity();
+        return new AdaptivePasswordEncoder(security.getPasswordHashCost(), security.getPasswordHashMinCost(),
+                security.getPasswordHashMaxCost(), security.getPasswordHashTargetMillis(), meterRegistry);
     }
 
 
@@ -52,6 +58,9 @@ public class SecurityConfig {
                 .requestMatchers("/uploads/**").permitAll()
                 // 允许访问Swagger UI和API文档
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
+                // 健康检查公开，其余监控端点（metrics 等）仅管理员可访问
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // 其他接口需要认证
                 .anyRequest().authenticated()
             )
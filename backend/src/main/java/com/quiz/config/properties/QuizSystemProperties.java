@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 答题系统自定义配置属性
  *
@@ -40,6 +43,36 @@ public class QuizSystemProperties {
      */
     private FileConfig file = new FileConfig();
 
+    /**
+     * 答题会话配置
+     */
+    private SessionConfig session = new SessionConfig();
+
+    /**
+     * 判分配置
+     */
+    private GradingConfig grading = new GradingConfig();
+
+    /**
+     * 邮件投递配置
+     */
+    private MailConfig mail = new MailConfig();
+
+    /**
+     * 排行榜配置
+     */
+    private RankingConfig ranking = new RankingConfig();
+
+    /**
+     * 系统计数配置
+     */
+    private MetricsConfig metrics = new MetricsConfig();
+
+    /**
+     * 数据导出配置
+     */
+    private ExportConfig export = new ExportConfig();
+
     @Data
     public static class PageConfig {
         /**
@@ -84,6 +117,21 @@ public class QuizSystemProperties {
          * 题目选项的最大数量
          */
         private int maxOptionsCount = 10;
+
+        /**
+         * 题目浏览/答题计数写入数据库的间隔（毫秒）
+         */
+        private long counterFlushInterval = 5000;
+
+        /**
+         * 每条计数 UPDATE 语句包含的最大题目数
+         */
+        private int counterFlushBatchSize = 500;
+
+        /**
+         * 导入题目时每个事务（一条多行 INSERT）写入的题目数
+         */
+        private int importBatchSize = 500;
     }
 
     @Data
@@ -102,6 +150,46 @@ public class QuizSystemProperties {
          * 用户会话缓存过期时间（秒）
          */
         private long userSessionExpireTime = 7200;
+
+        /**
+         * 题库题目列表响应缓存的最大题库数（每个节点本地）
+         */
+        private int bankPayloadCapacity = 100;
+
+        /**
+         * 是否为题库题目列表响应预生成 gzip 压缩内容
+         */
+        private boolean bankPayloadGzip = true;
+
+        /**
+         * 已认证用户本地缓存的最大用户数（每个节点）
+         */
+        private int principalCapacity = 10000;
+
+        /**
+         * 已认证用户本地缓存过期时间（秒），多节点部署时也是其他节点感知变更的最长延迟
+         */
+        private long principalExpireTime = 60;
+
+        /**
+         * 是否启用已认证用户的 Redis 二级缓存
+         */
+        private boolean principalRedisEnabled = false;
+
+        /**
+         * 已认证用户 Redis 二级缓存过期时间（秒）
+         */
+        private long principalRedisExpireTime = 1800;
+
+        /**
+         * 题型/题库答题统计本地缓存的最大用户数（每个节点）
+         */
+        private int answerStatsCapacity = 10000;
+
+        /**
+         * 题型/题库答题统计本地缓存过期时间（秒）
+         */
+        private long answerStatsExpireTime = 600;
     }
 
     @Data
@@ -130,6 +218,51 @@ public class QuizSystemProperties {
          * 登录失败锁定时间（秒）
          */
         private long lockoutDuration = 1800; // 30分钟
+
+        /**
+         * 同一IP在锁定时间窗口内的最大登录失败次数
+         */
+        private int maxLoginAttemptsPerIp = 20;
+
+        /**
+         * 同时进行密码校验与哈希（BCrypt）的最大数量
+         */
+        private int maxConcurrentPasswordChecks = 8;
+
+        /**
+         * 等待密码校验名额的最长时间（毫秒），超时返回429
+         */
+        private long passwordCheckTimeout = 200;
+
+        /**
+         * 密码哈希的目标耗时（毫秒），启动时据此选定 BCrypt 工作因子
+         */
+        private long passwordHashTargetMillis = 250;
+
+        /**
+         * BCrypt 工作因子下限
+         */
+        private int passwordHashMinCost = 10;
+
+        /**
+         * BCrypt 工作因子上限
+         */
+        private int passwordHashMaxCost = 14;
+
+        /**
+         * 固定 BCrypt 工作因子，大于 0 时不做启动测量；多节点部署应配置，使各节点使用相同的工作因子
+         */
+        private int passwordHashCost = 0;
+
+        /**
+         * 已验证Token缓存的最大数量（每个节点）
+         */
+        private int tokenCacheCapacity = 10000;
+
+        /**
+         * 受信任的反向代理地址（IP或CIDR），仅当直接连接方在此列表中时才采用 X-Forwarded-For / X-Real-IP
+         */
+        private List<String> trustedProxies = new ArrayList<>();
     }
 
     @Data
@@ -153,5 +286,165 @@ public class QuizSystemProperties {
          * 临时文件保存时间（小时）
          */
         private int tempFileRetentionHours = 24;
+
+        /**
+         * Excel 导入是否使用 SAX 事件模型逐行读取，关闭时使用 XSSFWorkbook 整表读取
+         */
+        private boolean excelStreamingRead = true;
+    }
+
+    @Data
+    public static class SessionConfig {
+        /**
+         * 答题写入模式：write-through（逐题落库）/ write-behind（内存+Redis聚合，定时批量落库）
+         */
+        private WriteMode writeMode = WriteMode.WRITE_THROUGH;
+
+        /**
+         * 写回模式下的刷新间隔（毫秒）
+         */
+        private long flushInterval = 2000;
+
+        /**
+         * 写回模式下会话归属租约（毫秒），持有节点每次刷新时续期，过期后其他节点才会接管该会话，应为刷新间隔的数倍
+         */
+        private long ownerLeaseTime = 20000;
+
+        /**
+         * 批量写入（写回刷新、交卷）时单条SQL的最大记录数
+         */
+        private int flushBatchSize = 500;
+
+        /**
+         * 交卷题数达到该值时使用并行判分
+         */
+        private int gradeParallelThreshold = 2000;
+
+        /**
+         * 分窗获取题目时的默认窗口大小
+         */
+        private int windowSize = 20;
+
+        /**
+         * 分窗获取题目时的最大窗口大小
+         */
+        private int maxWindowSize = 100;
+    }
+
+    @Data
+    public static class GradingConfig {
+        /**
+         * 简答题判分模式：any（命中任一关键词）/ all（命中全部关键词）/ ratio（按命中比例计分）
+         */
+        private EssayMode essayMode = EssayMode.ANY;
+
+        /**
+         * 每道题的满分（题目表暂无分值字段）
+         */
+        private double fullScore = 10;
+
+        /**
+         * ratio 模式下判为正确所需的最低命中比例
+         */
+        private double essayPassRatio = 0.6;
+    }
+
+    @Data
+    public static class MailConfig {
+        /**
+         * 发件箱投递间隔（毫秒）
+         */
+        private long dispatchInterval = 1000;
+
+        /**
+         * 每批投递的邮件数（共用一个SMTP连接）
+         */
+        private int batchSize = 50;
+
+        /**
+         * 最大投递次数，超过后标记为失败
+         */
+        private int maxAttempts = 6;
+
+        /**
+         * 首次重试延迟（秒），之后每次翻倍
+         */
+        private long retryBaseDelay = 30;
+
+        /**
+         * 最大重试延迟（秒）
+         */
+        private long retryMaxDelay = 3600;
+
+        /**
+         * 认领租约时间（秒），超时未完成的投递会被重新认领
+         */
+        private long leaseTime = 300;
+
+        /**
+         * 已发送、已失败邮件的保留天数（正文在发送成功或失败时即清空）
+         */
+        private int retentionDays = 7;
+    }
+
+    @Data
+    public static class RankingConfig {
+        /**
+         * 是否使用 Redis 有序集合保存排行榜，关闭时使用本节点内存排行榜
+         */
+        private boolean redisEnabled = true;
+
+        /**
+         * 排行榜返回的最大人数
+         */
+        private int topSize = 20;
+    }
+
+    @Data
+    public static class MetricsConfig {
+        /**
+         * 是否使用 Redis 保存系统计数与每日活跃用户，关闭时只保存在本节点内存中
+         */
+        private boolean redisEnabled = true;
+
+        /**
+         * 按数据库精确计数校正的间隔（毫秒）
+         */
+        private long reconcileInterval = 600000;
+
+        /**
+         * 每日活跃用户统计保留天数
+         */
+        private int activeRetentionDays = 35;
+    }
+
+    @Data
+    public static class ExportConfig {
+        /**
+         * XLSX 导出时内存中保留的行数，超出的行写入临时文件
+         */
+        private int xlsxRowWindow = 100;
+
+        /**
+         * XLSX 单个工作表的最大数据行数，超出后写入新工作表（不超过 1048575，即 Excel 行数上限减去表头行）
+         */
+        private int xlsxSheetRows = 1000000;
+    }
+
+    /**
+     * 简答题判分模式
+     */
+    public enum EssayMode {
+        ANY,
+        ALL,
+        RATIO
+    }
+
+    /**
+     * 答题写入模式
+     */
+    public enum WriteMode {
+        WRITE_THROUGH,
+        WRITE_BEHIND
     }
-}
\ No newline at end of file
+}
@@ -2,13 +2,19 @@ package com.quiz.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.quiz.config.properties.QuizSystemProperties;
 import com.quiz.dto.Result;
 import com.quiz.dto.UpdatePermissionsRequest;
 import com.quiz.dto.UpdateUserStatusRequest;
 import com.quiz.dto.ResetPasswordRequest;
+import com.quiz.entity.QuestionItemStats;
 import com.quiz.entity.User;
 import com.quiz.service.AdminService;
+import com.quiz.service.DailyStatsService;
+import com.quiz.service.ItemAnalysisService;
 import com.quiz.service.QuizSessionService;
+import com.quiz.service.RankingService;
+import com.quiz.service.SystemMetricsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -17,6 +23,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -35,6 +43,11 @@ public class AdminController {
 
     private final AdminService adminService;
     private final QuizSessionService quizSessionService;
+    private final DailyStatsService dailyStatsService;
+    private final RankingService rankingService;
+    private final SystemMetricsService systemMetricsService;
+    private final ItemAnalysisService itemAnalysisService;
+    private final QuizSystemProperties quizSystemProperties;
 
     /**
      * 获取用户列表（分页）
@@ -122,4 +135,63 @@ public class AdminController {
         }
     }
 
+    /**
+     * 重新汇总每日答题统计
+     */
+    @Operation(summary = "重新汇总每日统计", description = "在后台按答题记录重新汇总指定日期范围内全部用户的每日统计（历史数据回填），不传开始日期时从最早的答题记录开始")
+    @PostMapping("/statistics/daily/rebuild")
+    public Result<Void> rebuildDailyStats(
+            @Parameter(description = "开始日期(yyyy-MM-dd)，默认最早的答题日期") @RequestParam(required = false) String from,
+            @Parameter(description = "结束日期(yyyy-MM-dd)，默认今天") @RequestParam(required = false) String to) {
+        try {
+            LocalDate start = from != null ? LocalDate.parse(from) : null;
+            LocalDate end = to != null ? LocalDate.parse(to) : LocalDate.now();
+            if (start != null && start.isAfter(end)) {
+                return Result.error("开始日期不能晚于结束日期");
+            }
+            if (!dailyStatsService.startRebuild(start, end)) {
+                return Result.error("每日统计正在汇总中，请稍后再试");
+            }
+            return Result.success("已开始汇总，完成后记录在日志中");
+        } catch (Exception e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 重建排行榜
+     */
+    @Operation(summary = "重建排行榜", description = "按答题记录重建当日、本周、本月及总排行榜")
+    @PostMapping("/statistics/ranking/rebuild")
+    public Result<Void> rebuildRanking() {
+        try {
+            rankingService.rebuild();
+            return Result.success("重建完成");
+        } catch (Exception e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 执行条目分析
+     */
+    @Operation(summary = "执行条目分析", description = "按已完成会话的答题记录重新计算题目难度、区分度与选项分布")
+    @PostMapping("/item-stats/analyze")
+    public Result<Integer> analyzeItems() {
+        try {
+            return Result.success(itemAnalysisService.analyze());
+        } catch (Exception e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 题库条目分析报表
+     */
+    @Operation(summary = "题库条目分析报表", description = "获取题库下各题的难度、区分度与选项分布，区分度低的题目排在前面")
+    @GetMapping("/item-stats")
+    public Result<List<QuestionItemStats>> getItemStats(
+            @Parameter(description = "题库ID", required = true) @RequestParam Long bankId) {
+        return Result.success(itemAnalysisService.getBankReport(bankId));
+    }
 }
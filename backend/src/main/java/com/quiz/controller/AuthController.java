@@ -1,5 +1,6 @@
 package com.quiz.controller;
 
+import com.quiz.config.properties.QuizSystemProperties;
 import com.quiz.dto.LoginRequest;
 import com.quiz.dto.RegisterRequest;
 import com.quiz.dto.RegisterWithVerificationRequest;
@@ -7,8 +8,11 @@ import com.quiz.dto.SendVerificationCodeRequest;
 import com.quiz.dto.UpdatePasswordRequest;
 import com.quiz.dto.Result;
 import com.quiz.entity.User;
+import com.quiz.exception.TooManyRequestsException;
+import com.quiz.service.PrincipalCacheService;
 import com.quiz.service.UserService;
 import com.quiz.service.VerificationCodeService;
+import com.quiz.utils.IpUtils;
 import com.quiz.utils.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,6 +21,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -38,6 +43,8 @@ public class AuthController {
 
     private final UserService userService;
     private final VerificationCodeService verificationCodeService;
+    private final PrincipalCacheService principalCacheService;
+    private final QuizSystemProperties quizSystemProperties;
 
     /**
      * 用户注册
@@ -67,17 +74,23 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "发送成功", 
                     content = @Content(schema = @Schema(implementation = Result.class))),
             @ApiResponse(responseCode = "400", description = "发送失败", 
+                    content = @Content(schema = @Schema(implementation = Result.class))),
+            @ApiResponse(responseCode = "429", description = "发送过于频繁或超过每小时配额",
                     content = @Content(schema = @Schema(implementation = Result.class)))
     })
     @PostMapping("/send-verification-code")
-    public Result<Void> sendVerificationCode(@RequestBody @Validated SendVerificationCodeRequest request) {
+    public Result<Void> sendVerificationCode(@RequestBody @Validated SendVerificationCodeRequest request,
+                                             HttpServletRequest httpRequest) {
         try {
-            boolean success = verificationCodeService.sendVerificationCode(request.getEmail());
+            boolean success = verificationCodeService.sendVerificationCode(request.getEmail(),
+                    clientIp(httpRequest));
             if (success) {
                 return Result.success("验证码发送成功");
             } else {
                 return Result.badRequest("验证码发送失败，请稍后重试");
             }
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             return Result.badRequest("验证码发送失败：" + e.getMessage());
         }
@@ -130,12 +143,15 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "登录成功", 
                     content = @Content(schema = @Schema(implementation = Result.class))),
             @ApiResponse(responseCode = "400", description = "登录失败", 
+                    content = @Content(schema = @Schema(implementation = Result.class))),
+            @ApiResponse(responseCode = "429", description = "登录失败次数过多或请求过于频繁",
                     content = @Content(schema = @Schema(implementation = Result.class)))
     })
     @PostMapping("/login")
-    public Result<Map<String, Object>> login(@RequestBody @Validated LoginRequest request) {
+    public Result<Map<String, Object>> login(@RequestBody @Validated LoginRequest request,
+                                             HttpServletRequest httpRequest) {
         try {
-            String token = userService.login(request);
+            String token = userService.login(request, clientIp(httpRequest));
             User user = userService.getUserByUsername(request.getUsername());
             
             // 获取用户权限信息
@@ -148,6 +164,8 @@ public class AuthController {
             data.put("user", user);
             
             return Result.success("登录成功", data);
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             return Result.badRequest(e.getMessage());
         }
@@ -242,6 +260,7 @@ public class AuthController {
                         .set(User::getAvatar, user.getAvatar());
 
             boolean success = userService.update(updateWrapper);
+            principalCacheService.invalidate(userId);
             if (success) {
                 User updatedUser = userService.getById(userId);
                 // 获取用户权限信息
@@ -302,7 +321,15 @@ public class AuthController {
     })
     @PostMapping("/logout")
     public Result<Void> logout(@RequestHeader("Authorization") String token) {
-        // JWT是无状态的，客户端删除token即可
+        // JWT是无状态的，客户端删除token即可；同时清除服务端缓存的用户快照
+        principalCacheService.invalidate(SecurityUtils.getCurrentUserId());
         return Result.success("登出成功");
     }
+
+    /**
+     * 获取客户端IP，仅在直接连接方为受信任代理时采用转发头
+     */
+    private String clientIp(HttpServletRequest httpRequest) {
+        return IpUtils.getClientIp(httpRequest, quizSystemProperties.getSecurity().getTrustedProxies());
+    }
 }
@@ -2,8 +2,10 @@ package com.quiz.controller;
 
 import com.quiz.dto.Result;
 import com.quiz.dto.QuestionImportResult;
+import com.quiz.dto.SerializedPayload;
 import com.quiz.entity.QuestionBank;
 import com.quiz.entity.Question;
+import com.quiz.service.QuestionBankPayloadService;
 import com.quiz.service.QuestionBankService;
 import com.quiz.service.QuestionService;
 import com.quiz.service.QuestionImportService;
@@ -12,6 +14,11 @@ import com.quiz.utils.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -35,6 +42,7 @@ public class QuestionBankController {
     private final QuestionService questionService;
     private final QuestionImportService questionImportService;
     private final FileUploadService fileUploadService;
+    private final QuestionBankPayloadService questionBankPayloadService;
 
     /**
      * 获取所有启用的题库列表（带用户进度）
@@ -65,13 +73,36 @@ public class QuestionBankController {
      */
     @Operation(summary = "获取题库题目", description = "获取指定题库下的所有题目，按顺序排列")
     @GetMapping("/{bankId}/questions")
-    public Result<List<Question>> getBankQuestions(@PathVariable Long bankId) {
-        QuestionBank bank = questionBankService.getById(bankId);
-        if (bank == null) {
-            return Result.error("题库不存在");
+    public ResponseEntity<?> getBankQuestions(
+            @PathVariable Long bankId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // 响应体按题库内容版本预序列化缓存，客户端携带相同 ETag 时直接返回 304
+        SerializedPayload payload = questionBankPayloadService.getQuestionsPayload(bankId);
+        if (payload == null) {
+            return ResponseEntity.ok(Result.error("题库不存在"));
+        }
+
+        if (ifNoneMatch != null && ifNoneMatch.contains(payload.getEtag())) {
+            questionBankPayloadService.recordNotModified();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(payload.getEtag())
+                    .build();
+        }
+
+        boolean gzip = payload.getGzipBody() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        byte[] body = gzip ? payload.getGzipBody() : payload.getBody();
+        questionBankPayloadService.recordServed(body.length, gzip);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(payload.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
-        List<Question> questions = questionService.getQuestionsByBankId(bankId);
-        return Result.success(questions);
+        return builder.body(body);
     }
 
     /**
@@ -4,8 +4,11 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.quiz.annotation.RequirePermission;
+import com.quiz.config.properties.QuizSystemProperties;
 import com.quiz.dto.Result;
 import com.quiz.entity.Question;
+import com.quiz.service.QuestionCounterService;
+import com.quiz.service.QuestionSamplingService;
 import com.quiz.service.QuestionService;
 import com.quiz.utils.SecurityUtils;
 import com.quiz.utils.UserValidationHelper;
@@ -20,6 +23,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +43,9 @@ public class QuestionController {
 
     private final QuestionService questionService;
     private final UserValidationHelper userValidationHelper;
+    private final QuestionSamplingService questionSamplingService;
+    private final QuizSystemProperties quizSystemProperties;
+    private final QuestionCounterService questionCounterService;
 
     /**
      * 分页查询题目
@@ -84,6 +91,38 @@ public class QuestionController {
         return Result.success(result);
     }
 
+    /**
+     * 随机组卷
+     * 可按题型指定数量进行分层抽样；返回本次使用的 seed，携带相同 seed 可复现同一试卷
+     */
+    @Operation(summary = "随机组卷", description = "按题库随机抽题，支持按题型配额分层抽样和随机种子复现")
+    @GetMapping("/random")
+    public Result<Map<String, Object>> getRandomQuestions(
+            @RequestParam(required = false) Long bankId,
+            @RequestParam(required = false) Integer count,
+            @RequestParam(required = false) Integer single,
+            @RequestParam(required = false) Integer multiple,
+            @RequestParam(required = false) Integer judge,
+            @RequestParam(required = false) Integer essay,
+            @RequestParam(required = false) Long seed) {
+        Map<Question.QuestionType, Integer> typeCounts = new EnumMap<>(Question.QuestionType.class);
+        if (single != null) {
+            typeCounts.put(Question.QuestionType.single, single);
+        }
+        if (multiple != null) {
+            typeCounts.put(Question.QuestionType.multiple, multiple);
+        }
+        if (judge != null) {
+            typeCounts.put(Question.QuestionType.judge, judge);
+        }
+        if (essay != null) {
+            typeCounts.put(Question.QuestionType.essay, essay);
+        }
+
+        int total = count != null ? count : quizSystemProperties.getQuestion().getDefaultRandomCount();
+        return Result.success(questionSamplingService.generatePaper(bankId, total, typeCounts, seed));
+    }
+
     /**
      * 获取题目详情
      */
@@ -100,6 +139,7 @@ public class QuestionController {
         if (question == null) {
             throw new ResourceNotFoundException("题目不存在");
         }
+        questionCounterService.recordView(id);
         return Result.success(question);
     }
 
@@ -172,7 +212,7 @@ public class QuestionController {
         // 保持原来的bankId
         question.setBankId(existingQuestion.getBankId());
 
-        boolean success = questionService.updateById(question);
+        boolean success = questionService.updateQuestion(question);
         if (!success) {
             throw new RuntimeException("更新题目失败");
         }
@@ -196,7 +236,7 @@ public class QuestionController {
         userValidationHelper.getCurrentUserAndValidateOwnership(
                 existingQuestion.getCreatedBy(), "题目");
 
-        boolean success = questionService.removeById(id);
+        boolean success = questionService.deleteQuestion(id);
         if (!success) {
             throw new RuntimeException("删除题目失败");
         }
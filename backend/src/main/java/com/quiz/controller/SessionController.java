@@ -26,7 +26,7 @@ public class SessionController {
 
     /**
      * 开始或继续答题会话
-     * @param request 包含 bankId, mode(practice/exam), forceNew(可选，是否强制新建)
+     * @param request 包含 bankId, mode(practice/exam), forceNew(可选，是否强制新建), windowed(可选，是否分窗获取题目)
      */
     @PostMapping("/start")
     public Result<Map<String, Object>> startSession(@RequestBody Map<String, Object> request) {
@@ -42,7 +42,12 @@ public class SessionController {
 
             QuizSession.AnswerMode mode = QuizSession.AnswerMode.valueOf(modeStr);
 
-            Map<String, Object> result = sessionService.createOrContinueSession(userId, bankId, mode, forceNew);
+            // windowed=true 时只返回首个题目窗口，其余题目通过 /{sessionId}/questions 分窗获取
+            boolean windowed = request.get("windowed") != null && Boolean.parseBoolean(request.get("windowed").toString());
+
+            Map<String, Object> result = windowed
+                    ? sessionService.createOrContinueWindowedSession(userId, bankId, mode, forceNew)
+                    : sessionService.createOrContinueSession(userId, bankId, mode, forceNew);
             return Result.success("获取成功", result);
         } catch (Exception e) {
             return Result.error(e.getMessage());
@@ -197,6 +202,27 @@ public class SessionController {
         }
     }
 
+    /**
+     * 分窗获取会话试卷中的题目（不含答案与解析）
+     */
+    @GetMapping("/{sessionId}/questions")
+    public Result<Map<String, Object>> getQuestionWindow(
+            @PathVariable String sessionId,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(required = false) Integer size) {
+        try {
+            Long userId = SecurityUtils.getCurrentUserId();
+            if (userId == null) {
+                return Result.error("用户未登录");
+            }
+
+            Map<String, Object> window = sessionService.getQuestionWindow(sessionId, userId, from, size);
+            return Result.success("获取成功", window);
+        } catch (Exception e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
     /**
      * 完成会话
      */
@@ -1,18 +1,33 @@
 package com.quiz.controller;
 
+import com.quiz.dto.AnswerExportQuery;
 import com.quiz.dto.Result;
+import com.quiz.dto.UserPrincipal;
+import com.quiz.exception.BusinessException;
+import com.quiz.exception.ForbiddenException;
+import com.quiz.exception.UnauthorizedException;
+import com.quiz.service.AnswerExportService;
 import com.quiz.service.StatisticsService;
+import com.quiz.utils.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +44,7 @@ import java.util.Map;
 public class StatisticsController {
 
     private final StatisticsService statisticsService;
+    private final AnswerExportService answerExportService;
 
     /**
      * 获取系统统计数据
@@ -88,6 +104,21 @@ public class StatisticsController {
         }
     }
 
+    /**
+     * 获取我的排名
+     */
+    @Operation(summary = "获取我的排名", description = "获取当前用户在排行榜中的名次与成绩，未上榜时返回空")
+    @GetMapping("/ranking/me")
+    public Result<Map<String, Object>> getMyRanking(
+            @Parameter(description = "排行类型", example = "correct") @RequestParam(required = false) String type,
+            @Parameter(description = "时间范围", example = "all") @RequestParam(required = false) String period) {
+        try {
+            return Result.success("获取我的排名成功", statisticsService.getMyRanking(type, period));
+        } catch (Exception e) {
+            return Result.error("获取我的排名失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 获取详细统计数据
      */
@@ -131,6 +162,20 @@ public class StatisticsController {
         }
     }
 
+    /**
+     * 获取题库统计数据
+     */
+    @Operation(summary = "获取题库统计", description = "获取用户各题库的答题数、正确数与正确率")
+    @GetMapping("/bank")
+    public Result<List<Map<String, Object>>> getBankStats() {
+        try {
+            List<Map<String, Object>> stats = statisticsService.getBankStats();
+            return Result.success("获取题库统计成功", stats);
+        } catch (Exception e) {
+            return Result.error("获取题库统计失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 获取今日学习数据
      */
@@ -191,16 +236,62 @@ public class StatisticsController {
 
     /**
      * 导出统计报告
+     * text 导出统计摘要；csv / xlsx 流式导出答题记录。普通用户只能导出自己的记录，管理员可按题库、用户导出
      */
-    @Operation(summary = "导出统计报告", description = "导出用户的统计报告")
+    @Operation(summary = "导出统计报告", description = "text 导出统计摘要，csv/xlsx 流式导出答题记录")
     @GetMapping("/export")
-    public Result<String> exportStatisticsReport(
-            @Parameter(description = "导出格式", example = "text") @RequestParam String format) {
+    public void exportStatisticsReport(
+            @Parameter(description = "导出格式：text/csv/xlsx", example = "csv") @RequestParam(defaultValue = "text") String format,
+            @Parameter(description = "题库ID") @RequestParam(required = false) Long bankId,
+            @Parameter(description = "用户ID列表（仅管理员）") @RequestParam(required = false) List<Long> userIds,
+            @Parameter(description = "开始日期", example = "2024-01-01") @RequestParam(required = false) String startDate,
+            @Parameter(description = "结束日期", example = "2024-12-31") @RequestParam(required = false) String endDate,
+            HttpServletResponse response) throws IOException {
+        String date = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+        if ("text".equalsIgnoreCase(format)) {
+            byte[] report = statisticsService.exportStatisticsReport(format).getBytes(StandardCharsets.UTF_8);
+            prepareDownload(response, "text/plain;charset=UTF-8", "统计报告_" + date + ".txt");
+            response.setContentLength(report.length);
+            response.getOutputStream().write(report);
+            return;
+        }
+        AnswerExportService.Format exportFormat = AnswerExportService.Format.of(format);
+        if (exportFormat == null) {
+            throw new BusinessException(400, "不支持的导出格式: " + format);
+        }
+
+        UserPrincipal principal = SecurityUtils.getCurrentPrincipal();
+        if (principal == null) {
+            throw new UnauthorizedException("用户未登录");
+        }
+        AnswerExportQuery query = new AnswerExportQuery();
+        query.setBankId(bankId);
+        if (principal.isAdmin()) {
+            query.setUserIds(userIds);
+        } else if (userIds == null || userIds.isEmpty() || Collections.singletonList(principal.getUserId()).equals(userIds)) {
+            query.setUserIds(Collections.singletonList(principal.getUserId()));
+        } else {
+            throw new ForbiddenException("只能导出自己的答题记录");
+        }
         try {
-            String report = statisticsService.exportStatisticsReport(format);
-            return Result.success("导出统计报告成功", report);
-        } catch (Exception e) {
-            return Result.error("导出统计报告失败: " + e.getMessage());
+            if (startDate != null && !startDate.isEmpty()) {
+                query.setStartTime(LocalDate.parse(startDate).atStartOfDay());
+            }
+            if (endDate != null && !endDate.isEmpty()) {
+                query.setEndTime(LocalDate.parse(endDate).plusDays(1).atStartOfDay());
+            }
+        } catch (DateTimeParseException e) {
+            throw new BusinessException(400, "日期格式错误，应为 yyyy-MM-dd");
         }
+
+        prepareDownload(response, exportFormat.getContentType(), "答题记录_" + date + "." + exportFormat.getExtension());
+        answerExportService.export(exportFormat, query, response.getOutputStream());
+    }
+
+    private static void prepareDownload(HttpServletResponse response, String contentType, String filename) {
+        response.setContentType(contentType);
+        response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''"
+                + URLEncoder.encode(filename, StandardCharsets.UTF_8).replace("+", "%20"));
+        response.setHeader("Cache-Control", "no-store");
     }
-}
\ No newline at end of file
+}
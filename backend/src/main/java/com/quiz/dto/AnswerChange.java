@@ -0,0 +1,45 @@
+package com.quiz.dto;
+
+import com.quiz.entity.UserAnswer;
+import com.quiz.utils.AnswerUtils;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 一条答题记录的写入：本次写入的记录与写入前已有的记录（没有时为 null）
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Getter
+@RequiredArgsConstructor
+public class AnswerChange {
+
+    /**
+     * 本次写入的记录
+     */
+    private final UserAnswer current;
+
+    /**
+     * 写入前已有的记录，没有时为 null
+     */
+    private final UserAnswer previous;
+
+    public int answeredDelta() {
+        return AnswerUtils.answered(current) - AnswerUtils.answered(previous);
+    }
+
+    public int correctDelta() {
+        return AnswerUtils.correct(current) - AnswerUtils.correct(previous);
+    }
+
+    /**
+     * 记录计入的日期：覆盖写入保留原记录的 created_at，因此有原记录时取原记录的创建日期
+     */
+    public LocalDate date() {
+        UserAnswer source = previous != null && previous.getCreatedAt() != null ? previous : current;
+        return source.getCreatedAt() != null ? source.getCreatedAt().toLocalDate() : LocalDate.now();
+    }
+}
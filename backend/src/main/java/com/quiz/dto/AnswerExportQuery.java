@@ -0,0 +1,36 @@
+package com.quiz.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 答题记录导出条件
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Data
+public class AnswerExportQuery {
+
+    /**
+     * 用户ID列表，为空时不限用户
+     */
+    private List<Long> userIds;
+
+    /**
+     * 题库ID
+     */
+    private Long bankId;
+
+    /**
+     * 开始时间（包含）
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * 结束时间（不包含）
+     */
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,75 @@
+package com.quiz.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 答题记录导出行
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Data
+public class AnswerExportRow {
+
+    /**
+     * 记录ID
+     */
+    private Long id;
+
+    /**
+     * 答题时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 会话标识
+     */
+    private String sessionId;
+
+    /**
+     * 答题模式
+     */
+    private String mode;
+
+    /**
+     * 题库名称
+     */
+    private String bankName;
+
+    /**
+     * 题目ID
+     */
+    private Long questionId;
+
+    /**
+     * 题目类型
+     */
+    private String questionType;
+
+    /**
+     * 题目内容
+     */
+    private String questionContent;
+
+    /**
+     * 用户答案
+     */
+    private String userAnswer;
+
+    /**
+     * 是否正确（NULL-未判定）
+     */
+    private Integer isCorrect;
+}
@@ -0,0 +1,30 @@
+package com.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 判分结果
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Getter
+@AllArgsConstructor
+public class GradeResult {
+
+    /**
+     * 是否判为正确
+     */
+    private final boolean correct;
+
+    /**
+     * 得分（简答题按比例计分时可为部分分）
+     */
+    private final double score;
+
+    /**
+     * 满分
+     */
+    private final double fullScore;
+}
@@ -0,0 +1,38 @@
+package com.quiz.dto;
+
+import lombok.Data;
+
+/**
+ * 条目分析的单条作答记录（答题记录关联所在会话的得分）
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Data
+public class ItemResponseRow {
+
+    /**
+     * 题目ID
+     */
+    private Long questionId;
+
+    /**
+     * 是否正确
+     */
+    private Integer isCorrect;
+
+    /**
+     * 用户答案
+     */
+    private String userAnswer;
+
+    /**
+     * 会话已答题数
+     */
+    private Integer sessionAnswered;
+
+    /**
+     * 会话正确题数
+     */
+    private Integer sessionCorrect;
+}
@@ -0,0 +1,35 @@
+package com.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 题目计数增量（浏览数、答题数、答对数）
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Getter
+@AllArgsConstructor
+public class QuestionCounterDelta {
+
+    /**
+     * 题目ID
+     */
+    private final Long questionId;
+
+    /**
+     * 浏览数增量
+     */
+    private final long views;
+
+    /**
+     * 答题数增量
+     */
+    private final long answers;
+
+    /**
+     * 答对数增量
+     */
+    private final long correct;
+}
@@ -0,0 +1,30 @@
+package com.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 预序列化的响应体
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Getter
+@AllArgsConstructor
+public class SerializedPayload {
+
+    /**
+     * 内容版本标识（作为 ETag 返回）
+     */
+    private final String etag;
+
+    /**
+     * 序列化后的 JSON 字节
+     */
+    private final byte[] body;
+
+    /**
+     * gzip 压缩后的字节（未启用压缩或内容过小时为 null）
+     */
+    private final byte[] gzipBody;
+}
@@ -0,0 +1,67 @@
+package com.quiz.dto;
+
+import com.quiz.entity.Question;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 会话题目窗口中的单个题目DTO
+ * 不包含答案与解析；仅非考试模式下、已作答的题目才附带正确答案与解析
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Data
+public class SessionQuestionDto {
+
+    /**
+     * 在试卷中的索引（从0开始）
+     */
+    private Integer index;
+
+    /**
+     * 题目ID
+     */
+    private Long id;
+
+    /**
+     * 题库ID
+     */
+    private Long bankId;
+
+    /**
+     * 题目类型
+     */
+    private Question.QuestionType type;
+
+    /**
+     * 题目内容
+     */
+    private String content;
+
+    /**
+     * 选项列表
+     */
+    private List<String> options;
+
+    /**
+     * 用户已提交的答案（未作答为 null）
+     */
+    private String userAnswer;
+
+    /**
+     * 是否正确（未作答为 null）
+     */
+    private Integer isCorrect;
+
+    /**
+     * 正确答案（仅已作答且非考试模式时返回）
+     */
+    private String correctAnswer;
+
+    /**
+     * 题目解析（仅已作答且非考试模式时返回）
+     */
+    private String analysis;
+}
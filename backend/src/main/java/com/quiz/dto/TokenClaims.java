@@ -0,0 +1,39 @@
+package com.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * 已验证的 JWT 声明（不可变）
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Getter
+@AllArgsConstructor
+public class TokenClaims {
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 用户名
+     */
+    private final String username;
+
+    /**
+     * 过期时间
+     */
+    private final Date expiration;
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,102 @@
+package com.quiz.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.quiz.entity.User;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 已认证用户快照（不可变）
+ * 只包含鉴权所需的字段，缓存在本地与 Redis 中，避免每个请求都查询用户表
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Getter
+public final class UserPrincipal {
+
+    private final Long userId;
+    private final String username;
+    private final Integer status;
+    private final String role;
+    private final List<String> permissions;
+
+    /**
+     * 权限位掩码（位编号由 PermissionRegistry 在本节点分配，不序列化）
+     */
+    @JsonIgnore
+    private final long permissionMask;
+
+    @JsonCreator
+    public UserPrincipal(@JsonProperty("userId") Long userId,
+                         @JsonProperty("username") String username,
+                         @JsonProperty("status") Integer status,
+                         @JsonProperty("role") String role,
+                         @JsonProperty("permissions") List<String> permissions) {
+        this(userId, username, status, role, permissions, 0L);
+    }
+
+    private UserPrincipal(Long userId, String username, Integer status, String role, List<String> permissions, long permissionMask) {
+        this.userId = userId;
+        this.username = username;
+        this.status = status;
+        this.role = role;
+        this.permissions = permissions == null ? Collections.emptyList() : List.copyOf(permissions);
+        this.permissionMask = permissionMask;
+    }
+
+    /**
+     * 返回带有权限位掩码的副本
+     */
+    public UserPrincipal withPermissionMask(long permissionMask) {
+        return new UserPrincipal(userId, username, status, role, permissions, permissionMask);
+    }
+
+    /**
+     * 由用户实体创建快照
+     */
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getStatus(), user.getRole(), user.getPermissions());
+    }
+
+    /**
+     * 是否为管理员
+     */
+    @JsonIgnore
+    public boolean isAdmin() {
+        return "admin".equals(role);
+    }
+
+    /**
+     * 是否拥有任一权限（管理员拥有所有权限）
+     */
+    public boolean hasAnyPermission(long mask) {
+        return isAdmin() || (permissionMask & mask) != 0;
+    }
+
+    /**
+     * 是否拥有全部权限（管理员拥有所有权限）
+     */
+    public boolean hasAllPermissions(long mask) {
+        return isAdmin() || (permissionMask & mask) == mask;
+    }
+
+    /**
+     * 按权限标识逐个比较（权限未能映射为位时使用）
+     */
+    public boolean hasPermission(String permission) {
+        return isAdmin() || permissions.contains(permission);
+    }
+
+    /**
+     * 是否启用
+     */
+    @JsonIgnore
+    public boolean isEnabled() {
+        return status != null && status == 1;
+    }
+}
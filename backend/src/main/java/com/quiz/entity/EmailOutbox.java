@@ -0,0 +1,86 @@
+package com.quiz.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 邮件发件箱实体类
+ * 业务操作在自身事务中写入待发送邮件，由后台投递任务批量发送
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("email_outbox")
+public class EmailOutbox extends BaseEntity {
+
+    /**
+     * 邮件ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 收件人邮箱
+     */
+    private String recipient;
+
+    /**
+     * 邮件主题
+     */
+    private String subject;
+
+    /**
+     * 邮件内容（HTML格式）
+     */
+    private String content;
+
+    /**
+     * 投递状态
+     */
+    private OutboxStatus status;
+
+    /**
+     * 已尝试投递次数
+     */
+    private Integer attempts;
+
+    /**
+     * 下次可投递时间（投递中时为租约到期时间）
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * 当前认领批次标识
+     */
+    private String claimToken;
+
+    /**
+     * 最近一次投递失败原因
+     */
+    private String lastError;
+
+    /**
+     * 发送成功时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime sentAt;
+
+    /**
+     * 投递状态枚举
+     */
+    public enum OutboxStatus {
+        pending,   // 待发送
+        sending,   // 投递中
+        sent,      // 已发送
+        failed     // 超过重试次数，放弃投递
+    }
+}
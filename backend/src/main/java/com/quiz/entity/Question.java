@@ -1,6 +1,8 @@
 package com.quiz.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Data;
@@ -73,6 +75,24 @@ public class Question extends BaseEntity {
      */
     private Long createdBy;
 
+    /**
+     * 浏览次数（由计数服务批量累加，普通增改不写入）
+     */
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private Long viewCount;
+
+    /**
+     * 答题次数
+     */
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private Long answerCount;
+
+    /**
+     * 答对次数
+     */
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private Long correctCount;
+
     /**
      * 获取选项，如果为null则返回空列表
      */
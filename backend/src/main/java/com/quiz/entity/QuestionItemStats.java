@@ -0,0 +1,77 @@
+package com.quiz.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 题目测量学指标实体类
+ * 由条目分析任务按已完成会话的答题记录汇总而来
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Data
+@TableName(value = "question_item_stats", autoResultMap = true)
+public class QuestionItemStats {
+
+    /**
+     * 题目ID
+     */
+    @TableId(type = IdType.INPUT)
+    private Long questionId;
+
+    /**
+     * 所属题库ID
+     */
+    private Long bankId;
+
+    /**
+     * 作答次数
+     */
+    private Long attempts;
+
+    /**
+     * 答对次数
+     */
+    private Long correct;
+
+    /**
+     * 难度（通过率 p 值，答对次数 / 作答次数）
+     */
+    private Double difficulty;
+
+    /**
+     * 区分度（答对与否与会话其余题目得分率的点二列相关系数），样本不足时为空
+     */
+    private Double discrimination;
+
+    /**
+     * 各选项被选择的次数（选项字母 -> 次数），仅单选题和多选题
+     */
+    @TableField(typeHandler = JacksonTypeHandler.class)
+    private Map<String, Long> optionCounts;
+
+    /**
+     * 计算时间
+     */
+    private LocalDateTime computedAt;
+
+    /**
+     * 题目类型（报表展示用）
+     */
+    @TableField(exist = false)
+    private Question.QuestionType type;
+
+    /**
+     * 题目内容（报表展示用）
+     */
+    @TableField(exist = false)
+    private String content;
+}
@@ -0,0 +1,47 @@
+package com.quiz.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.quiz.handler.LongListTypeHandler;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 会话试卷实体类
+ * 会话创建时固定下来的有序题目ID列表，分窗获取题目时按索引切片
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Data
+@TableName(value = "session_papers", autoResultMap = true)
+public class SessionPaper {
+
+    /**
+     * 会话标识
+     */
+    @TableId(type = IdType.INPUT)
+    private String sessionId;
+
+    /**
+     * 有序题目ID列表
+     */
+    @TableField(typeHandler = LongListTypeHandler.class)
+    private List<Long> questionIds;
+
+    /**
+     * 题目数量
+     */
+    private Integer questionCount;
+
+    /**
+     * 创建时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+}
@@ -1,6 +1,7 @@
 package com.quiz.entity;
 
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.fasterxml.jackson.annotation.JsonFormat;
@@ -54,6 +55,17 @@ public class UserAnswer {
      */
     private Integer isCorrect;
 
+    /**
+     * 写回模式下本会话该题累计的答错次数，与答案一同落库，据此计算错题本的增量
+     */
+    private Integer wrongCount;
+
+    /**
+     * 本次得分（不持久化，简答题按比例计分时为部分分）
+     */
+    @TableField(exist = false)
+    private Double score;
+
     /**
      * 创建时间
      */
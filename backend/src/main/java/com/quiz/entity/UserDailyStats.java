@@ -0,0 +1,67 @@
+package com.quiz.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 用户每日答题统计实体类
+ * 由答题记录按 (用户, 日期) 汇总而来，答题时增量刷新，统计接口按日期范围一次读取
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Data
+@TableName("user_daily_stats")
+public class UserDailyStats {
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 统计日期
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate statDate;
+
+    /**
+     * 答题数
+     */
+    private Integer answered;
+
+    /**
+     * 正确数
+     */
+    private Integer correct;
+
+    /**
+     * 单选题答题数
+     */
+    private Integer singleCount;
+
+    /**
+     * 多选题答题数
+     */
+    private Integer multipleCount;
+
+    /**
+     * 判断题答题数
+     */
+    private Integer judgeCount;
+
+    /**
+     * 简答题答题数
+     */
+    private Integer essayCount;
+
+    /**
+     * 更新时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+}
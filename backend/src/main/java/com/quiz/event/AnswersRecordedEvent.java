@@ -0,0 +1,82 @@
+package com.quiz.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 答题记录写入事件
+ * 答题记录新增或覆盖后发布，携带每条记录相对写入前的增量，用于累加对应用户、对应日期的每日统计以及排行榜
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Getter
+@RequiredArgsConstructor
+public class AnswersRecordedEvent {
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 每条答题记录的增量
+     */
+    private final List<AnswerDelta> deltas;
+
+    /**
+     * 答题记录所在日期
+     */
+    public Set<LocalDate> getDates() {
+        Set<LocalDate> dates = new TreeSet<>();
+        deltas.forEach(delta -> dates.add(delta.getDate()));
+        return dates;
+    }
+
+    /**
+     * 本次写入带来的答题数增量（覆盖已有作答时为 0，空白答案覆盖作答时为负数）
+     */
+    public int getAnswered() {
+        return deltas.stream().mapToInt(AnswerDelta::getAnswered).sum();
+    }
+
+    /**
+     * 本次写入带来的答对数增量（正确性未变化时为 0，可为负数）
+     */
+    public int getCorrect() {
+        return deltas.stream().mapToInt(AnswerDelta::getCorrect).sum();
+    }
+
+    /**
+     * 单条答题记录的增量
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class AnswerDelta {
+
+        /**
+         * 题目ID
+         */
+        private final Long questionId;
+
+        /**
+         * 记录计入的日期：覆盖已有记录时为原记录的创建日期（覆盖不改变 created_at）
+         */
+        private final LocalDate date;
+
+        /**
+         * 答题数增量（-1、0 或 1）
+         */
+        private final int answered;
+
+        /**
+         * 答对数增量（-1、0 或 1）
+         */
+        private final int correct;
+    }
+}
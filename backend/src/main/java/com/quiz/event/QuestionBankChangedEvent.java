@@ -0,0 +1,21 @@
+package com.quiz.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 题库内容变更事件
+ * 题目新增、修改、删除、排序、启用/禁用以及导入后发布，用于失效按题库缓存的数据
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Getter
+@RequiredArgsConstructor
+public class QuestionBankChangedEvent {
+
+    /**
+     * 发生变更的题库ID
+     */
+    private final Long bankId;
+}
@@ -0,0 +1,24 @@
+package com.quiz.exception;
+
+/**
+ * 请求过于频繁异常
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    /**
+     * 建议客户端重试的等待时间（秒）
+     */
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
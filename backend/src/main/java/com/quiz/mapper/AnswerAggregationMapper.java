@@ -0,0 +1,39 @@
+package com.quiz.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 答题记录聚合查询Mapper接口
+ * user_answers 侧按 idx_user_question_correct (user_id, question_id, is_correct) 定位用户的记录，题目按主键关联；
+ * 空白答案（TRIM(user_answer) = ''）不计为作答，与排行榜、每日统计的计数规则一致
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Mapper
+public interface AnswerAggregationMapper {
+
+    /**
+     * 按题型统计用户的答题数与正确数
+     */
+    @Select("SELECT q.type AS type, COUNT(*) AS answered, COALESCE(SUM(ua.is_correct = 1), 0) AS correct "
+            + "FROM user_answers ua JOIN questions q ON q.id = ua.question_id "
+            + "WHERE ua.user_id = #{userId} AND TRIM(ua.user_answer) <> '' GROUP BY q.type")
+    List<Map<String, Object>> countByType(@Param("userId") Long userId);
+
+    /**
+     * 按题库统计用户的答题数与正确数
+     */
+    @Select("SELECT q.bank_id AS bankId, b.name AS bankName, COUNT(*) AS answered, "
+            + "COALESCE(SUM(ua.is_correct = 1), 0) AS correct "
+            + "FROM user_answers ua JOIN questions q ON q.id = ua.question_id "
+            + "LEFT JOIN question_banks b ON b.id = q.bank_id "
+            + "WHERE ua.user_id = #{userId} AND TRIM(ua.user_answer) <> '' "
+            + "GROUP BY q.bank_id, b.name ORDER BY answered DESC")
+    List<Map<String, Object>> countByBank(@Param("userId") Long userId);
+}
@@ -0,0 +1,51 @@
+package com.quiz.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.quiz.entity.EmailOutbox;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 邮件发件箱Mapper接口
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Mapper
+public interface EmailOutboxMapper extends BaseMapper<EmailOutbox> {
+
+    /**
+     * 认领一批到期的邮件：待发送的，以及租约已过期的投递中邮件（投递节点宕机时）
+     * 认领后状态置为投递中，下次可投递时间置为租约到期时间，尝试次数在认领时加一（租约过期后重新认领同样计数）
+     */
+    @Update("UPDATE email_outbox SET status = 'sending', claim_token = #{token}, next_attempt_at = #{leaseUntil}, "
+            + "attempts = attempts + 1, updated_at = #{now} "
+            + "WHERE status IN ('pending', 'sending') AND next_attempt_at <= #{now} "
+            + "ORDER BY next_attempt_at ASC, id ASC LIMIT #{limit}")
+    int claimBatch(@Param("token") String token, @Param("now") LocalDateTime now,
+                   @Param("leaseUntil") LocalDateTime leaseUntil, @Param("limit") int limit);
+
+    /**
+     * 查询本批次认领到的邮件
+     */
+    @Select("SELECT * FROM email_outbox WHERE claim_token = #{token} AND status = 'sending' ORDER BY id ASC")
+    List<EmailOutbox> findClaimed(@Param("token") String token);
+
+    /**
+     * 清理早于指定时间发送成功的邮件
+     */
+    @Delete("DELETE FROM email_outbox WHERE status = 'sent' AND sent_at < #{before} LIMIT #{limit}")
+    int deleteSentBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * 清理早于指定时间最终投递失败的邮件（按最后更新时间）
+     */
+    @Delete("DELETE FROM email_outbox WHERE status = 'failed' AND updated_at < #{before} LIMIT #{limit}")
+    int deleteFailedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,38 @@
+package com.quiz.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.quiz.dto.ItemResponseRow;
+import com.quiz.entity.QuestionItemStats;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+/**
+ * 题目测量学指标Mapper接口
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Mapper
+public interface QuestionItemStatsMapper extends BaseMapper<QuestionItemStats> {
+
+    /**
+     * 流式读取已完成会话中的已判分答题记录
+     * 需要在事务内消费；MySQL 需在连接串中开启 useCursorFetch=true，按 fetchSize 分批拉取
+     */
+    @Select("SELECT ua.question_id AS questionId, ua.is_correct AS isCorrect, ua.user_answer AS userAnswer, "
+            + "s.answered_questions AS sessionAnswered, s.correct_answers AS sessionCorrect "
+            + "FROM user_answers ua JOIN quiz_sessions s ON s.session_id = ua.session_id "
+            + "WHERE s.status = 'completed' AND ua.is_correct IS NOT NULL")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    Cursor<ItemResponseRow> streamResponses();
+
+    /**
+     * 清空指标表（全量重算前）
+     */
+    @Delete("DELETE FROM question_item_stats")
+    int deleteAll();
+}
@@ -1,8 +1,10 @@
 package com.quiz.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.quiz.dto.QuestionCounterDelta;
 import com.quiz.entity.Question;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import java.util.List;
 
@@ -16,22 +18,17 @@ import java.util.List;
 public interface QuestionMapper extends BaseMapper<Question> {
 
     /**
-     * 随机获取题目
-     */
-    List<Question> selectRandomQuestions(int count);
-
-    /**
-     * 根据分类随机获取题目
+     * 根据ID获取题目详情
      */
-    List<Question> selectRandomQuestionsByCategory(String category, int count);
+    Question selectQuestionById(Long id);
 
     /**
-     * 根据难度随机获取题目
+     * 多行插入题目（单条 INSERT ... VALUES (...), (...)）
      */
-    List<Question> selectRandomQuestionsByDifficulty(Integer difficulty, int count);
+    int insertBatch(@Param("questions") List<Question> questions);
 
     /**
-     * 根据ID获取题目详情
+     * 批量累加题目的浏览数、答题数与答对数（单条 UPDATE ... CASE）
      */
-    Question selectQuestionById(Long id);
+    int addCounters(@Param("deltas") List<QuestionCounterDelta> deltas);
 }
@@ -2,7 +2,11 @@ package com.quiz.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.quiz.entity.QuizSession;
+import com.quiz.entity.UserAnswer;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 答题会话Mapper接口
@@ -12,4 +16,31 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface QuizSessionMapper extends BaseMapper<QuizSession> {
+
+    /**
+     * 原子地累加一次答题对会话计数器的影响，全部答完时同时结束会话
+     *
+     * @param answered 本次答案计入的作答数（空白答案为 0）
+     * @param correct 本次答案计入的答对数（空白答案为 0）
+     * @return 影响行数，0 表示会话不存在或已结束
+     */
+    int applyAnswer(@Param("sessionId") String sessionId,
+                    @Param("questionId") Long questionId,
+                    @Param("answered") int answered,
+                    @Param("correct") int correct,
+                    @Param("currentIndex") int currentIndex);
+
+    /**
+     * 取回最近一次 applyAnswer 读取到的该题已有答题记录（只含作答内容、是否正确与创建时间），
+     * 须在同一事务内紧随 applyAnswer 调用；原来没有记录时返回 null
+     */
+    UserAnswer selectAppliedPrevious();
+
+    /**
+     * 批量写回进行中会话的计数器、当前题目索引与更新时间，已结束的会话不受影响
+     *
+     * @param sessions 会话快照，同一批内会话标识不重复
+     * @return 影响行数
+     */
+    int updateProgressBatch(@Param("sessions") List<QuizSession> sessions);
 }
@@ -0,0 +1,15 @@
+package com.quiz.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.quiz.entity.SessionPaper;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 会话试卷Mapper接口
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Mapper
+public interface SessionPaperMapper extends BaseMapper<SessionPaper> {
+}
@@ -1,8 +1,17 @@
 package com.quiz.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.quiz.dto.AnswerExportQuery;
+import com.quiz.dto.AnswerExportRow;
 import com.quiz.entity.UserAnswer;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 用户答题记录Mapper接口
@@ -12,4 +21,23 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface UserAnswerMapper extends BaseMapper<UserAnswer> {
+
+    /**
+     * 批量写入答题记录（按 session_id + question_id 覆盖）
+     */
+    int upsertBatch(@Param("answers") List<UserAnswer> answers);
+
+    /**
+     * 按用户统计 [start, end) 时间范围内的答题数与正确数（空白答案不计），start 为空时不限开始时间
+     */
+    @Select("<script>SELECT user_id AS userId, COUNT(*) AS answered, COALESCE(SUM(is_correct = 1), 0) AS correct "
+            + "FROM user_answers WHERE created_at &lt; #{end} AND TRIM(user_answer) &lt;&gt; ''"
+            + "<if test='start != null'> AND created_at &gt;= #{start}</if> GROUP BY user_id</script>")
+    List<Map<String, Object>> countByUser(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 按条件流式读取答题记录（按记录ID升序）
+     * 需要在事务内消费；MySQL 需在连接串中开启 useCursorFetch=true，按 fetchSize 分批拉取
+     */
+    Cursor<AnswerExportRow> streamForExport(@Param("query") AnswerExportQuery query);
 }
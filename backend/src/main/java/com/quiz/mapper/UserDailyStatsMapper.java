@@ -0,0 +1,40 @@
+package com.quiz.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.quiz.entity.UserDailyStats;
+import com.quiz.event.AnswersRecordedEvent;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用户每日答题统计Mapper接口
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Mapper
+public interface UserDailyStatsMapper extends BaseMapper<UserDailyStats> {
+
+    /**
+     * 按答题记录重新汇总指定用户 [start, end) 时间范围内的每日统计（空白答案不计）
+     * userId 为空时汇总全部用户（每晚对账、历史数据回填）
+     */
+    int rollup(@Param("userId") Long userId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 把用户的答题增量累加到对应日期的每日统计（含题型计数）
+     */
+    int applyDeltas(@Param("userId") Long userId, @Param("deltas") List<AnswersRecordedEvent.AnswerDelta> deltas);
+
+    /**
+     * 删除指定用户 [startDate, endDate] 日期范围内的每日统计，userId 为空时删除全部用户
+     */
+    @Delete("<script>DELETE FROM user_daily_stats WHERE stat_date BETWEEN #{startDate} AND #{endDate}"
+            + "<if test='userId != null'> AND user_id = #{userId}</if></script>")
+    int deleteRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -3,6 +3,9 @@ package com.quiz.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.quiz.entity.WrongQuestion;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 错题Mapper接口
@@ -12,4 +15,9 @@ import org.apache.ibatis.annotations.Mapper;
  */
 @Mapper
 public interface WrongQuestionMapper extends BaseMapper<WrongQuestion> {
+
+    /**
+     * 批量记录错题（按 user_id + question_id 累加错误次数）
+     */
+    int upsertBatch(@Param("wrongQuestions") List<WrongQuestion> wrongQuestions);
 }
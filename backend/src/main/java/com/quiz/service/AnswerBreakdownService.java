@@ -0,0 +1,29 @@
+package com.quiz.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 答题分布统计服务接口
+ * 按题型、按题库汇总用户的答题数、正确数与正确率
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface AnswerBreakdownService {
+
+    /**
+     * 按题型统计（type、count、answered、correct、accuracy）
+     */
+    List<Map<String, Object>> getByType(Long userId);
+
+    /**
+     * 按题库统计（bankId、bankName、answered、correct、accuracy）
+     */
+    List<Map<String, Object>> getByBank(Long userId);
+
+    /**
+     * 使用户的统计缓存失效
+     */
+    void invalidate(Long userId);
+}
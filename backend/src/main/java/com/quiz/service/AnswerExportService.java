@@ -0,0 +1,58 @@
+package com.quiz.service;
+
+import com.quiz.dto.AnswerExportQuery;
+
+import java.io.OutputStream;
+
+/**
+ * 答题记录导出服务接口
+ * 按条件流式导出答题记录，内存占用与导出行数无关
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface AnswerExportService {
+
+    /**
+     * 导出格式
+     */
+    enum Format {
+        CSV("csv", "text/csv;charset=UTF-8"),
+        XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * 按扩展名解析导出格式，不支持时返回 null
+         */
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 将符合条件的答题记录写入输出流
+     *
+     * @return 导出行数
+     */
+    long export(Format format, AnswerExportQuery query, OutputStream out);
+}
@@ -0,0 +1,29 @@
+package com.quiz.service;
+
+import com.quiz.dto.GradeResult;
+import com.quiz.entity.Question;
+
+/**
+ * 判分服务接口
+ * 所有判分路径（单题练习、会话答题、考试交卷）统一使用该服务，保证判分结果一致
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface AnswerGradingService {
+
+    /**
+     * 判断用户答案是否正确
+     */
+    boolean grade(Question question, String userAnswer);
+
+    /**
+     * 判分并计算得分（简答题按配置的判分模式计分）
+     */
+    GradeResult evaluate(Question question, String userAnswer);
+
+    /**
+     * 使题目的已编译答案失效
+     */
+    void invalidate(Long questionId);
+}
@@ -0,0 +1,45 @@
+package com.quiz.service;
+
+import java.time.Duration;
+
+/**
+ * 集群锁服务接口
+ * 多节点部署时保证定时任务、重建等批处理同一时刻只在一个节点执行
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface ClusterLockService {
+
+    /**
+     * 尝试获取锁
+     *
+     * @param name  锁名称
+     * @param lease 租期，持有方宕机或未释放时到期自动失效
+     * @return 持有凭证，锁已被其他持有方占用或 Redis 不可用时返回 null
+     */
+    String tryLock(String name, Duration lease);
+
+    /**
+     * 释放锁，只有凭证匹配时才删除（租期已过、锁被他人获取时不影响新的持有方）
+     */
+    void unlock(String name, String token);
+
+    /**
+     * 获取锁后执行任务并释放锁
+     *
+     * @return 是否执行了任务，锁已被占用时返回 false
+     */
+    default boolean runExclusive(String name, Duration lease, Runnable task) {
+        String token = tryLock(name, lease);
+        if (token == null) {
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            unlock(name, token);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.quiz.service;
+
+import com.quiz.entity.UserDailyStats;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 用户每日答题统计服务接口
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface DailyStatsService {
+
+    /**
+     * 获取用户 [startDate, endDate] 范围内有记录的每日统计（按日期升序）
+     */
+    List<UserDailyStats> getRange(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 分页获取用户 [startDate, endDate] 范围内有答题的日期统计（按日期升序）
+     */
+    List<UserDailyStats> getActiveDays(Long userId, LocalDate startDate, LocalDate endDate, int offset, int limit);
+
+    /**
+     * 获取用户累计答题数与正确数
+     *
+     * @return [答题数, 正确数]
+     */
+    long[] getTotals(Long userId);
+
+    /**
+     * 在后台按答题记录重新汇总全部用户 [from, to] 日期范围内的每日统计（历史数据回填），
+     * from 为空时从最早的答题记录开始；集群内同一时刻只运行一个汇总任务
+     *
+     * @return 是否已开始，已有汇总任务在运行时返回 false
+     */
+    boolean startRebuild(LocalDate from, LocalDate to);
+}
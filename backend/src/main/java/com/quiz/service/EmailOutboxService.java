@@ -0,0 +1,23 @@
+package com.quiz.service;
+
+/**
+ * 邮件发件箱服务接口
+ * 邮件先写入发件箱表（加入调用方事务），由后台任务批量投递，请求线程不等待SMTP
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface EmailOutboxService {
+
+    /**
+     * 写入一封待发送邮件
+     */
+    void enqueue(String to, String subject, String content);
+
+    /**
+     * 投递一批到期的邮件
+     *
+     * @return 本批发送成功的数量
+     */
+    int dispatchBatch();
+}
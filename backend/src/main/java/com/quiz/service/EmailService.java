@@ -1,9 +1,8 @@
 package com.quiz.service;
 
-import jakarta.mail.MessagingException;
-
 /**
  * 邮件服务接口
+ * 邮件写入发件箱后由后台任务异步投递，调用方不等待SMTP发送
  *
  * @author Quiz System
  * @since 2024-09-29
@@ -11,36 +10,32 @@ import jakarta.mail.MessagingException;
 public interface EmailService {
 
     /**
-     * 发送HTML邮件
+     * 发送HTML邮件（写入发件箱，加入调用方事务）
      * @param to 收件人邮箱
      * @param subject 邮件主题
      * @param content 邮件内容（HTML格式）
-     * @throws MessagingException 邮件发送异常
      */
-    void sendHtmlEmail(String to, String subject, String content) throws MessagingException;
+    void sendHtmlEmail(String to, String subject, String content);
 
     /**
      * 发送验证码邮件
      * @param to 收件人邮箱
      * @param code 验证码
-     * @throws MessagingException 邮件发送异常
      */
-    void sendVerificationCodeEmail(String to, String code) throws MessagingException;
+    void sendVerificationCodeEmail(String to, String code);
 
     /**
      * 发送欢迎邮件
      * @param to 收件人邮箱
      * @param username 用户名
-     * @throws MessagingException 邮件发送异常
      */
-    void sendWelcomeEmail(String to, String username) throws MessagingException;
+    void sendWelcomeEmail(String to, String username);
 
     /**
      * 发送密码重置邮件
      * @param to 收件人邮箱
      * @param username 用户名
      * @param newPassword 新密码
-     * @throws MessagingException 邮件发送异常
      */
-    void sendPasswordResetEmail(String to, String username, String newPassword) throws MessagingException;
+    void sendPasswordResetEmail(String to, String username, String newPassword);
 }
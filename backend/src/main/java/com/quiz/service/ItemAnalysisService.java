@@ -0,0 +1,28 @@
+package com.quiz.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.quiz.entity.QuestionItemStats;
+
+import java.util.List;
+
+/**
+ * 条目分析服务接口
+ * 计算题目的难度（p 值）、区分度（点二列相关）与选项分布
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface ItemAnalysisService extends IService<QuestionItemStats> {
+
+    /**
+     * 按全部已完成会话的答题记录重新计算各题指标
+     *
+     * @return 写入指标的题目数
+     */
+    int analyze();
+
+    /**
+     * 获取题库的条目分析报表（按区分度升序，区分度低的题目排在前面）
+     */
+    List<QuestionItemStats> getBankReport(Long bankId);
+}
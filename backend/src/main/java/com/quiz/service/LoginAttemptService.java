@@ -0,0 +1,36 @@
+package com.quiz.service;
+
+/**
+ * 登录防暴力破解服务接口
+ * 按用户名和客户端IP统计滑动窗口内的登录失败次数，并限制同时进行的密码校验与哈希数量
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface LoginAttemptService {
+
+    /**
+     * 校验是否允许登录，超过失败次数时抛出 TooManyRequestsException（在密码校验之前调用）
+     */
+    void checkAllowed(String username, String clientIp);
+
+    /**
+     * 记录一次登录失败
+     */
+    void recordFailure(String username, String clientIp);
+
+    /**
+     * 登录成功后清除该用户名的失败记录
+     */
+    void reset(String username);
+
+    /**
+     * 在并发闸门内校验密码，闸门已满时抛出 TooManyRequestsException
+     */
+    boolean verifyPassword(String rawPassword, String encodedPassword);
+
+    /**
+     * 在同一并发闸门内计算密码哈希（注册、修改密码、登录后重新哈希），闸门已满时抛出 TooManyRequestsException
+     */
+    String encodePassword(String rawPassword);
+}
@@ -0,0 +1,22 @@
+package com.quiz.service;
+
+import com.quiz.dto.UserPrincipal;
+
+/**
+ * 已认证用户缓存服务接口
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface PrincipalCacheService {
+
+    /**
+     * 获取用户快照（本地缓存 → Redis → 数据库），用户不存在时返回 null
+     */
+    UserPrincipal getPrincipal(Long userId);
+
+    /**
+     * 使用户快照失效（状态、权限、资料、密码变更或登出时调用）
+     */
+    void invalidate(Long userId);
+}
@@ -0,0 +1,34 @@
+package com.quiz.service;
+
+import com.quiz.dto.SerializedPayload;
+
+/**
+ * 题库题目列表响应缓存服务接口
+ * 按题库内容版本缓存已序列化的响应字节，题库变更时版本递增
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface QuestionBankPayloadService {
+
+    /**
+     * 获取题库题目列表的预序列化响应
+     *
+     * @param bankId 题库ID
+     * @return 预序列化响应，题库不存在时返回 null
+     */
+    SerializedPayload getQuestionsPayload(Long bankId);
+
+    /**
+     * 记录一次完整响应（用于字节数指标）
+     *
+     * @param bytes 响应字节数
+     * @param gzip 是否为 gzip 压缩内容
+     */
+    void recordServed(int bytes, boolean gzip);
+
+    /**
+     * 记录一次 304 未修改响应
+     */
+    void recordNotModified();
+}
@@ -0,0 +1,38 @@
+package com.quiz.service;
+
+import com.quiz.entity.Question;
+
+/**
+ * 题目计数服务接口
+ * 在内存中累计题目的浏览数、答题数与答对数，定期批量写入数据库
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface QuestionCounterService {
+
+    /**
+     * 记录一次浏览
+     */
+    void recordView(Long questionId);
+
+    /**
+     * 记录一次作答（处于事务中时在提交后计入）
+     */
+    void recordAnswer(Long questionId, boolean correct);
+
+    /**
+     * 记录答题记录覆盖带来的增量（答题数、答对数可为负；处于事务中时在提交后计入）
+     */
+    void recordAnswerChange(Long questionId, int answers, int correct);
+
+    /**
+     * 将尚未落库的计数叠加到题目上，用于返回实时数据
+     */
+    Question applyPending(Question question);
+
+    /**
+     * 将累计的增量写入数据库
+     */
+    void flush();
+}
@@ -0,0 +1,38 @@
+package com.quiz.service;
+
+import com.quiz.entity.Question;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 随机组卷服务接口
+ * 按题库、题型维护启用题目的ID索引，在内存中抽样后只按ID查询被抽中的题目
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface QuestionSamplingService {
+
+    /**
+     * 随机抽取题目ID
+     *
+     * @param bankId 题库ID，为空时从所有启用题目中抽取
+     * @param count 总数量（未指定题型配额时使用）
+     * @param typeCounts 各题型的数量配额（分层抽样），为空时不区分题型
+     * @param seed 随机种子，相同种子与相同题库内容得到相同试卷
+     * @return 抽中的题目ID（按抽取顺序）
+     */
+    List<Long> sampleQuestionIds(Long bankId, int count, Map<Question.QuestionType, Integer> typeCounts, long seed);
+
+    /**
+     * 随机组卷
+     *
+     * @param bankId 题库ID，为空时从所有启用题目中抽取
+     * @param count 总数量（未指定题型配额时使用）
+     * @param typeCounts 各题型的数量配额（分层抽样），为空时不区分题型
+     * @param seed 随机种子，为空时随机生成
+     * @return 包含 seed 与 questions 的结果
+     */
+    Map<String, Object> generatePaper(Long bankId, int count, Map<Question.QuestionType, Integer> typeCounts, Long seed);
+}
@@ -29,6 +29,11 @@ public interface QuestionService extends IService<Question> {
      */
     List<Question> getQuestionsByIds(List<Long> ids);
 
+    /**
+     * 获取题库下所有启用题目的ID（与 getQuestionsByBankId 顺序一致）
+     */
+    List<Long> getQuestionIdsByBankId(Long bankId);
+
     /**
      * 添加题目到题库（使用question中的bankId）
      */
@@ -39,6 +44,11 @@ public interface QuestionService extends IService<Question> {
      */
     Question addQuestion(Long bankId, Question question);
 
+    /**
+     * 更新题目
+     */
+    boolean updateQuestion(Question question);
+
     /**
      * 删除题库中的所有题目
      */
@@ -69,6 +79,13 @@ public interface QuestionService extends IService<Question> {
      */
     boolean batchDelete(List<Long> ids, Long userId);
 
+    /**
+     * 在一个事务中用一条多行 INSERT 写入一批题目（导入使用，不更新题库题目数）
+     *
+     * @return 写入的题目数
+     */
+    int insertBatch(List<Question> questions);
+
     /**
      * 获取题库的题目数量
      */
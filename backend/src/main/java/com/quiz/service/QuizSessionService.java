@@ -34,6 +34,27 @@ public interface QuizSessionService extends IService<QuizSession> {
      */
     Map<String, Object> createOrContinueSession(Long userId, Long bankId, QuizSession.AnswerMode mode, boolean forceNew);
 
+    /**
+     * 创建或获取答题会话（分窗模式）
+     * 只固定试卷的题目ID顺序，返回会话信息与起始位置的第一个题目窗口
+     * @param userId 用户ID
+     * @param bankId 题库ID
+     * @param mode 答题模式
+     * @param forceNew 是否强制新建（重置）
+     * @return 会话信息、试卷题数、起始索引和题目窗口
+     */
+    Map<String, Object> createOrContinueWindowedSession(Long userId, Long bankId, QuizSession.AnswerMode mode, boolean forceNew);
+
+    /**
+     * 获取会话试卷中的题目窗口（不含答案与解析）
+     * @param sessionId 会话标识
+     * @param userId 用户ID
+     * @param from 起始索引
+     * @param size 窗口大小（为空时使用默认值）
+     * @return 题目窗口与预取提示
+     */
+    Map<String, Object> getQuestionWindow(String sessionId, Long userId, int from, Integer size);
+
     /**
      * 根据sessionId获取会话
      */
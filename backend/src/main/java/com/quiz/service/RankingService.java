@@ -0,0 +1,32 @@
+package com.quiz.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 排行榜服务接口
+ * 按 日/周/月/总 维护答对题数与答题数排行，答题时增量更新
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface RankingService {
+
+    /**
+     * 获取排行榜前 N 名
+     *
+     * @param type   排行类型：answers 按答题数，其余按答对题数
+     * @param period 时间范围：day / week / month / all
+     */
+    List<Map<String, Object>> getTopRanking(String type, String period);
+
+    /**
+     * 获取用户在排行榜中的名次与成绩，未上榜时返回 null
+     */
+    Map<String, Object> getUserRanking(Long userId, String type, String period);
+
+    /**
+     * 按答题记录重建当前各时间范围的排行榜
+     */
+    void rebuild();
+}
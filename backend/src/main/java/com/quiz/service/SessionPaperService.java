@@ -0,0 +1,25 @@
+package com.quiz.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.quiz.entity.SessionPaper;
+
+import java.util.List;
+
+/**
+ * 会话试卷服务接口
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface SessionPaperService extends IService<SessionPaper> {
+
+    /**
+     * 获取会话试卷的有序题目ID列表，不存在时返回 null
+     */
+    List<Long> getQuestionIds(String sessionId);
+
+    /**
+     * 保存会话试卷
+     */
+    void savePaper(String sessionId, List<Long> questionIds);
+}
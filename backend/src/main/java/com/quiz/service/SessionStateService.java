@@ -0,0 +1,57 @@
+package com.quiz.service;
+
+import com.quiz.entity.QuizSession;
+import com.quiz.entity.UserAnswer;
+
+/**
+ * 答题会话状态服务接口
+ * <p>
+ * 写回（write-behind）模式下，进行中会话的计数器与答案保存在内存中，
+ * 并同步到 Redis Hash 以便其他节点接管，由定时任务批量落库。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface SessionStateService {
+
+    /**
+     * 是否启用写回模式
+     */
+    boolean isWriteBehind();
+
+    /**
+     * 获取会话状态（内存 -> Redis -> 数据库），返回当前会话的快照
+     *
+     * @param sessionId 会话标识
+     * @return 会话快照，不存在时返回 null
+     */
+    QuizSession getSession(String sessionId);
+
+    /**
+     * 记录一次答题，更新内存中的答案与会话计数器
+     *
+     * @param sessionId 会话标识
+     * @param answer 答题记录（isCorrect 已判定）
+     * @return 更新后的会话快照
+     */
+    QuizSession recordAnswer(String sessionId, UserAnswer answer);
+
+    /**
+     * 将指定会话的未落库数据立即写入数据库
+     *
+     * @param sessionId 会话标识
+     */
+    void flush(String sessionId);
+
+    /**
+     * 将所有会话的未落库数据写入数据库
+     */
+    void flushAll();
+
+    /**
+     * 落库后移除会话状态（会话结束或重置时调用）
+     *
+     * @param sessionId 会话标识
+     */
+    void evict(String sessionId);
+}
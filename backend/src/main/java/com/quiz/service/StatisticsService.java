@@ -26,6 +26,11 @@ public interface StatisticsService {
      */
     List<Map<String, Object>> getRankingData(String type, String period);
 
+    /**
+     * 获取当前用户在排行榜中的名次，未上榜时返回 null
+     */
+    Map<String, Object> getMyRanking(String type, String period);
+
     /**
      * 获取详细统计数据
      */
@@ -41,6 +46,11 @@ public interface StatisticsService {
      */
     List<Map<String, Object>> getTypeStats();
 
+    /**
+     * 获取题库统计数据
+     */
+    List<Map<String, Object>> getBankStats();
+
     /**
      * 获取今日学习数据
      */
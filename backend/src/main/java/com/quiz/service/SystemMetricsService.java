@@ -0,0 +1,59 @@
+package com.quiz.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 系统计数服务接口
+ * 维护用户、题目、题库、答题会话总数，以及每日活跃用户的近似去重计数
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public interface SystemMetricsService {
+
+    /**
+     * 计数项
+     */
+    enum Metric {
+        USERS("totalUsers"),
+        QUESTIONS("totalQuestions"),
+        BANKS("totalBanks"),
+        SESSIONS("totalSessions");
+
+        private final String field;
+
+        Metric(String field) {
+            this.field = field;
+        }
+
+        public String getField() {
+            return field;
+        }
+    }
+
+    /**
+     * 调整计数（处于事务中时在提交后生效）
+     */
+    void increment(Metric metric, long delta);
+
+    /**
+     * 记录用户当日活跃
+     */
+    void recordActiveUser(Long userId);
+
+    /**
+     * [from, to] 日期范围内的活跃用户数（去重，近似值）
+     */
+    long countActiveUsers(LocalDate from, LocalDate to);
+
+    /**
+     * 获取系统统计数据（各项总数与今日活跃用户数）
+     */
+    Map<String, Object> getSystemStats();
+
+    /**
+     * 按数据库精确计数校正各项总数
+     */
+    void reconcile();
+}
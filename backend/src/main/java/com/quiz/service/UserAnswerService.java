@@ -1,8 +1,10 @@
 package com.quiz.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.quiz.dto.AnswerChange;
 import com.quiz.entity.UserAnswer;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,6 +25,11 @@ public interface UserAnswerService extends IService<UserAnswer> {
      */
     UserAnswer getAnswer(String sessionId, Long questionId);
 
+    /**
+     * 获取会话中指定题目的答题记录
+     */
+    List<UserAnswer> getAnswers(String sessionId, Collection<Long> questionIds);
+
     /**
      * 删除会话的所有答题记录
      */
@@ -32,4 +39,10 @@ public interface UserAnswerService extends IService<UserAnswer> {
      * 保存或更新答案
      */
     boolean saveOrUpdateAnswer(UserAnswer answer);
+
+    /**
+     * 批量写入答题记录（按会话+题目覆盖，单条SQL完成插入或更新），
+     * 并按相对写入前记录的增量累计题目计数、发布答题记录写入事件；写入前的记录由调用方提供
+     */
+    void upsertAnswers(List<AnswerChange> changes);
 }
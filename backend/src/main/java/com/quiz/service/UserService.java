@@ -22,8 +22,10 @@ public interface UserService extends IService<User> {
 
     /**
      * 用户登录
+     *
+     * @param clientIp 客户端IP，用于登录失败次数限制
      */
-    String login(LoginRequest request);
+    String login(LoginRequest request, String clientIp);
 
     /**
      * 检查用户名是否存在
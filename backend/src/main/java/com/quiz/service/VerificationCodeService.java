@@ -10,13 +10,15 @@ public interface VerificationCodeService {
 
     /**
      * 生成并发送验证码
+     * 处于冷却期或超过每小时发送配额时抛出 TooManyRequestsException
      * @param email 邮箱地址
+     * @param clientIp 客户端IP（已按受信任代理解析，不可直接取请求头）
      * @return 是否发送成功
      */
-    boolean sendVerificationCode(String email);
+    boolean sendVerificationCode(String email, String clientIp);
 
     /**
-     * 验证验证码
+     * 验证验证码（比对成功即删除；错误次数达到上限后验证码作废）
      * @param email 邮箱地址
      * @param code 验证码
      * @return 是否验证成功
@@ -21,6 +21,11 @@ public interface WrongQuestionService extends IService<WrongQuestion> {
      */
     void addWrongQuestion(Long userId, Long bankId, Long questionId, String wrongAnswer);
 
+    /**
+     * 批量添加错题（errorCount 为本次累加的错误次数）
+     */
+    void addWrongQuestions(List<WrongQuestion> wrongQuestions);
+
     /**
      * 标记为已掌握
      */
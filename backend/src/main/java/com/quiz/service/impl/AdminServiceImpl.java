@@ -8,9 +8,12 @@ import com.quiz.entity.User;
 import com.quiz.mapper.UserMapper;
 import com.quiz.service.AdminService;
 import com.quiz.service.EmailService;
+import com.quiz.service.PrincipalCacheService;
+import com.quiz.utils.RandomCodeGenerator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
@@ -30,6 +33,7 @@ public class AdminServiceImpl implements AdminService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final PrincipalCacheService principalCacheService;
 
     @Override
     public IPage<User> getUserList(Page<User> page, String username, String nickname, Integer status) {
@@ -81,6 +85,7 @@ public class AdminServiceImpl implements AdminService {
         
         // 更新权限
         userMapper.updateUserPermissions(userId, permissions);
+        principalCacheService.invalidate(userId);
     }
 
     @Override
@@ -100,9 +105,11 @@ public class AdminServiceImpl implements AdminService {
                     .set(User::getStatus, status)
                     .set(User::getUpdatedAt, LocalDateTime.now());
         userMapper.update(null, updateWrapper);
+        principalCacheService.invalidate(userId);
     }
 
     @Override
+    @Transactional
     public void resetUserPassword(Long userId) {
         // 检查用户是否存在且为普通用户
         User user = userMapper.selectById(userId);
@@ -123,13 +130,11 @@ public class AdminServiceImpl implements AdminService {
                     .set(User::getPassword, encodedPassword)
                     .set(User::getUpdatedAt, LocalDateTime.now());
         userMapper.update(null, updateWrapper);
+        principalCacheService.invalidate(userId);
         
-        // 发送密码重置邮件
-        try {
+        // 密码重置邮件与密码更新在同一事务中写入发件箱，由后台投递
+        if (StringUtils.hasText(user.getEmail())) {
             emailService.sendPasswordResetEmail(user.getEmail(), user.getUsername(), newPassword);
-        } catch (Exception e) {
-            // 邮件发送失败不影响密码重置，但记录日志
-            System.err.println("密码重置邮件发送失败: " + e.getMessage());
         }
     }
     
@@ -138,15 +143,7 @@ public class AdminServiceImpl implements AdminService {
      * @return 8位随机密码
      */
     private String generateRandomPassword() {
-        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-        Random random = new Random();
-        StringBuilder password = new StringBuilder();
-        
-        for (int i = 0; i < 8; i++) {
-            password.append(chars.charAt(random.nextInt(chars.length())));
-        }
-        
-        return password.toString();
+        return RandomCodeGenerator.alphanumeric(8);
     }
 
 }
@@ -0,0 +1,176 @@
+package com.quiz.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.core.util.IdUtil;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.event.AnswersRecordedEvent;
+import com.quiz.mapper.AnswerAggregationMapper;
+import com.quiz.service.AnswerBreakdownService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 答题分布统计服务实现类
+ * <p>
+ * 每次统计只执行一条分组聚合查询；结果按用户缓存在带 TTL 的本地 LRU 中，并记录缓存时的统计版本。
+ * 版本保存在 Redis（quiz:answer-stats:version:{userId}），答题记录写入后由写入节点改为新的随机值，
+ * 各节点读取缓存前比对版本，因此任一节点上的写入都会让所有节点的缓存失效。
+ * 版本键的过期时间与本地缓存 TTL 相同：版本键过期时，在它之前缓存的条目也已过期。
+ * Redis 不可用时无法比对版本，退化为本地失效，其他节点最长在 TTL 后刷新。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+public class AnswerBreakdownServiceImpl implements AnswerBreakdownService {
+
+    private static final String VERSION_KEY_PREFIX = "quiz:answer-stats:version:";
+
+    /**
+     * 从未失效过（或版本键已过期）的用户的版本
+     */
+    private static final String INITIAL_VERSION = "0";
+
+    private final AnswerAggregationMapper answerAggregationMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long expireSeconds;
+    private final LRUCache<Long, CachedStats> typeCache;
+    private final LRUCache<Long, CachedStats> bankCache;
+
+    public AnswerBreakdownServiceImpl(AnswerAggregationMapper answerAggregationMapper,
+                                      StringRedisTemplate stringRedisTemplate,
+                                      QuizSystemProperties quizSystemProperties) {
+        this.answerAggregationMapper = answerAggregationMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        QuizSystemProperties.CacheConfig cacheConfig = quizSystemProperties.getCache();
+        this.expireSeconds = cacheConfig.getAnswerStatsExpireTime();
+        long expireMillis = TimeUnit.SECONDS.toMillis(expireSeconds);
+        this.typeCache = CacheUtil.newLRUCache(cacheConfig.getAnswerStatsCapacity(), expireMillis);
+        this.bankCache = CacheUtil.newLRUCache(cacheConfig.getAnswerStatsCapacity(), expireMillis);
+    }
+
+    @Override
+    public List<Map<String, Object>> getByType(Long userId) {
+        return getCached(typeCache, userId, id -> {
+            List<Map<String, Object>> stats = new ArrayList<>();
+            for (Map<String, Object> row : answerAggregationMapper.countByType(id)) {
+                Map<String, Object> item = toItem(row);
+                item.put("type", String.valueOf(row.get("type")).toLowerCase());
+                // 保留 count 字段，兼容题型分布图
+                item.put("count", item.get("answered"));
+                stats.add(item);
+            }
+            return stats;
+        });
+    }
+
+    @Override
+    public List<Map<String, Object>> getByBank(Long userId) {
+        return getCached(bankCache, userId, id -> {
+            List<Map<String, Object>> stats = new ArrayList<>();
+            for (Map<String, Object> row : answerAggregationMapper.countByBank(id)) {
+                Map<String, Object> item = toItem(row);
+                item.put("bankId", row.get("bankId"));
+                item.put("bankName", row.get("bankName"));
+                stats.add(item);
+            }
+            return stats;
+        });
+    }
+
+    /**
+     * 使用户在所有节点上的统计缓存失效
+     */
+    @Override
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        typeCache.remove(userId);
+        bankCache.remove(userId);
+        try {
+            stringRedisTemplate.opsForValue().set(VERSION_KEY_PREFIX + userId, IdUtil.fastSimpleUUID(),
+                    expireSeconds, TimeUnit.SECONDS);
+        } catch (DataAccessException e) {
+            log.warn("更新答题统计版本失败，其他节点将在缓存过期后刷新: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 答题记录写入（事务提交）后失效该用户的统计缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnswersRecorded(AnswersRecordedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    /**
+     * 版本一致时返回缓存，否则重新统计；版本须在查询前读取，查询期间的写入会在下次读取时再次失效
+     */
+    private List<Map<String, Object>> getCached(LRUCache<Long, CachedStats> cache, Long userId,
+                                               Function<Long, List<Map<String, Object>>> loader) {
+        if (userId == null) {
+            return Collections.emptyList();
+        }
+        String version = currentVersion(userId);
+        CachedStats cached = cache.get(userId, false);
+        if (cached != null && (version == null || cached.version.equals(version))) {
+            return cached.stats;
+        }
+        List<Map<String, Object>> stats = Collections.unmodifiableList(loader.apply(userId));
+        cache.put(userId, new CachedStats(Objects.requireNonNullElse(version, INITIAL_VERSION), stats));
+        return stats;
+    }
+
+    /**
+     * 读取用户的统计版本，Redis 不可用时返回 null
+     */
+    private String currentVersion(Long userId) {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(VERSION_KEY_PREFIX + userId);
+            return version != null ? version : INITIAL_VERSION;
+        } catch (DataAccessException e) {
+            log.warn("读取答题统计版本失败，使用本地缓存: userId={}, error={}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<String, Object> toItem(Map<String, Object> row) {
+        long answered = ((Number) row.get("answered")).longValue();
+        long correct = ((Number) row.get("correct")).longValue();
+        double accuracy = answered > 0 ? (double) correct / answered * 100 : 0;
+        Map<String, Object> item = new HashMap<>();
+        item.put("answered", answered);
+        item.put("correct", correct);
+        item.put("accuracy", Math.round(accuracy * 100.0) / 100.0);
+        return item;
+    }
+
+    /**
+     * 缓存的统计结果及其版本
+     */
+    private static final class CachedStats {
+
+        private final String version;
+        private final List<Map<String, Object>> stats;
+
+        private CachedStats(String version, List<Map<String, Object>> stats) {
+            this.version = version;
+            this.stats = stats;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.quiz.service.impl;
+
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.dto.AnswerExportQuery;
+import com.quiz.dto.AnswerExportRow;
+import com.quiz.mapper.UserAnswerMapper;
+import com.quiz.service.AnswerExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 答题记录导出服务实现类
+ * <p>
+ * 通过 MyBatis 游标按固定 fetchSize 逐行读取，边读边写：
+ * CSV 直接写入输出流，表头写出后立即刷新；XLSX 使用 SXSSFWorkbook，内存中只保留固定行数的窗口，
+ * 其余行写入压缩临时文件，最后一次性输出。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnswerExportServiceImpl implements AnswerExportService {
+
+    private static final String[] HEADERS = {
+            "记录ID", "答题时间", "用户ID", "用户名", "会话标识", "答题模式",
+            "题库", "题目ID", "题型", "题目内容", "用户答案", "判定结果"
+    };
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * XLSX 单元格最大字符数
+     */
+    private static final int XLSX_CELL_MAX_LENGTH = 32767;
+
+    /**
+     * XLSX 单个工作表可容纳的最大数据行数（除去表头行）
+     */
+    private static final int XLSX_MAX_DATA_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+    private static final int CSV_BUFFER_SIZE = 64 * 1024;
+
+    private final UserAnswerMapper userAnswerMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final QuizSystemProperties quizSystemProperties;
+
+    @Override
+    public long export(Format format, AnswerExportQuery query, OutputStream out) {
+        long start = System.currentTimeMillis();
+        // 游标须在事务内消费，事务结束时关闭；只读事务，不持有写锁
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        Long rows = transactionTemplate.execute(status -> {
+            try (Cursor<AnswerExportRow> cursor = userAnswerMapper.streamForExport(query)) {
+                return format == Format.XLSX ? writeXlsx(cursor, out) : writeCsv(cursor, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("导出答题记录完成: 格式 {}, {} 行, 耗时 {}ms", format, rows, System.currentTimeMillis() - start);
+        return rows != null ? rows : 0;
+    }
+
+    private long writeCsv(Cursor<AnswerExportRow> cursor, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSV_BUFFER_SIZE);
+        // BOM 使 Excel 按 UTF-8 打开
+        writer.write('\uFEFF');
+        writeCsvLine(writer, HEADERS);
+        writer.flush();
+
+        long count = 0;
+        for (AnswerExportRow row : cursor) {
+            writeCsvLine(writer, toValues(row));
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeCsvField(writer, values[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * 写入 CSV 字段：含逗号、引号或换行时加引号；以公式字符开头的文本前加单引号，避免在表格软件中被当作公式执行
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean formula = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private long writeXlsx(Cursor<AnswerExportRow> cursor, OutputStream out) throws IOException {
+        QuizSystemProperties.ExportConfig config = quizSystemProperties.getExport();
+        int sheetRows = Math.max(1, Math.min(config.getXlsxSheetRows(), XLSX_MAX_DATA_ROWS));
+        SXSSFWorkbook workbook = new SXSSFWorkbook(config.getXlsxRowWindow());
+        workbook.setCompressTempFiles(true);
+        try {
+            long count = 0;
+            int sheetIndex = 0;
+            SXSSFSheet sheet = null;
+            int rowIndex = 0;
+            for (AnswerExportRow row : cursor) {
+                if (sheet == null || rowIndex > sheetRows) {
+                    sheetIndex++;
+                    sheet = workbook.createSheet(sheetIndex == 1 ? "答题记录" : "答题记录" + sheetIndex);
+                    writeXlsxRow(sheet.createRow(0), HEADERS);
+                    rowIndex = 1;
+                }
+                writeXlsxRow(sheet.createRow(rowIndex++), toValues(row));
+                count++;
+            }
+            if (sheet == null) {
+                writeXlsxRow(workbook.createSheet("答题记录").createRow(0), HEADERS);
+            }
+            workbook.write(out);
+            out.flush();
+            return count;
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static void writeXlsxRow(Row row, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value instanceof Number) {
+                row.createCell(i).setCellValue(((Number) value).doubleValue());
+            } else if (value != null) {
+                String text = value.toString();
+                row.createCell(i).setCellValue(text.length() > XLSX_CELL_MAX_LENGTH
+                        ? text.substring(0, XLSX_CELL_MAX_LENGTH) : text);
+            }
+        }
+    }
+
+    private static Object[] toValues(AnswerExportRow row) {
+        return new Object[]{
+                row.getId(),
+                row.getCreatedAt() != null ? row.getCreatedAt().format(TIME_FORMAT) : null,
+                row.getUserId(),
+                row.getUsername(),
+                row.getSessionId(),
+                modeName(row.getMode()),
+                row.getBankName(),
+                row.getQuestionId(),
+                typeName(row.getQuestionType()),
+                row.getQuestionContent(),
+                row.getUserAnswer(),
+                row.getIsCorrect() == null ? "未判定" : row.getIsCorrect() == 1 ? "正确" : "错误"
+        };
+    }
+
+    private static String modeName(String mode) {
+        if ("practice".equals(mode)) {
+            return "练习";
+        }
+        if ("exam".equals(mode)) {
+            return "考试";
+        }
+        return mode;
+    }
+
+    private static String typeName(String type) {
+        if (type == null) {
+            return null;
+        }
+        switch (type) {
+            case "single":
+                return "单选题";
+            case "multiple":
+                return "多选题";
+            case "judge":
+                return "判断题";
+            case "essay":
+                return "简答题";
+            default:
+                return type;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.quiz.service.impl;
+
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.dto.GradeResult;
+import com.quiz.entity.Question;
+import com.quiz.event.QuestionBankChangedEvent;
+import com.quiz.service.AnswerGradingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 判分服务实现类
+ * <p>
+ * 每道题只编译一次答案（见 {@link AnswerKey}），按题目ID缓存；
+ * 题库内容变更时失效该题库下的全部答案，取用时再按更新时间与答案内容校验，避免使用过期答案。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Service
+@RequiredArgsConstructor
+public class AnswerGradingServiceImpl implements AnswerGradingService {
+
+    private final QuizSystemProperties quizSystemProperties;
+
+    private final Map<Long, AnswerKey> answerKeys = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean grade(Question question, String userAnswer) {
+        if (question == null) {
+            return false;
+        }
+        AnswerKey key = getAnswerKey(question);
+        if (key.getType() == Question.QuestionType.essay) {
+            return evaluateEssay(key, userAnswer).isCorrect();
+        }
+        return key.grade(userAnswer);
+    }
+
+    @Override
+    public GradeResult evaluate(Question question, String userAnswer) {
+        double fullScore = quizSystemProperties.getGrading().getFullScore();
+        if (question == null) {
+            return new GradeResult(false, 0, fullScore);
+        }
+        AnswerKey key = getAnswerKey(question);
+        if (key.getType() == Question.QuestionType.essay) {
+            return evaluateEssay(key, userAnswer);
+        }
+        boolean correct = key.grade(userAnswer);
+        return new GradeResult(correct, correct ? fullScore : 0, fullScore);
+    }
+
+    @Override
+    public void invalidate(Long questionId) {
+        if (questionId != null) {
+            answerKeys.remove(questionId);
+        }
+    }
+
+    /**
+     * 题库内容变更（题目新增、编辑、删除）后失效该题库下的已编译答案
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionBankChanged(QuestionBankChangedEvent event) {
+        answerKeys.values().removeIf(key -> Objects.equals(key.getBankId(), event.getBankId()));
+    }
+
+    /**
+     * 简答题判分：any 命中任一关键词得满分；all 命中全部关键词得满分；
+     * ratio 按命中比例给部分分，比例达到阈值判为正确
+     */
+    private GradeResult evaluateEssay(AnswerKey key, String userAnswer) {
+        QuizSystemProperties.GradingConfig config = quizSystemProperties.getGrading();
+        double fullScore = config.getFullScore();
+        double ratio = key.essayRatio(userAnswer);
+        switch (config.getEssayMode()) {
+            case ALL:
+                return ratio >= 1 ? new GradeResult(true, fullScore, fullScore) : new GradeResult(false, 0, fullScore);
+            case RATIO:
+                return new GradeResult(ratio >= config.getEssayPassRatio(), fullScore * ratio, fullScore);
+            case ANY:
+            default:
+                return ratio > 0 ? new GradeResult(true, fullScore, fullScore) : new GradeResult(false, 0, fullScore);
+        }
+    }
+
+    AnswerKey getAnswerKey(Question question) {
+        if (question.getId() == null) {
+            return AnswerKey.compile(question);
+        }
+        AnswerKey key = answerKeys.get(question.getId());
+        if (key == null || !key.isValidFor(question)) {
+            key = AnswerKey.compile(question);
+            answerKeys.put(question.getId(), key);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,285 @@
+package com.quiz.service.impl;
+
+import com.quiz.entity.Question;
+import com.quiz.utils.KeywordMatcher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的题目答案（不可变）
+ * <p>
+ * 单选题编译为选项索引，多选题编译为选项位掩码（A=bit0），判断题编译为布尔值，
+ * 简答题编译为关键词自动机。判分时直接扫描用户答案，不再每次重新标准化正确答案。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+final class AnswerKey {
+
+    private final Long questionId;
+    private final Long bankId;
+    private final Question.QuestionType type;
+    private final LocalDateTime updatedAt;
+    private final String source;
+    private final List<String> options;
+
+    /**
+     * 单选题正确选项索引，-1 表示无法对应到选项（按文本比较）
+     */
+    private final int optionIndex;
+
+    /**
+     * 多选题正确选项位掩码
+     */
+    private final long optionMask;
+
+    /**
+     * 判断题正确答案，null 表示无法识别（按文本比较）
+     */
+    private final Boolean judgeValue;
+
+    /**
+     * 去除首尾空白的正确答案文本（后备比较）
+     */
+    private final String text;
+
+    /**
+     * 简答题关键词匹配器
+     */
+    private final KeywordMatcher keywordMatcher;
+
+    private AnswerKey(Question question, int optionIndex, long optionMask, Boolean judgeValue, KeywordMatcher keywordMatcher) {
+        this.questionId = question.getId();
+        this.bankId = question.getBankId();
+        this.type = question.getType();
+        this.updatedAt = question.getUpdatedAt();
+        this.source = question.getCorrectAnswer();
+        this.options = question.getOptions() == null ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(question.getOptions()));
+        this.optionIndex = optionIndex;
+        this.optionMask = optionMask;
+        this.judgeValue = judgeValue;
+        this.text = source == null ? null : source.trim();
+        this.keywordMatcher = keywordMatcher;
+    }
+
+    /**
+     * 将题目编译为答案
+     */
+    static AnswerKey compile(Question question) {
+        String correctAnswer = question.getCorrectAnswer();
+        if (correctAnswer == null || correctAnswer.trim().isEmpty() || question.getType() == null) {
+            return new AnswerKey(question, -1, 0L, null, null);
+        }
+        String trimmed = correctAnswer.trim();
+        List<String> options = question.getOptions() == null ? Collections.emptyList() : question.getOptions();
+
+        switch (question.getType()) {
+            case single: {
+                // 正确答案可能是选项内容，也可能是选项标识（A, B, C, D）
+                int index = options.indexOf(trimmed);
+                if (index < 0 && trimmed.length() == 1 && isLetter(trimmed.charAt(0))) {
+                    index = Character.toUpperCase(trimmed.charAt(0)) - 'A';
+                }
+                return new AnswerKey(question, index, 0L, null, null);
+            }
+            case multiple:
+                // 正确答案可能是 ABC / A,B,C，也可能是选项内容的 JSON 数组
+                return new AnswerKey(question, -1, parseOptionMask(trimmed, options), null, null);
+            case judge:
+                return new AnswerKey(question, -1, 0L, parseJudge(trimmed), null);
+            case essay: {
+                KeywordMatcher matcher = KeywordMatcher.of(Arrays.asList(KEYWORD_SEPARATOR.split(trimmed)));
+                return new AnswerKey(question, -1, 0L, null, matcher);
+            }
+            default:
+                return new AnswerKey(question, -1, 0L, null, null);
+        }
+    }
+
+    /**
+     * 编译结果是否仍与题目一致（题目被修改后需要重新编译）
+     */
+    boolean isValidFor(Question question) {
+        return Objects.equals(updatedAt, question.getUpdatedAt())
+                && type == question.getType()
+                && Objects.equals(source, question.getCorrectAnswer())
+                && Objects.equals(options, question.getOptions() == null ? Collections.emptyList() : question.getOptions());
+    }
+
+    Long getQuestionId() {
+        return questionId;
+    }
+
+    Long getBankId() {
+        return bankId;
+    }
+
+    Question.QuestionType getType() {
+        return type;
+    }
+
+    /**
+     * 简答题命中比例（0~1），与正确答案完全一致时为 1
+     */
+    double essayRatio(String userAnswer) {
+        if (text == null || text.isEmpty() || userAnswer == null || keywordMatcher == null) {
+            return 0;
+        }
+        int start = skipWhitespace(userAnswer, 0);
+        int end = trimEnd(userAnswer, start);
+        if (start >= end) {
+            return 0;
+        }
+        if (regionEqualsIgnoreCase(userAnswer, start, end, text)) {
+            return 1;
+        }
+        if (keywordMatcher.size() == 0) {
+            return 0;
+        }
+        return (double) keywordMatcher.countMatches(userAnswer) / keywordMatcher.size();
+    }
+
+    /**
+     * 判分
+     */
+    boolean grade(String userAnswer) {
+        if (text == null || text.isEmpty() || userAnswer == null) {
+            return false;
+        }
+        int start = skipWhitespace(userAnswer, 0);
+        int end = trimEnd(userAnswer, start);
+        if (start >= end) {
+            return false;
+        }
+
+        switch (type) {
+            case single:
+                return gradeSingle(userAnswer, start, end);
+            case multiple:
+                return optionMask != 0 && parseOptionMask(userAnswer, start, end, options) == optionMask;
+            case judge:
+                if (judgeValue != null) {
+                    return judgeValue.equals(parseJudge(userAnswer, start, end));
+                }
+                return regionEqualsIgnoreCase(userAnswer, start, end, text);
+            case essay:
+                return essayRatio(userAnswer) > 0;
+            default:
+                return false;
+        }
+    }
+
+    private boolean gradeSingle(String userAnswer, int start, int end) {
+        if (optionIndex < 0) {
+            return regionEqualsIgnoreCase(userAnswer, start, end, text);
+        }
+        // 用户答案可以是选项内容，也可以是选项标识
+        if (optionIndex < options.size()) {
+            String option = options.get(optionIndex);
+            if (option != null && regionEqualsIgnoreCase(userAnswer, start, end, option.trim())) {
+                return true;
+            }
+        }
+        return end - start == 1 && isLetter(userAnswer.charAt(start))
+                && Character.toUpperCase(userAnswer.charAt(start)) - 'A' == optionIndex;
+    }
+
+    /**
+     * 解析多选答案为选项位掩码
+     * 支持 ABC、A,B,C、A B C 以及选项内容的 JSON 数组；无法识别时返回 0
+     */
+    private static long parseOptionMask(String answer, List<String> options) {
+        return parseOptionMask(answer, 0, answer.length(), options);
+    }
+
+    private static long parseOptionMask(String answer, int start, int end, List<String> options) {
+        if (answer.charAt(start) == '[' && answer.charAt(end - 1) == ']') {
+            long mask = 0L;
+            for (String item : answer.substring(start + 1, end - 1).split(",")) {
+                String value = item.trim().replaceAll("^\"|\"$", "");
+                int index = options.indexOf(value);
+                if (index < 0 && value.length() == 1 && isLetter(value.charAt(0))) {
+                    index = Character.toUpperCase(value.charAt(0)) - 'A';
+                }
+                if (index < 0 || index >= Long.SIZE) {
+                    return 0L;
+                }
+                mask |= 1L << index;
+            }
+            return mask;
+        }
+
+        long mask = 0L;
+        for (int i = start; i < end; i++) {
+            char c = answer.charAt(i);
+            if (isLetter(c)) {
+                mask |= 1L << (Character.toUpperCase(c) - 'A');
+            } else if (!isSeparator(c)) {
+                return 0L;
+            }
+        }
+        return mask;
+    }
+
+    private static Boolean parseJudge(String answer) {
+        return parseJudge(answer, 0, answer.length());
+    }
+
+    /**
+     * 解析判断题答案
+     * 支持：true/false, 正确/错误, 对/错, 是/否, 1/0, T/F, Y/N
+     */
+    private static Boolean parseJudge(String answer, int start, int end) {
+        for (String token : TRUE_TOKENS) {
+            if (regionEqualsIgnoreCase(answer, start, end, token)) {
+                return Boolean.TRUE;
+            }
+        }
+        for (String token : FALSE_TOKENS) {
+            if (regionEqualsIgnoreCase(answer, start, end, token)) {
+                return Boolean.FALSE;
+            }
+        }
+        return null;
+    }
+
+    private static final Pattern KEYWORD_SEPARATOR = Pattern.compile("[，,、；;\\s]+");
+
+    private static final String[] TRUE_TOKENS = {"true", "正确", "对", "是", "1", "t", "y"};
+    private static final String[] FALSE_TOKENS = {"false", "错误", "错", "否", "0", "f", "n"};
+
+    private static boolean regionEqualsIgnoreCase(String value, int start, int end, String expected) {
+        return end - start == expected.length() && value.regionMatches(true, start, expected, 0, expected.length());
+    }
+
+    private static int skipWhitespace(String value, int from) {
+        int i = from;
+        while (i < value.length() && Character.isWhitespace(value.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEnd(String value, int start) {
+        int end = value.length();
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == '，' || c == '、' || c == ';' || c == '；' || Character.isWhitespace(c);
+    }
+}
@@ -1,17 +1,22 @@
 package com.quiz.service.impl;
 
-import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.quiz.dto.AnswerRequest;
+import com.quiz.dto.GradeResult;
 import com.quiz.entity.Question;
 import com.quiz.entity.UserAnswer;
+import com.quiz.event.AnswersRecordedEvent;
 import com.quiz.mapper.UserAnswerMapper;
+import com.quiz.service.AnswerGradingService;
 import com.quiz.service.AnswerService;
+import com.quiz.service.QuestionCounterService;
 import com.quiz.service.QuestionService;
 import com.quiz.service.WrongQuestionService;
+import com.quiz.utils.AnswerUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +38,9 @@ public class AnswerServiceImpl extends ServiceImpl<UserAnswerMapper, UserAnswer>
 
     private final QuestionService questionService;
     private final WrongQuestionService wrongQuestionService;
+    private final AnswerGradingService answerGradingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuestionCounterService questionCounterService;
 
     @Override
     @Transactional
@@ -44,7 +52,8 @@ public class AnswerServiceImpl extends ServiceImpl<UserAnswerMapper, UserAnswer>
         }
 
         // 判断答案是否正确
-        boolean isCorrect = checkAnswer(question, request.getUserAnswer());
+        GradeResult gradeResult = answerGradingService.evaluate(question, request.getUserAnswer());
+        boolean isCorrect = gradeResult.isCorrect();
 
         // 创建答题记录
         UserAnswer userAnswer = new UserAnswer();
@@ -52,11 +61,18 @@ public class AnswerServiceImpl extends ServiceImpl<UserAnswerMapper, UserAnswer>
         userAnswer.setQuestionId(request.getQuestionId());
         userAnswer.setUserAnswer(request.getUserAnswer());
         userAnswer.setIsCorrect(isCorrect ? 1 : 0);
+        userAnswer.setScore(gradeResult.getScore());
         userAnswer.setSessionId(request.getSessionId());
         userAnswer.setCreatedAt(LocalDateTime.now());
 
         // 保存答题记录
         save(userAnswer);
+        // 空白答案不计入答题统计与题目计数
+        int answered = AnswerUtils.answered(userAnswer);
+        int correct = AnswerUtils.correct(userAnswer);
+        eventPublisher.publishEvent(new AnswersRecordedEvent(userId, List.of(new AnswersRecordedEvent.AnswerDelta(
+                request.getQuestionId(), userAnswer.getCreatedAt().toLocalDate(), answered, correct))));
+        questionCounterService.recordAnswerChange(request.getQuestionId(), answered, correct);
 
         // 处理错题
         handleWrongQuestion(userId, question.getBankId(), request.getQuestionId(), isCorrect, request.getUserAnswer());
@@ -114,136 +130,6 @@ public class AnswerServiceImpl extends ServiceImpl<UserAnswerMapper, UserAnswer>
         return list(queryWrapper);
     }
 
-    /**
-     * 检查答案是否正确
-     */
-    private boolean checkAnswer(Question question, String userAnswer) {
-        if (StrUtil.isBlank(userAnswer) || StrUtil.isBlank(question.getCorrectAnswer())) {
-            return false;
-        }
-
-        switch (question.getType()) {
-            case single:
-                // 单选题：用户答案是选项内容，正确答案可能是选项标识或选项内容
-                return checkSingleAnswer(question, userAnswer.trim());
-            
-            case multiple:
-                // 多选题：用户答案是JSON数组，正确答案可能是选项标识字符串或JSON数组
-                return checkMultipleAnswer(question, userAnswer.trim());
-            
-            case judge:
-                // 判断题：需要处理中英文格式转换
-                // 前端传递的是 "true"/"false"，数据库可能存储 "正确"/"错误" 或 "true"/"false"
-                return normalizeJudgeAnswer(userAnswer.trim()).equals(
-                    normalizeJudgeAnswer(question.getCorrectAnswer().trim()));
-
-            case essay:
-                // 简答题：关键词匹配（简化实现）
-                String[] keywords = question.getCorrectAnswer().split("[，,、\\s]+");
-                for (String keyword : keywords) {
-                    if (userAnswer.contains(keyword.trim())) {
-                        return true;
-                    }
-                }
-                return false;
-            
-            default:
-                return false;
-        }
-    }
-
-    /**
-     * 检查单选题答案
-     */
-    private boolean checkSingleAnswer(Question question, String userAnswer) {
-        String correctAnswer = question.getCorrectAnswer().trim();
-        List<String> options = question.getOptions();
-        
-        // 如果正确答案是选项内容，直接比较
-        if (options != null && options.contains(correctAnswer)) {
-            return userAnswer.equals(correctAnswer);
-        }
-        
-        // 如果正确答案是选项标识（A, B, C, D），转换为选项内容后比较
-        if (correctAnswer.length() == 1 && correctAnswer.matches("[A-Z]")) {
-            int index = correctAnswer.charAt(0) - 'A';
-            if (options != null && index >= 0 && index < options.size()) {
-                return userAnswer.equals(options.get(index));
-            }
-        }
-        
-        // 直接字符串比较作为后备方案
-        return userAnswer.equals(correctAnswer);
-    }
-
-    /**
-     * 检查多选题答案
-     * 支持用户答案格式：ABC 或 A,B,C
-     * 支持正确答案格式：ABC 或 A,B,C 或 JSON数组
-     */
-    private boolean checkMultipleAnswer(Question question, String userAnswer) {
-        String correctAnswer = question.getCorrectAnswer().trim();
-
-        try {
-            // 标准化用户答案：去除逗号，转大写，排序
-            String userNormalized = userAnswer.toUpperCase().replace(",", "");
-            char[] userChars = userNormalized.toCharArray();
-            java.util.Arrays.sort(userChars);
-
-            // 标准化正确答案
-            String correctNormalized;
-            if (correctAnswer.startsWith("[") && correctAnswer.endsWith("]")) {
-                // JSON数组格式，提取字母
-                List<String> correctList = parseJsonArray(correctAnswer);
-                StringBuilder sb = new StringBuilder();
-                List<String> options = question.getOptions();
-                for (String item : correctList) {
-                    // 查找选项对应的字母
-                    if (options != null) {
-                        int idx = options.indexOf(item);
-                        if (idx >= 0) {
-                            sb.append((char) ('A' + idx));
-                        }
-                    }
-                }
-                correctNormalized = sb.toString().toUpperCase();
-            } else {
-                // ABC 或 A,B,C 格式
-                correctNormalized = correctAnswer.toUpperCase().replace(",", "");
-            }
-
-            char[] correctChars = correctNormalized.toCharArray();
-            java.util.Arrays.sort(correctChars);
-
-            return java.util.Arrays.equals(userChars, correctChars);
-
-        } catch (Exception e) {
-            // 解析失败，直接字符串比较
-            return userAnswer.equalsIgnoreCase(correctAnswer);
-        }
-    }
-
-    /**
-     * 解析JSON数组字符串
-     */
-    private List<String> parseJsonArray(String jsonStr) {
-        try {
-            // 简单的JSON数组解析
-            if (jsonStr.startsWith("[") && jsonStr.endsWith("]")) {
-                String content = jsonStr.substring(1, jsonStr.length() - 1);
-                String[] items = content.split(",");
-                List<String> result = new ArrayList<>();
-                for (String item : items) {
-                    result.add(item.trim().replaceAll("^\"|\"$", ""));
-                }
-                return result;
-            }
-        } catch (Exception e) {
-            // 解析失败，返回空列表
-        }
-        return new ArrayList<>();
-    }
-
     /**
      * 处理错题逻辑
      */
@@ -256,29 +142,4 @@ public class AnswerServiceImpl extends ServiceImpl<UserAnswerMapper, UserAnswer>
             wrongQuestionService.markCorrect(userId, questionId);
         }
     }
-
-    /**
-     * 标准化判断题答案，将各种格式统一为 "true" 或 "false"
-     * 支持：true/false, 正确/错误, 对/错, 是/否, 1/0, T/F, Y/N
-     */
-    private String normalizeJudgeAnswer(String answer) {
-        if (answer == null) {
-            return "";
-        }
-        String normalized = answer.trim().toLowerCase();
-        // 判断为"正确"的情况
-        if (normalized.equals("true") || normalized.equals("正确") ||
-            normalized.equals("对") || normalized.equals("是") ||
-            normalized.equals("1") || normalized.equals("t") || normalized.equals("y")) {
-            return "true";
-        }
-        // 判断为"错误"的情况
-        if (normalized.equals("false") || normalized.equals("错误") ||
-            normalized.equals("错") || normalized.equals("否") ||
-            normalized.equals("0") || normalized.equals("f") || normalized.equals("n")) {
-            return "false";
-        }
-        // 无法识别时返回原值
-        return normalized;
-    }
 }
@@ -0,0 +1,64 @@
+package com.quiz.service.impl;
+
+import cn.hutool.core.util.IdUtil;
+import com.quiz.service.ClusterLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * 集群锁服务实现类
+ * <p>
+ * 锁键为 quiz:lock:{name}，值为持有方的随机凭证：SET NX PX 获取，Lua 比较凭证后删除。
+ * Redis 不可用时视为未获取到锁，任务跳过本次执行，不会在多个节点上同时运行。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClusterLockServiceImpl implements ClusterLockService {
+
+    private static final String KEY_PREFIX = "quiz:lock:";
+
+    /**
+     * 凭证匹配时删除锁
+     * KEYS[1]: 锁键；ARGV[1]: 凭证
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+                    + "  return redis.call('DEL', KEYS[1]) "
+                    + "end "
+                    + "return 0", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public String tryLock(String name, Duration lease) {
+        String token = IdUtil.fastSimpleUUID();
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + name, token, lease);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (DataAccessException e) {
+            log.warn("获取集群锁失败，跳过本次执行: name={}, error={}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void unlock(String name, String token) {
+        try {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, Collections.singletonList(KEY_PREFIX + name), token);
+        } catch (DataAccessException e) {
+            log.warn("释放集群锁失败，将在租期到期后自动释放: name={}, error={}", name, e.getMessage());
+        }
+    }
+}
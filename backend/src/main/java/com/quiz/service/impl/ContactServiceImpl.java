@@ -3,11 +3,11 @@ package com.quiz.service.impl;
 import com.quiz.dto.ContactRequest;
 import com.quiz.service.ContactService;
 import com.quiz.service.EmailService;
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * 联系服务实现类
@@ -26,27 +26,22 @@ public class ContactServiceImpl implements ContactService {
     private String adminEmail;
 
     @Override
+    @Transactional
     public void sendContactEmail(ContactRequest request) {
-        try {
-            // 构建邮件内容
-            String subject = buildEmailSubject(request);
-            String content = buildEmailContent(request);
+        // 构建邮件内容
+        String subject = buildEmailSubject(request);
+        String content = buildEmailContent(request);
 
-            // 发送邮件给管理员
-            emailService.sendHtmlEmail(adminEmail, subject, content);
+        // 发送邮件给管理员
+        emailService.sendHtmlEmail(adminEmail, subject, content);
 
-            // 发送确认邮件给用户
-            String userSubject = "问题反馈已收到 - Quiz System";
-            String userContent = buildUserConfirmationEmail(request);
-            emailService.sendHtmlEmail(request.getEmail(), userSubject, userContent);
+        // 发送确认邮件给用户
+        String userSubject = "问题反馈已收到 - Quiz System";
+        String userContent = buildUserConfirmationEmail(request);
+        emailService.sendHtmlEmail(request.getEmail(), userSubject, userContent);
 
-            log.info("联系邮件发送成功：Type={}, Email={}, Subject={}", 
-                    request.getType(), request.getEmail(), request.getSubject());
-
-        } catch (MessagingException e) {
-            log.error("发送联系邮件失败：{}", e.getMessage());
-            throw new RuntimeException("邮件发送失败，请稍后重试");
-        }
+        log.info("联系邮件已加入发送队列：Type={}, Email={}, Subject={}", 
+                request.getType(), request.getEmail(), request.getSubject());
     }
 
     @Override
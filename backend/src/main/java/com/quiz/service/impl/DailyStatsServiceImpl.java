@@ -0,0 +1,208 @@
+package com.quiz.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.quiz.entity.UserAnswer;
+import com.quiz.entity.UserDailyStats;
+import com.quiz.event.AnswersRecordedEvent;
+import com.quiz.mapper.UserAnswerMapper;
+import com.quiz.mapper.UserDailyStatsMapper;
+import com.quiz.service.ClusterLockService;
+import com.quiz.service.DailyStatsService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * 用户每日答题统计服务实现类
+ * <p>
+ * 答题记录写入（事务提交）后把每条记录相对写入前的增量累加到 (用户, 日期) 行，含题型计数，不再重新汇总；
+ * 每天凌晨由一个节点重新汇总前一天全部用户的数据，修正累加失败等偏差；
+ * 历史数据回填由管理员触发，在后台按天重新汇总。对账与回填共用一把集群锁，同一时刻只有一个在运行。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyStatsServiceImpl implements DailyStatsService {
+
+    /**
+     * 对账与回填共用的集群锁及其租期（覆盖一次历史回填的最长耗时）
+     */
+    private static final String LOCK_NAME = "daily-stats-rebuild";
+    private static final Duration LOCK_LEASE = Duration.ofHours(6);
+
+    private final UserDailyStatsMapper userDailyStatsMapper;
+    private final UserAnswerMapper userAnswerMapper;
+    private final ClusterLockService clusterLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 历史回填在后台单线程执行，不占用请求线程
+     */
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "daily-stats-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public List<UserDailyStats> getRange(Long userId, LocalDate startDate, LocalDate endDate) {
+        if (userId == null) {
+            return Collections.emptyList();
+        }
+        LambdaQueryWrapper<UserDailyStats> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(UserDailyStats::getUserId, userId)
+                   .between(UserDailyStats::getStatDate, startDate, endDate)
+                   .orderByAsc(UserDailyStats::getStatDate);
+        return userDailyStatsMapper.selectList(queryWrapper);
+    }
+
+    @Override
+    public List<UserDailyStats> getActiveDays(Long userId, LocalDate startDate, LocalDate endDate, int offset, int limit) {
+        if (userId == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        LambdaQueryWrapper<UserDailyStats> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(UserDailyStats::getUserId, userId)
+                   .between(UserDailyStats::getStatDate, startDate, endDate)
+                   .gt(UserDailyStats::getAnswered, 0)
+                   .orderByAsc(UserDailyStats::getStatDate)
+                   .last("LIMIT " + Math.max(0, offset) + ", " + limit);
+        return userDailyStatsMapper.selectList(queryWrapper);
+    }
+
+    @Override
+    public long[] getTotals(Long userId) {
+        QueryWrapper<UserDailyStats> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("COALESCE(SUM(answered), 0) AS answered", "COALESCE(SUM(correct), 0) AS correct")
+                   .eq("user_id", userId);
+        List<Map<String, Object>> rows = userDailyStatsMapper.selectMaps(queryWrapper);
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return new long[]{0L, 0L};
+        }
+        Map<String, Object> row = rows.get(0);
+        return new long[]{toLong(row.get("answered")), toLong(row.get("correct"))};
+    }
+
+    @Override
+    public boolean startRebuild(LocalDate from, LocalDate to) {
+        String token = clusterLockService.tryLock(LOCK_NAME, LOCK_LEASE);
+        if (token == null) {
+            return false;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    LocalDate start = from != null ? from : firstAnswerDate();
+                    if (start == null) {
+                        log.info("没有答题记录，无需汇总每日统计");
+                        return;
+                    }
+                    regroup(start, to);
+                } catch (Exception e) {
+                    log.error("汇总每日统计失败: {}", e.getMessage(), e);
+                } finally {
+                    clusterLockService.unlock(LOCK_NAME, token);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            clusterLockService.unlock(LOCK_NAME, token);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * 答题记录提交后把增量累加到该用户对应日期的统计
+     * 提交后阶段原事务已结束，需在新事务中写入
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAnswersRecorded(AnswersRecordedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        List<AnswersRecordedEvent.AnswerDelta> deltas = event.getDeltas().stream()
+                .filter(delta -> delta.getAnswered() != 0 || delta.getCorrect() != 0)
+                .collect(Collectors.toList());
+        if (!deltas.isEmpty()) {
+            userDailyStatsMapper.applyDeltas(event.getUserId(), deltas);
+        }
+    }
+
+    /**
+     * 每天凌晨由获取到集群锁的一个节点重新汇总前一天的数据
+     */
+    @Scheduled(cron = "0 10 0 * * ?")
+    public void reconcileYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        if (!clusterLockService.runExclusive(LOCK_NAME, LOCK_LEASE, () -> regroup(yesterday, yesterday))) {
+            log.info("每日统计对账已由其他节点执行或回填正在进行，本节点跳过");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * 按天重新汇总全部用户的数据，每天一个事务
+     */
+    private void regroup(LocalDate from, LocalDate to) {
+        int days = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            LocalDate day = date;
+            transactionTemplate.executeWithoutResult(status -> refreshRange(null, day, day));
+            days++;
+        }
+        log.info("每日统计汇总完成: {} ~ {}, 共{}天", from, to, days);
+    }
+
+    /**
+     * 最早一条答题记录的日期，没有答题记录时返回 null
+     */
+    private LocalDate firstAnswerDate() {
+        QueryWrapper<UserAnswer> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("MIN(created_at) AS first_at");
+        List<Map<String, Object>> rows = userAnswerMapper.selectMaps(queryWrapper);
+        Object firstAt = rows.isEmpty() || rows.get(0) == null ? null : rows.get(0).get("first_at");
+        if (firstAt instanceof LocalDateTime) {
+            return ((LocalDateTime) firstAt).toLocalDate();
+        }
+        if (firstAt instanceof Timestamp) {
+            return ((Timestamp) firstAt).toLocalDateTime().toLocalDate();
+        }
+        return null;
+    }
+
+    private void refreshRange(Long userId, LocalDate from, LocalDate to) {
+        userDailyStatsMapper.deleteRange(userId, from, to);
+        userDailyStatsMapper.rollup(userId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
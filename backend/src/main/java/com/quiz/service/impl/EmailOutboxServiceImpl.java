@@ -0,0 +1,248 @@
+package com.quiz.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.entity.EmailOutbox;
+import com.quiz.mapper.EmailOutboxMapper;
+import com.quiz.service.EmailOutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 邮件发件箱服务实现类
+ * <p>
+ * 投递任务先以租约方式认领一批到期邮件（多节点部署时互不重复），
+ * 再通过 {@link JavaMailSender#send(MimeMessage...)} 一次发送：整批只建立一个 SMTP 连接。
+ * 尝试次数在认领时累加，投递节点宕机后租约过期被重新认领的邮件同样计数；
+ * 发送失败的邮件按指数退避重新排队，超过最大次数后标记为失败。
+ * 邮件正文可能含验证码、重置后的密码等敏感信息，发送成功或最终失败时即清空正文，只保留投递记录。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final EmailOutboxMapper emailOutboxMapper;
+    private final JavaMailSender mailSender;
+    private final QuizSystemProperties quizSystemProperties;
+
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    public EmailOutboxServiceImpl(EmailOutboxMapper emailOutboxMapper,
+                                  JavaMailSender mailSender,
+                                  QuizSystemProperties quizSystemProperties,
+                                  MeterRegistry meterRegistry) {
+        this.emailOutboxMapper = emailOutboxMapper;
+        this.mailSender = mailSender;
+        this.quizSystemProperties = quizSystemProperties;
+
+        this.sentCounter = Counter.builder("quiz.mail.outbox")
+                .description("发件箱投递结果").tag("result", "sent").register(meterRegistry);
+        this.retryCounter = Counter.builder("quiz.mail.outbox")
+                .description("发件箱投递结果").tag("result", "retry").register(meterRegistry);
+        this.failedCounter = Counter.builder("quiz.mail.outbox")
+                .description("发件箱投递结果").tag("result", "failed").register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(String to, String subject, String content) {
+        EmailOutbox outbox = new EmailOutbox();
+        outbox.setRecipient(to);
+        outbox.setSubject(subject);
+        outbox.setContent(content);
+        outbox.setStatus(EmailOutbox.OutboxStatus.pending);
+        outbox.setAttempts(0);
+        outbox.setNextAttemptAt(LocalDateTime.now());
+        emailOutboxMapper.insert(outbox);
+    }
+
+    @Override
+    public int dispatchBatch() {
+        QuizSystemProperties.MailConfig config = quizSystemProperties.getMail();
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = emailOutboxMapper.claimBatch(token, now, now.plusSeconds(config.getLeaseTime()), config.getBatchSize());
+        if (claimed == 0) {
+            return 0;
+        }
+        List<EmailOutbox> batch = emailOutboxMapper.findClaimed(token);
+
+        // 构建邮件，构建失败（如地址非法）的直接标记为失败
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox outbox : batch) {
+            if (attemptsOf(outbox) > config.getMaxAttempts()) {
+                // 多次在投递途中租约过期（如每次发送都导致节点退出），不再重试
+                markFailed(outbox, token, new IllegalStateException("超过最大投递次数：" + config.getMaxAttempts()));
+                continue;
+            }
+            try {
+                messages.put(buildMessage(outbox), outbox);
+            } catch (MessagingException e) {
+                markFailed(outbox, token, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return batch.size();
+        }
+
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                messages.keySet().forEach(message -> failures.put(message, e));
+            }
+        } catch (MailException e) {
+            // 认证失败等整批失败的情况
+            messages.keySet().forEach(message -> failures.put(message, e));
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sentIds.add(entry.getValue().getId());
+            } else {
+                markRetry(entry.getValue(), token, failure);
+            }
+        }
+        markSent(sentIds, token);
+        if (!failures.isEmpty()) {
+            log.warn("邮件投递部分失败: 成功={}, 失败={}", sentIds.size(), failures.size());
+        }
+        return batch.size();
+    }
+
+    /**
+     * 定时投递：一批认领满时继续投递下一批，直到没有到期邮件
+     */
+    @Scheduled(fixedDelayString = "${quiz.system.mail.dispatch-interval:1000}")
+    public void scheduledDispatch() {
+        int batchSize = quizSystemProperties.getMail().getBatchSize();
+        try {
+            while (dispatchBatch() >= batchSize) {
+                // 继续投递下一批
+            }
+        } catch (Exception e) {
+            log.error("邮件投递任务异常: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 每小时清理超过保留天数的已发送、已失败邮件
+     */
+    @Scheduled(cron = "0 15 * * * ?")
+    public void purgeFinished() {
+        LocalDateTime before = LocalDateTime.now().minusDays(quizSystemProperties.getMail().getRetentionDays());
+        int deleted;
+        do {
+            deleted = emailOutboxMapper.deleteSentBefore(before, PURGE_BATCH_SIZE);
+        } while (deleted >= PURGE_BATCH_SIZE);
+        do {
+            deleted = emailOutboxMapper.deleteFailedBefore(before, PURGE_BATCH_SIZE);
+        } while (deleted >= PURGE_BATCH_SIZE);
+    }
+
+    private MimeMessage buildMessage(EmailOutbox outbox) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(outbox.getRecipient());
+        helper.setSubject(outbox.getSubject());
+        helper.setText(outbox.getContent(), true); // true表示内容是HTML
+        return message;
+    }
+
+    private void markSent(List<Long> ids, String token) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        LambdaUpdateWrapper<EmailOutbox> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.in(EmailOutbox::getId, ids)
+                    .eq(EmailOutbox::getClaimToken, token)
+                    .set(EmailOutbox::getStatus, EmailOutbox.OutboxStatus.sent)
+                    .set(EmailOutbox::getSentAt, LocalDateTime.now())
+                    .set(EmailOutbox::getContent, null)
+                    .set(EmailOutbox::getClaimToken, null)
+                    .set(EmailOutbox::getLastError, null);
+        emailOutboxMapper.update(null, updateWrapper);
+        sentCounter.increment(ids.size());
+    }
+
+    /**
+     * 按指数退避重新排队，超过最大次数后标记为失败
+     */
+    private void markRetry(EmailOutbox outbox, String token, Exception error) {
+        QuizSystemProperties.MailConfig config = quizSystemProperties.getMail();
+        // 认领时已计入本次尝试
+        int attempts = attemptsOf(outbox);
+        if (attempts >= config.getMaxAttempts()) {
+            markFailed(outbox, token, error);
+            return;
+        }
+        long delay = Math.min(config.getRetryBaseDelay() << Math.min(Math.max(attempts - 1, 0), 20), config.getRetryMaxDelay());
+        LambdaUpdateWrapper<EmailOutbox> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(EmailOutbox::getId, outbox.getId())
+                    .eq(EmailOutbox::getClaimToken, token)
+                    .set(EmailOutbox::getStatus, EmailOutbox.OutboxStatus.pending)
+                    .set(EmailOutbox::getNextAttemptAt, LocalDateTime.now().plus(Duration.ofSeconds(delay)))
+                    .set(EmailOutbox::getClaimToken, null)
+                    .set(EmailOutbox::getLastError, truncate(error));
+        emailOutboxMapper.update(null, updateWrapper);
+        retryCounter.increment();
+    }
+
+    private void markFailed(EmailOutbox outbox, String token, Exception error) {
+        LambdaUpdateWrapper<EmailOutbox> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(EmailOutbox::getId, outbox.getId())
+                    .eq(EmailOutbox::getClaimToken, token)
+                    .set(EmailOutbox::getStatus, EmailOutbox.OutboxStatus.failed)
+                    .set(EmailOutbox::getContent, null)
+                    .set(EmailOutbox::getClaimToken, null)
+                    .set(EmailOutbox::getLastError, truncate(error));
+        emailOutboxMapper.update(null, updateWrapper);
+        failedCounter.increment();
+        log.error("邮件投递失败，已放弃：id={}, To={}, Subject={}, 错误：{}",
+                outbox.getId(), outbox.getRecipient(), outbox.getSubject(), error.getMessage());
+    }
+
+    private static int attemptsOf(EmailOutbox outbox) {
+        return outbox.getAttempts() == null ? 0 : outbox.getAttempts();
+    }
+
+    private static String truncate(Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -1,13 +1,9 @@
 package com.quiz.service.impl;
 
+import com.quiz.service.EmailOutboxService;
 import com.quiz.service.EmailService;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 /**
@@ -21,37 +17,28 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final EmailOutboxService emailOutboxService;
 
     @Override
-    public void sendHtmlEmail(String to, String subject, String content) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-        helper.setFrom(fromEmail);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(content, true); // true表示内容是HTML
-        mailSender.send(message);
-        log.info("HTML邮件发送成功：To={}, Subject={}", to, subject);
+    public void sendHtmlEmail(String to, String subject, String content) {
+        emailOutboxService.enqueue(to, subject, content);
+        log.info("HTML邮件已加入发送队列：To={}, Subject={}", to, subject);
     }
 
     @Override
-    public void sendVerificationCodeEmail(String to, String code) throws MessagingException {
+    public void sendVerificationCodeEmail(String to, String code) {
         String subject = "【在线答题系统】邮箱验证码";
         String content = buildVerificationEmailContent(code);
         sendHtmlEmail(to, subject, content);
-        log.info("验证码邮件发送成功：To={}, Code={}", to, code);
+        log.info("验证码邮件已加入发送队列：To={}", to);
     }
 
     @Override
-    public void sendWelcomeEmail(String to, String username) throws MessagingException {
+    public void sendWelcomeEmail(String to, String username) {
         String subject = "【在线答题系统】欢迎注册";
         String content = buildWelcomeEmailContent(username);
         sendHtmlEmail(to, subject, content);
-        log.info("欢迎邮件发送成功：To={}, Username={}", to, username);
+        log.info("欢迎邮件已加入发送队列：To={}, Username={}", to, username);
     }
 
     private String buildVerificationEmailContent(String code) {
@@ -103,11 +90,11 @@ public class EmailServiceImpl implements EmailService {
     }
 
     @Override
-    public void sendPasswordResetEmail(String to, String username, String newPassword) throws MessagingException {
+    public void sendPasswordResetEmail(String to, String username, String newPassword) {
         String subject = "【在线答题系统】密码重置通知";
         String content = buildPasswordResetEmailContent(username, newPassword);
         sendHtmlEmail(to, subject, content);
-        log.info("密码重置邮件发送成功：To={}, Username={}", to, username);
+        log.info("密码重置邮件已加入发送队列：To={}, Username={}", to, username);
     }
 
     private String buildPasswordResetEmailContent(String username, String newPassword) {
@@ -0,0 +1,329 @@
+package com.quiz.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.quiz.dto.ItemResponseRow;
+import com.quiz.entity.Question;
+import com.quiz.entity.QuestionItemStats;
+import com.quiz.mapper.QuestionItemStatsMapper;
+import com.quiz.mapper.QuestionMapper;
+import com.quiz.service.ClusterLockService;
+import com.quiz.service.ItemAnalysisService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 条目分析服务实现类
+ * <p>
+ * 通过 MyBatis 游标按固定 fetchSize 流式读取答题记录，单次遍历累加到按题目下标索引的基本类型数组中，
+ * 内存只与题目数量有关，与答题记录数量无关。会话得分使用去掉本题后的得分率（校正后的题总相关），
+ * 避免本题计入总分造成区分度偏高。多节点部署时通过集群锁保证同一时刻只有一个节点在重算。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemAnalysisServiceImpl extends ServiceImpl<QuestionItemStatsMapper, QuestionItemStats>
+        implements ItemAnalysisService {
+
+    /**
+     * 统计选项分布的最大选项数（A-Z）
+     */
+    private static final int MAX_OPTIONS = 26;
+
+    /**
+     * 计算区分度所需的最少样本数
+     */
+    private static final int MIN_DISCRIMINATION_SAMPLES = 10;
+
+    /**
+     * 每批写入的指标行数
+     */
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    /**
+     * 集群锁名称与租期（覆盖一次全量分析的最长耗时）
+     */
+    private static final String LOCK_NAME = "item-analysis";
+    private static final Duration LOCK_LEASE = Duration.ofHours(1);
+
+    private final QuestionMapper questionMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterLockService clusterLockService;
+
+    /**
+     * 每天凌晨由获取到集群锁的一个节点执行，其他节点跳过
+     */
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void scheduledAnalyze() {
+        if (!clusterLockService.runExclusive(LOCK_NAME, LOCK_LEASE, this::doAnalyze)) {
+            log.info("条目分析已由其他节点执行，本节点跳过");
+        }
+    }
+
+    @Override
+    public int analyze() {
+        String token = clusterLockService.tryLock(LOCK_NAME, LOCK_LEASE);
+        if (token == null) {
+            throw new RuntimeException("条目分析正在进行中，请稍后再试");
+        }
+        try {
+            return doAnalyze();
+        } finally {
+            clusterLockService.unlock(LOCK_NAME, token);
+        }
+    }
+
+    private int doAnalyze() {
+        long start = System.currentTimeMillis();
+        Accumulator acc = new Accumulator(questionMapper.selectList(new LambdaQueryWrapper<Question>()
+                .select(Question::getId, Question::getBankId, Question::getType)));
+
+        // 游标须在事务内消费，事务结束时关闭
+        long rows = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Cursor<ItemResponseRow> cursor = baseMapper.streamResponses()) {
+                for (ItemResponseRow row : cursor) {
+                    acc.add(row);
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+
+        List<QuestionItemStats> stats = acc.toStats(LocalDateTime.now());
+        int written = transactionTemplate.execute(status -> {
+            baseMapper.deleteAll();
+            int count = 0;
+            for (int from = 0; from < stats.size(); from += WRITE_BATCH_SIZE) {
+                List<QuestionItemStats> batch = retainExisting(stats.subList(from, Math.min(from + WRITE_BATCH_SIZE, stats.size())));
+                if (!batch.isEmpty()) {
+                    saveBatch(batch, WRITE_BATCH_SIZE);
+                    count += batch.size();
+                }
+            }
+            return count;
+        });
+        log.info("条目分析完成: 答题记录 {} 条, 题目 {} 道（扫描期间删除 {} 道）, 耗时 {}ms",
+                rows, written, stats.size() - written, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    /**
+     * 去掉扫描期间已被删除的题目；对仍存在的题目加共享锁，提交前不会被删除，写入不会违反外键
+     */
+    private List<QuestionItemStats> retainExisting(List<QuestionItemStats> batch) {
+        Set<Long> existing = questionMapper.selectList(new LambdaQueryWrapper<Question>()
+                        .select(Question::getId)
+                        .in(Question::getId, batch.stream().map(QuestionItemStats::getQuestionId).collect(Collectors.toList()))
+                        .last("LOCK IN SHARE MODE"))
+                .stream().map(Question::getId).collect(Collectors.toSet());
+        if (existing.size() == batch.size()) {
+            return batch;
+        }
+        return batch.stream().filter(item -> existing.contains(item.getQuestionId())).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<QuestionItemStats> getBankReport(Long bankId) {
+        List<QuestionItemStats> stats = list(new LambdaQueryWrapper<QuestionItemStats>()
+                .eq(QuestionItemStats::getBankId, bankId));
+        if (stats.isEmpty()) {
+            return stats;
+        }
+        Map<Long, Question> questions = questionMapper.selectList(new LambdaQueryWrapper<Question>()
+                        .select(Question::getId, Question::getType, Question::getContent)
+                        .in(Question::getId, stats.stream().map(QuestionItemStats::getQuestionId).collect(Collectors.toList())))
+                .stream().collect(Collectors.toMap(Question::getId, Function.identity()));
+        for (QuestionItemStats item : stats) {
+            Question question = questions.get(item.getQuestionId());
+            if (question != null) {
+                item.setType(question.getType());
+                item.setContent(question.getContent());
+            }
+        }
+        stats.sort(Comparator.comparing(QuestionItemStats::getDiscrimination,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        return stats;
+    }
+
+    /**
+     * 单次遍历的累加器，各数组按题目下标索引
+     */
+    private static final class Accumulator {
+
+        private final Map<Long, Integer> indexOf;
+        private final long[] questionIds;
+        private final long[] bankIds;
+        private final boolean[] choice;
+
+        private final long[] attempts;
+        private final long[] correct;
+
+        /**
+         * 区分度：样本数、答对样本数、答对/答错样本的得分和、得分平方和
+         */
+        private final long[] samples;
+        private final long[] samplesCorrect;
+        private final double[] scoreSumCorrect;
+        private final double[] scoreSumWrong;
+        private final double[] scoreSquareSum;
+
+        /**
+         * 选项分布，下标为 题目下标 * MAX_OPTIONS + 选项序号
+         */
+        private final long[] optionCounts;
+
+        Accumulator(List<Question> questions) {
+            int size = questions.size();
+            indexOf = new HashMap<>(size * 2);
+            questionIds = new long[size];
+            bankIds = new long[size];
+            choice = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                Question question = questions.get(i);
+                indexOf.put(question.getId(), i);
+                questionIds[i] = question.getId();
+                bankIds[i] = question.getBankId() != null ? question.getBankId() : 0L;
+                choice[i] = question.getType() == Question.QuestionType.single
+                        || question.getType() == Question.QuestionType.multiple;
+            }
+            attempts = new long[size];
+            correct = new long[size];
+            samples = new long[size];
+            samplesCorrect = new long[size];
+            scoreSumCorrect = new double[size];
+            scoreSumWrong = new double[size];
+            scoreSquareSum = new double[size];
+            optionCounts = new long[size * MAX_OPTIONS];
+        }
+
+        void add(ItemResponseRow row) {
+            Integer index = indexOf.get(row.getQuestionId());
+            if (index == null) {
+                return;
+            }
+            int i = index;
+            int itemScore = row.getIsCorrect() != null && row.getIsCorrect() == 1 ? 1 : 0;
+            attempts[i]++;
+            correct[i] += itemScore;
+
+            // 会话中去掉本题后的得分率
+            int answered = row.getSessionAnswered() != null ? row.getSessionAnswered() : 0;
+            int sessionCorrect = row.getSessionCorrect() != null ? row.getSessionCorrect() : 0;
+            if (answered > 1) {
+                double rest = Math.max(0, Math.min(answered - 1, sessionCorrect - itemScore)) / (double) (answered - 1);
+                samples[i]++;
+                scoreSquareSum[i] += rest * rest;
+                if (itemScore == 1) {
+                    samplesCorrect[i]++;
+                    scoreSumCorrect[i] += rest;
+                } else {
+                    scoreSumWrong[i] += rest;
+                }
+            }
+
+            if (choice[i]) {
+                countOptions(i, row.getUserAnswer());
+            }
+        }
+
+        /**
+         * 统计字母形式答案（A / ABC / A,B,C）中的选项，其他形式不计入
+         */
+        private void countOptions(int i, String answer) {
+            if (answer == null) {
+                return;
+            }
+            int mask = 0;
+            for (int k = 0; k < answer.length(); k++) {
+                char c = Character.toUpperCase(answer.charAt(k));
+                if (c >= 'A' && c <= 'Z') {
+                    mask |= 1 << (c - 'A');
+                } else if (c != ',' && c != '，' && c != '、' && !Character.isWhitespace(c)) {
+                    return;
+                }
+            }
+            while (mask != 0) {
+                int option = Integer.numberOfTrailingZeros(mask);
+                optionCounts[i * MAX_OPTIONS + option]++;
+                mask &= mask - 1;
+            }
+        }
+
+        List<QuestionItemStats> toStats(LocalDateTime computedAt) {
+            List<QuestionItemStats> result = new ArrayList<>();
+            for (int i = 0; i < questionIds.length; i++) {
+                if (attempts[i] == 0) {
+                    continue;
+                }
+                QuestionItemStats item = new QuestionItemStats();
+                item.setQuestionId(questionIds[i]);
+                item.setBankId(bankIds[i]);
+                item.setAttempts(attempts[i]);
+                item.setCorrect(correct[i]);
+                item.setDifficulty(round((double) correct[i] / attempts[i]));
+                item.setDiscrimination(pointBiserial(i));
+                if (choice[i]) {
+                    Map<String, Long> options = new LinkedHashMap<>();
+                    for (int option = 0; option < MAX_OPTIONS; option++) {
+                        long count = optionCounts[i * MAX_OPTIONS + option];
+                        if (count > 0) {
+                            options.put(String.valueOf((char) ('A' + option)), count);
+                        }
+                    }
+                    item.setOptionCounts(options);
+                }
+                item.setComputedAt(computedAt);
+                result.add(item);
+            }
+            return result;
+        }
+
+        /**
+         * r = (M1 - M0) / s * sqrt(p * q)，s 为总体标准差；样本不足、全对/全错或得分无差异时返回 null
+         */
+        private Double pointBiserial(int i) {
+            long n = samples[i];
+            long n1 = samplesCorrect[i];
+            long n0 = n - n1;
+            if (n < MIN_DISCRIMINATION_SAMPLES || n1 == 0 || n0 == 0) {
+                return null;
+            }
+            double mean = (scoreSumCorrect[i] + scoreSumWrong[i]) / n;
+            double variance = scoreSquareSum[i] / n - mean * mean;
+            if (variance <= 1e-12) {
+                return null;
+            }
+            double p = (double) n1 / n;
+            double r = (scoreSumCorrect[i] / n1 - scoreSumWrong[i] / n0) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+            return round(Math.max(-1, Math.min(1, r)));
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 10000.0) / 10000.0;
+        }
+    }
+}
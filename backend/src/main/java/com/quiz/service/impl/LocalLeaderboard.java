@@ -0,0 +1,219 @@
+package com.quiz.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 本节点内存排行榜（Redis 关闭时的替代实现）
+ * <p>
+ * 按分数降序、用户ID升序排列；分数变化时先移除再插入，保持有序结构与分数表一致。
+ * 有序结构为按子树大小增强的 Treap（顺序统计树），插入、删除与名次查询均为期望 O(log n)，
+ * 与 Redis ZREVRANK 的复杂度一致。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+final class LocalLeaderboard {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble((Entry e) -> -e.score)
+            .thenComparingLong(e -> e.userId);
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private Node root;
+
+    synchronized void increment(Long userId, double delta) {
+        Entry old = entries.get(userId);
+        replace(userId, (old != null ? old.score : 0) + delta);
+    }
+
+    synchronized void replace(Long userId, double score) {
+        Entry old = entries.get(userId);
+        Entry updated = new Entry(userId, score);
+        if (old != null) {
+            root = delete(root, old);
+        }
+        entries.put(userId, updated);
+        root = insert(root, new Node(updated));
+    }
+
+    synchronized void remove(Long userId) {
+        Entry old = entries.remove(userId);
+        if (old != null) {
+            root = delete(root, old);
+        }
+    }
+
+    synchronized void replaceAll(Map<Long, Double> scores) {
+        entries.clear();
+        root = null;
+        scores.forEach((userId, score) -> {
+            Entry entry = new Entry(userId, score);
+            entries.put(userId, entry);
+            root = insert(root, new Node(entry));
+        });
+    }
+
+    /**
+     * 前 limit 名的用户ID（按名次）
+     */
+    synchronized List<Long> top(int limit) {
+        List<Long> result = new ArrayList<>(Math.max(0, Math.min(limit, size(root))));
+        collect(root, limit, result);
+        return result;
+    }
+
+    synchronized Double score(Long userId) {
+        Entry entry = entries.get(userId);
+        return entry != null ? entry.score : null;
+    }
+
+    synchronized double score(Long userId, double defaultValue) {
+        Entry entry = entries.get(userId);
+        return entry != null ? entry.score : defaultValue;
+    }
+
+    /**
+     * 名次（从 0 开始），不在榜上时返回 null
+     */
+    synchronized Long rank(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        // 自根向下累计排在目标之前的节点数
+        long before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = ORDER.compare(entry, node.entry);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left);
+                if (cmp == 0) {
+                    return before;
+                }
+                before++;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    private static void collect(Node node, int limit, List<Long> result) {
+        if (node == null || result.size() >= limit) {
+            return;
+        }
+        collect(node.left, limit, result);
+        if (result.size() < limit) {
+            result.add(node.entry.userId);
+            collect(node.right, limit, result);
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (ORDER.compare(added.entry, node.entry) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, Entry entry) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ORDER.compare(entry, node.entry);
+        if (cmp < 0) {
+            node.left = delete(node.left, entry);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, entry);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * 合并两棵子树（left 中所有元素均排在 right 之前）
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static final class Entry {
+        private final long userId;
+        private final double score;
+
+        private Entry(long userId, double score) {
+            this.userId = userId;
+            this.score = score;
+        }
+    }
+
+    private static final class Node {
+        private final Entry entry;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(Entry entry) {
+            this.entry = entry;
+        }
+
+        private void update() {
+            size = 1 + LocalLeaderboard.size(left) + LocalLeaderboard.size(right);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.quiz.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.exception.TooManyRequestsException;
+import com.quiz.service.LoginAttemptService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 登录防暴力破解服务实现类
+ * <p>
+ * 失败记录保存在 Redis 有序集合中（quiz:login:fail:user:{username} / quiz:login:fail:ip:{ip}，score 为失败时间），
+ * 窗口长度为 lockoutDuration；Redis 不可用时退化为本节点内存中的滑动窗口。
+ * 密码校验与哈希（BCrypt，含注册、修改密码和登录后重新哈希）共用一个信号量限制并发数，
+ * 排队超时直接返回 429，避免登录或注册洪峰占满请求线程。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+public class LoginAttemptServiceImpl implements LoginAttemptService {
+
+    private static final String USER_KEY_PREFIX = "quiz:login:fail:user:";
+    private static final String IP_KEY_PREFIX = "quiz:login:fail:ip:";
+
+    /**
+     * 本地后备窗口最多跟踪的键数量
+     */
+    private static final int LOCAL_CAPACITY = 10000;
+
+    /**
+     * 依次清理各键窗口外的记录，任一键达到上限时返回最早一条记录到期前的毫秒数，否则返回 0
+     * KEYS: 计数键；ARGV[1]: 当前时间；ARGV[2]: 窗口长度；ARGV[3..]: 各键的上限
+     */
+    private static final RedisScript<Long> CHECK_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1]) "
+                    + "local window = tonumber(ARGV[2]) "
+                    + "local wait = 0 "
+                    + "for i, key in ipairs(KEYS) do "
+                    + "  redis.call('ZREMRANGEBYSCORE', key, '-inf', now - window) "
+                    + "  if redis.call('ZCARD', key) >= tonumber(ARGV[i + 2]) then "
+                    + "    local oldest = redis.call('ZRANGE', key, 0, 0, 'WITHSCORES') "
+                    + "    wait = math.max(wait, tonumber(oldest[2]) + window - now) "
+                    + "  end "
+                    + "end "
+                    + "return wait", Long.class);
+
+    /**
+     * 记录一次失败，只保留最近 上限 条记录并刷新过期时间
+     * KEYS: 计数键；ARGV[1]: 当前时间；ARGV[2]: 窗口长度；ARGV[3]: 成员；ARGV[4..]: 各键的上限
+     */
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>(
+            "for i, key in ipairs(KEYS) do "
+                    + "  redis.call('ZADD', key, ARGV[1], ARGV[3]) "
+                    + "  redis.call('ZREMRANGEBYRANK', key, 0, -tonumber(ARGV[i + 3]) - 1) "
+                    + "  redis.call('PEXPIRE', key, ARGV[2]) "
+                    + "end "
+                    + "return 1", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final QuizSystemProperties quizSystemProperties;
+    private final LRUCache<String, Deque<Long>> localWindows;
+    private final Semaphore passwordCheckPermits;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter blockedCounter;
+    private final Counter failureCounter;
+    private final Counter busyCounter;
+
+    public LoginAttemptServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                   PasswordEncoder passwordEncoder,
+                                   QuizSystemProperties quizSystemProperties,
+                                   MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.quizSystemProperties = quizSystemProperties;
+        QuizSystemProperties.SecurityConfig security = quizSystemProperties.getSecurity();
+        this.localWindows = CacheUtil.newLRUCache(LOCAL_CAPACITY, TimeUnit.SECONDS.toMillis(security.getLockoutDuration()));
+        this.passwordCheckPermits = new Semaphore(Math.max(1, security.getMaxConcurrentPasswordChecks()));
+
+        this.blockedCounter = Counter.builder("quiz.login.attempts")
+                .description("登录尝试数").tag("result", "blocked").register(meterRegistry);
+        this.failureCounter = Counter.builder("quiz.login.attempts")
+                .description("登录尝试数").tag("result", "failure").register(meterRegistry);
+        this.busyCounter = Counter.builder("quiz.login.attempts")
+                .description("登录尝试数").tag("result", "busy").register(meterRegistry);
+    }
+
+    @Override
+    public void checkAllowed(String username, String clientIp) {
+        QuizSystemProperties.SecurityConfig security = quizSystemProperties.getSecurity();
+        long now = System.currentTimeMillis();
+        long window = TimeUnit.SECONDS.toMillis(security.getLockoutDuration());
+        List<String> keys = keys(username, clientIp);
+        int[] limits = {security.getMaxLoginAttempts(), security.getMaxLoginAttemptsPerIp()};
+
+        long waitMillis;
+        try {
+            Long result = stringRedisTemplate.execute(CHECK_SCRIPT, keys,
+                    String.valueOf(now), String.valueOf(window),
+                    String.valueOf(limits[0]), String.valueOf(limits[1]));
+            waitMillis = result != null ? result : 0L;
+        } catch (DataAccessException e) {
+            log.warn("Redis不可用，使用本地登录失败计数: {}", e.getMessage());
+            waitMillis = 0L;
+            for (int i = 0; i < keys.size(); i++) {
+                waitMillis = Math.max(waitMillis, localWait(keys.get(i), limits[i], now, window));
+            }
+        }
+
+        if (waitMillis > 0) {
+            blockedCounter.increment();
+            long retryAfter = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999));
+            throw new TooManyRequestsException("登录失败次数过多，请" + formatWait(retryAfter) + "后再试", retryAfter);
+        }
+    }
+
+    @Override
+    public void recordFailure(String username, String clientIp) {
+        failureCounter.increment();
+        QuizSystemProperties.SecurityConfig security = quizSystemProperties.getSecurity();
+        long now = System.currentTimeMillis();
+        long window = TimeUnit.SECONDS.toMillis(security.getLockoutDuration());
+        List<String> keys = keys(username, clientIp);
+        int[] limits = {security.getMaxLoginAttempts(), security.getMaxLoginAttemptsPerIp()};
+
+        try {
+            stringRedisTemplate.execute(RECORD_SCRIPT, keys,
+                    String.valueOf(now), String.valueOf(window), now + "-" + sequence.incrementAndGet(),
+                    String.valueOf(limits[0]), String.valueOf(limits[1]));
+        } catch (DataAccessException e) {
+            log.warn("Redis不可用，使用本地登录失败计数: {}", e.getMessage());
+            for (int i = 0; i < keys.size(); i++) {
+                localRecord(keys.get(i), limits[i], now, window);
+            }
+        }
+    }
+
+    @Override
+    public void reset(String username) {
+        String key = USER_KEY_PREFIX + normalize(username);
+        localWindows.remove(key);
+        try {
+            stringRedisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            log.warn("清除登录失败记录失败: username={}, error={}", username, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean verifyPassword(String rawPassword, String encodedPassword) {
+        return withPasswordPermit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public String encodePassword(String rawPassword) {
+        return withPasswordPermit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 占用一个密码运算名额执行 BCrypt 计算，排队超时抛出 TooManyRequestsException
+     */
+    private <T> T withPasswordPermit(Supplier<T> action) {
+        boolean acquired;
+        try {
+            acquired = passwordCheckPermits.tryAcquire(
+                    quizSystemProperties.getSecurity().getPasswordCheckTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            busyCounter.increment();
+            throw new TooManyRequestsException("请求过多，请稍后再试", 1);
+        }
+        try {
+            return action.get();
+        } finally {
+            passwordCheckPermits.release();
+        }
+    }
+
+    private List<String> keys(String username, String clientIp) {
+        return Arrays.asList(USER_KEY_PREFIX + normalize(username), IP_KEY_PREFIX + (clientIp == null ? "unknown" : clientIp));
+    }
+
+    /**
+     * 用户名统一小写，避免通过大小写变化绕过计数
+     */
+    private String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private long localWait(String key, int limit, long now, long window) {
+        Deque<Long> failures = localWindows.get(key, false);
+        if (failures == null) {
+            return 0L;
+        }
+        synchronized (failures) {
+            evict(failures, now - window);
+            return failures.size() >= limit ? failures.peekFirst() + window - now : 0L;
+        }
+    }
+
+    private void localRecord(String key, int limit, long now, long window) {
+        Deque<Long> failures = localWindows.get(key, false, ArrayDeque::new);
+        synchronized (failures) {
+            evict(failures, now - window);
+            failures.addLast(now);
+            while (failures.size() > limit) {
+                failures.pollFirst();
+            }
+        }
+        // 刷新本地记录的过期时间
+        localWindows.put(key, failures);
+    }
+
+    private static void evict(Deque<Long> failures, long threshold) {
+        while (!failures.isEmpty() && failures.peekFirst() <= threshold) {
+            failures.pollFirst();
+        }
+    }
+
+    private static String formatWait(long seconds) {
+        return seconds >= 60 ? ((seconds + 59) / 60) + "分钟" : seconds + "秒";
+    }
+}
@@ -1,7 +1,10 @@
 package com.quiz.service.impl;
 
+import com.quiz.config.PermissionRegistry;
+import com.quiz.dto.UserPrincipal;
 import com.quiz.entity.User;
 import com.quiz.service.PermissionService;
+import com.quiz.service.PrincipalCacheService;
 import com.quiz.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,32 +24,34 @@ import java.util.List;
 public class PermissionServiceImpl implements PermissionService {
 
     private final UserService userService;
+    private final PrincipalCacheService principalCacheService;
+    private final PermissionRegistry permissionRegistry;
 
     @Override
     public boolean hasPermission(Long userId, String permission) {
-        User user = userService.getById(userId);
-        if (user == null) {
+        UserPrincipal principal = principalCacheService.getPrincipal(userId);
+        if (principal == null) {
             return false;
         }
-        return user.hasPermission(permission);
+        if (!permissionRegistry.isFullyMapped(permission)) {
+            return principal.hasPermission(permission);
+        }
+        return principal.hasAnyPermission(permissionRegistry.maskOf(permission));
     }
 
     @Override
     public boolean isAdmin(Long userId) {
-        User user = userService.getById(userId);
-        if (user == null) {
-            return false;
-        }
-        return user.isAdmin();
+        UserPrincipal principal = principalCacheService.getPrincipal(userId);
+        return principal != null && principal.isAdmin();
     }
 
     @Override
     public List<String> getUserPermissions(Long userId) {
-        User user = userService.getById(userId);
-        if (user == null) {
+        UserPrincipal principal = principalCacheService.getPrincipal(userId);
+        if (principal == null) {
             return null;
         }
-        return user.getPermissions();
+        return principal.getPermissions();
     }
 
     @Override
@@ -64,7 +69,9 @@ public class PermissionServiceImpl implements PermissionService {
             }
             
             user.setPermissions(permissions);
-            return userService.updateById(user);
+            boolean updated = userService.updateById(user);
+            principalCacheService.invalidate(userId);
+            return updated;
         } catch (Exception e) {
             log.error("更新用户权限失败: userId={}, permissions={}", userId, permissions, e);
             return false;
@@ -73,10 +80,8 @@ public class PermissionServiceImpl implements PermissionService {
 
     @Override
     public boolean hasQuestionManagePermission(Long userId) {
-        return hasPermission(userId, "question:create") ||
-               hasPermission(userId, "question:edit") ||
-               hasPermission(userId, "question:delete") ||
-               hasPermission(userId, "question:upload") ||
-               hasPermission(userId, "question:batch");
+        UserPrincipal principal = principalCacheService.getPrincipal(userId);
+        return principal != null
+                && principal.hasAnyPermission(permissionRegistry.maskOf(PermissionRegistry.QUESTION_MANAGE_PERMISSIONS));
     }
 }
@@ -0,0 +1,148 @@
+package com.quiz.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.config.PermissionRegistry;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.dto.UserPrincipal;
+import com.quiz.entity.User;
+import com.quiz.mapper.UserMapper;
+import com.quiz.service.PrincipalCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已认证用户缓存服务实现类
+ * <p>
+ * 一级缓存为带 TTL 的本地 LRU；可选启用 Redis 二级缓存（quiz:principal:{userId}），
+ * 多节点部署时其他节点的本地缓存最长在 TTL 后失效。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+public class PrincipalCacheServiceImpl implements PrincipalCacheService {
+
+    private static final String PRINCIPAL_KEY_PREFIX = "quiz:principal:";
+
+    private final UserMapper userMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final QuizSystemProperties quizSystemProperties;
+    private final PermissionRegistry permissionRegistry;
+    private final LRUCache<Long, UserPrincipal> localCache;
+
+    private final Counter localHitCounter;
+    private final Counter redisHitCounter;
+    private final Counter missCounter;
+
+    public PrincipalCacheServiceImpl(UserMapper userMapper,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     ObjectMapper objectMapper,
+                                     QuizSystemProperties quizSystemProperties,
+                                     PermissionRegistry permissionRegistry,
+                                     MeterRegistry meterRegistry) {
+        this.userMapper = userMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.quizSystemProperties = quizSystemProperties;
+        this.permissionRegistry = permissionRegistry;
+        QuizSystemProperties.CacheConfig cacheConfig = quizSystemProperties.getCache();
+        this.localCache = CacheUtil.newLRUCache(cacheConfig.getPrincipalCapacity(),
+                TimeUnit.SECONDS.toMillis(cacheConfig.getPrincipalExpireTime()));
+
+        this.localHitCounter = Counter.builder("quiz.principal.cache.requests")
+                .description("已认证用户缓存请求数").tag("result", "local_hit").register(meterRegistry);
+        this.redisHitCounter = Counter.builder("quiz.principal.cache.requests")
+                .description("已认证用户缓存请求数").tag("result", "redis_hit").register(meterRegistry);
+        this.missCounter = Counter.builder("quiz.principal.cache.requests")
+                .description("已认证用户缓存请求数").tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    public UserPrincipal getPrincipal(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        UserPrincipal principal = localCache.get(userId, false);
+        if (principal != null) {
+            localHitCounter.increment();
+            return principal;
+        }
+
+        principal = getFromRedis(userId);
+        if (principal != null) {
+            redisHitCounter.increment();
+            principal = compile(principal);
+            localCache.put(userId, principal);
+            return principal;
+        }
+
+        missCounter.increment();
+        User user = userMapper.selectByIdWithPermissions(userId);
+        if (user == null) {
+            return null;
+        }
+        principal = compile(UserPrincipal.of(user));
+        localCache.put(userId, principal);
+        putToRedis(userId, principal);
+        return principal;
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        localCache.remove(userId);
+        if (quizSystemProperties.getCache().isPrincipalRedisEnabled()) {
+            try {
+                stringRedisTemplate.delete(PRINCIPAL_KEY_PREFIX + userId);
+            } catch (DataAccessException e) {
+                log.warn("删除用户缓存失败: userId={}, error={}", userId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 编译权限位掩码
+     */
+    private UserPrincipal compile(UserPrincipal principal) {
+        return principal.withPermissionMask(permissionRegistry.maskOf(principal.getPermissions()));
+    }
+
+    private UserPrincipal getFromRedis(Long userId) {
+        if (!quizSystemProperties.getCache().isPrincipalRedisEnabled()) {
+            return null;
+        }
+        try {
+            String value = stringRedisTemplate.opsForValue().get(PRINCIPAL_KEY_PREFIX + userId);
+            return value != null ? objectMapper.readValue(value, UserPrincipal.class) : null;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("读取用户缓存失败: userId={}, error={}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void putToRedis(Long userId, UserPrincipal principal) {
+        QuizSystemProperties.CacheConfig cacheConfig = quizSystemProperties.getCache();
+        if (!cacheConfig.isPrincipalRedisEnabled()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForValue().set(PRINCIPAL_KEY_PREFIX + userId, objectMapper.writeValueAsString(principal),
+                    cacheConfig.getPrincipalRedisExpireTime(), TimeUnit.SECONDS);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("写入用户缓存失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+}
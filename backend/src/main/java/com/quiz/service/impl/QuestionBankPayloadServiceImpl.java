@@ -0,0 +1,178 @@
+package com.quiz.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.dto.Result;
+import com.quiz.dto.SerializedPayload;
+import com.quiz.entity.Question;
+import com.quiz.entity.QuestionBank;
+import com.quiz.event.QuestionBankChangedEvent;
+import com.quiz.service.QuestionBankPayloadService;
+import com.quiz.service.QuestionBankService;
+import com.quiz.service.QuestionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 题库题目列表响应缓存服务实现类
+ * <p>
+ * 内容版本保存在 Redis（quiz:bank:version:{bankId}），取值为变更时的毫秒时间戳，
+ * Redis 重启后也不会与客户端持有的旧 ETag 冲突；各节点在本地 LRU 中缓存对应版本的序列化字节。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+public class QuestionBankPayloadServiceImpl implements QuestionBankPayloadService {
+
+    private static final String VERSION_KEY_PREFIX = "quiz:bank:version:";
+
+    /**
+     * 小于该字节数的响应不压缩
+     */
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final QuizSystemProperties quizSystemProperties;
+    private final LRUCache<Long, SerializedPayload> payloadCache;
+
+    /**
+     * Redis 不可用时使用的本地版本号
+     */
+    private final Map<Long, String> localVersions = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter notModifiedCounter;
+    private final Counter identityBytesCounter;
+    private final Counter gzipBytesCounter;
+
+    @Autowired
+    @Lazy
+    private QuestionService questionService;
+
+    @Autowired
+    @Lazy
+    private QuestionBankService questionBankService;
+
+    public QuestionBankPayloadServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                          ObjectMapper objectMapper,
+                                          QuizSystemProperties quizSystemProperties,
+                                          MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.quizSystemProperties = quizSystemProperties;
+        this.payloadCache = CacheUtil.newLRUCache(quizSystemProperties.getCache().getBankPayloadCapacity());
+
+        this.hitCounter = Counter.builder("quiz.bank.payload.requests")
+                .description("题库题目列表缓存请求数").tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder("quiz.bank.payload.requests")
+                .description("题库题目列表缓存请求数").tag("result", "miss").register(meterRegistry);
+        this.notModifiedCounter = Counter.builder("quiz.bank.payload.requests")
+                .description("题库题目列表缓存请求数").tag("result", "not_modified").register(meterRegistry);
+        this.identityBytesCounter = Counter.builder("quiz.bank.payload.bytes")
+                .description("题库题目列表响应字节数").baseUnit("bytes").tag("encoding", "identity").register(meterRegistry);
+        this.gzipBytesCounter = Counter.builder("quiz.bank.payload.bytes")
+                .description("题库题目列表响应字节数").baseUnit("bytes").tag("encoding", "gzip").register(meterRegistry);
+    }
+
+    @Override
+    public SerializedPayload getQuestionsPayload(Long bankId) {
+        String version = currentVersion(bankId);
+        String etag = "\"" + bankId + "-" + version + "\"";
+
+        SerializedPayload cached = payloadCache.get(bankId);
+        if (cached != null && cached.getEtag().equals(etag)) {
+            hitCounter.increment();
+            return cached;
+        }
+        missCounter.increment();
+
+        QuestionBank bank = questionBankService.getById(bankId);
+        if (bank == null) {
+            return null;
+        }
+        List<Question> questions = questionService.getQuestionsByBankId(bankId);
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Result.success(questions));
+            byte[] gzipBody = quizSystemProperties.getCache().isBankPayloadGzip() && body.length >= GZIP_MIN_BYTES
+                    ? gzip(body) : null;
+            SerializedPayload payload = new SerializedPayload(etag, body, gzipBody);
+            payloadCache.put(bankId, payload);
+            return payload;
+        } catch (IOException e) {
+            throw new RuntimeException("题目列表序列化失败", e);
+        }
+    }
+
+    @Override
+    public void recordServed(int bytes, boolean gzip) {
+        (gzip ? gzipBytesCounter : identityBytesCounter).increment(bytes);
+    }
+
+    @Override
+    public void recordNotModified() {
+        notModifiedCounter.increment();
+    }
+
+    /**
+     * 题库内容变更（事务提交后）递增版本并移除本地缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionBankChanged(QuestionBankChangedEvent event) {
+        Long bankId = event.getBankId();
+        String version = String.valueOf(System.currentTimeMillis());
+        payloadCache.remove(bankId);
+        localVersions.put(bankId, version);
+        try {
+            stringRedisTemplate.opsForValue().set(VERSION_KEY_PREFIX + bankId, version);
+        } catch (DataAccessException e) {
+            log.warn("更新题库内容版本失败: bankId={}, error={}", bankId, e.getMessage());
+        }
+    }
+
+    private String currentVersion(Long bankId) {
+        String key = VERSION_KEY_PREFIX + bankId;
+        try {
+            String version = stringRedisTemplate.opsForValue().get(key);
+            if (version == null) {
+                String initial = String.valueOf(System.currentTimeMillis());
+                Boolean created = stringRedisTemplate.opsForValue().setIfAbsent(key, initial);
+                version = Boolean.TRUE.equals(created) ? initial : stringRedisTemplate.opsForValue().get(key);
+            }
+            if (version != null) {
+                return version;
+            }
+        } catch (DataAccessException e) {
+            log.warn("读取题库内容版本失败，使用本地版本: bankId={}, error={}", bankId, e.getMessage());
+        }
+        return localVersions.computeIfAbsent(bankId, id -> String.valueOf(System.currentTimeMillis()));
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
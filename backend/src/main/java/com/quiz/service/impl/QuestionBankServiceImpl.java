@@ -1,12 +1,18 @@
 package com.quiz.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.quiz.entity.Question;
 import com.quiz.entity.QuestionBank;
 import com.quiz.entity.QuizSession;
+import com.quiz.event.QuestionBankChangedEvent;
 import com.quiz.mapper.QuestionBankMapper;
+import com.quiz.mapper.QuestionMapper;
 import com.quiz.service.QuestionBankService;
 import com.quiz.service.QuizSessionService;
+import com.quiz.service.SystemMetricsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +32,15 @@ public class QuestionBankServiceImpl extends ServiceImpl<QuestionBankMapper, Que
     @Lazy
     private QuizSessionService quizSessionService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private QuestionMapper questionMapper;
+
+    @Autowired
+    private SystemMetricsService systemMetricsService;
+
     @Override
     public List<QuestionBank> getEnabledBanksWithProgress(Long userId) {
         List<QuestionBank> banks = baseMapper.findAllEnabled();
@@ -67,6 +82,7 @@ public class QuestionBankServiceImpl extends ServiceImpl<QuestionBankMapper, Que
         bank.setSortOrder(0);
         bank.setCreatedBy(createdBy);
         save(bank);
+        systemMetricsService.increment(SystemMetricsService.Metric.BANKS, 1);
         return bank;
     }
 
@@ -95,7 +111,14 @@ public class QuestionBankServiceImpl extends ServiceImpl<QuestionBankMapper, Que
     @Transactional
     public boolean deleteBank(Long bankId) {
         // 由于外键级联删除，题目会自动删除
-        return removeById(bankId);
+        long questionCount = questionMapper.selectCount(new LambdaQueryWrapper<Question>().eq(Question::getBankId, bankId));
+        boolean removed = removeById(bankId);
+        if (removed) {
+            systemMetricsService.increment(SystemMetricsService.Metric.BANKS, -1);
+            systemMetricsService.increment(SystemMetricsService.Metric.QUESTIONS, -questionCount);
+        }
+        eventPublisher.publishEvent(new QuestionBankChangedEvent(bankId));
+        return removed;
     }
 
     @Override
@@ -106,5 +129,6 @@ public class QuestionBankServiceImpl extends ServiceImpl<QuestionBankMapper, Que
     @Override
     public void updateQuestionCount(Long bankId) {
         baseMapper.updateQuestionCount(bankId);
+        eventPublisher.publishEvent(new QuestionBankChangedEvent(bankId));
     }
 }
@@ -0,0 +1,177 @@
+package com.quiz.service.impl;
+
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.dto.QuestionCounterDelta;
+import com.quiz.entity.Question;
+import com.quiz.mapper.QuestionMapper;
+import com.quiz.service.QuestionCounterService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 题目计数服务实现类
+ * <p>
+ * 每道题一组 {@link LongAdder}，高并发累加时分散到多个单元，不争用同一行锁；
+ * 定时任务取出增量后按块执行一条 UPDATE ... CASE，写入失败时把增量加回，应用关闭前再写入一次。
+ * 计数在答题热路径上不产生任何数据库写入。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionCounterServiceImpl implements QuestionCounterService {
+
+    private final QuestionMapper questionMapper;
+    private final QuizSystemProperties quizSystemProperties;
+
+    /**
+     * 各题目的待写入计数（题目数量有限，计数组常驻，避免移除与并发累加竞争）
+     */
+    private final Map<Long, Counters> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordView(Long questionId) {
+        if (questionId != null) {
+            counters(questionId).views.increment();
+        }
+    }
+
+    @Override
+    public void recordAnswer(Long questionId, boolean correct) {
+        if (questionId != null) {
+            afterCommit(() -> addAnswer(questionId, correct));
+        }
+    }
+
+    @Override
+    public void recordAnswerChange(Long questionId, int answers, int correct) {
+        if (questionId == null || (answers == 0 && correct == 0)) {
+            return;
+        }
+        afterCommit(() -> {
+            Counters counters = counters(questionId);
+            counters.answers.add(answers);
+            counters.correct.add(correct);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void addAnswer(Long questionId, boolean correct) {
+        Counters counters = counters(questionId);
+        counters.answers.increment();
+        if (correct) {
+            counters.correct.increment();
+        }
+    }
+
+    @Override
+    public Question applyPending(Question question) {
+        if (question == null || question.getId() == null) {
+            return question;
+        }
+        Counters counters = pending.get(question.getId());
+        if (counters != null) {
+            question.setViewCount(valueOf(question.getViewCount()) + counters.views.sum());
+            question.setAnswerCount(valueOf(question.getAnswerCount()) + counters.answers.sum());
+            question.setCorrectCount(valueOf(question.getCorrectCount()) + counters.correct.sum());
+        }
+        return question;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${quiz.system.question.counter-flush-interval:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<QuestionCounterDelta> deltas = new ArrayList<>();
+        for (Map.Entry<Long, Counters> entry : pending.entrySet()) {
+            Counters counters = entry.getValue();
+            long views = drain(counters.views);
+            long answers = drain(counters.answers);
+            long correct = drain(counters.correct);
+            if (views != 0 || answers != 0 || correct != 0) {
+                deltas.add(new QuestionCounterDelta(entry.getKey(), views, answers, correct));
+            }
+        }
+
+        int batchSize = Math.max(1, quizSystemProperties.getQuestion().getCounterFlushBatchSize());
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<QuestionCounterDelta> chunk = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+            try {
+                questionMapper.addCounters(chunk);
+            } catch (Exception e) {
+                // 写入失败时把增量加回，下次重试
+                log.warn("题目计数写入失败，{} 道题的增量将在下次重试: {}", chunk.size(), e.getMessage());
+                for (QuestionCounterDelta delta : chunk) {
+                    Counters counters = counters(delta.getQuestionId());
+                    counters.views.add(delta.getViews());
+                    counters.answers.add(delta.getAnswers());
+                    counters.correct.add(delta.getCorrect());
+                }
+            }
+        }
+    }
+
+    /**
+     * 应用关闭前写入剩余的计数
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Counters counters(Long questionId) {
+        Counters counters = pending.get(questionId);
+        return counters != null ? counters : pending.computeIfAbsent(questionId, id -> new Counters());
+    }
+
+    /**
+     * 取出当前累计值：减去读到的和而不是清零，读取期间的并发累加保留到下一轮
+     */
+    private static long drain(LongAdder adder) {
+        long value = adder.sum();
+        if (value != 0) {
+            adder.add(-value);
+        }
+        return value;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * 单道题的待写入计数
+     */
+    private static final class Counters {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder answers = new LongAdder();
+        private final LongAdder correct = new LongAdder();
+    }
+}
@@ -2,6 +2,7 @@ package com.quiz.service.impl;
 
 import com.quiz.dto.QuestionImportResult;
 import com.quiz.service.QuestionImportService;
+import com.quiz.service.SystemMetricsService;
 import com.quiz.strategy.QuestionImportContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +23,7 @@ import java.util.List;
 public class QuestionImportServiceImpl implements QuestionImportService {
 
     private final QuestionImportContext importContext;
+    private final SystemMetricsService systemMetricsService;
 
     @Override
     public QuestionImportResult importQuestions(String filePath, String fileName, Long bankId, Long userId) {
@@ -38,6 +40,7 @@ public class QuestionImportServiceImpl implements QuestionImportService {
 
             // 使用策略模式导入
             QuestionImportResult result = importContext.importQuestions(fileName, filePath, bankId, userId);
+            systemMetricsService.increment(SystemMetricsService.Metric.QUESTIONS, result.getSuccessCount());
 
             log.info("题目导入完成：成功={}, 失败={}, 跳过={}",
                     result.getSuccessCount(), result.getErrorCount(), result.getSkipCount());
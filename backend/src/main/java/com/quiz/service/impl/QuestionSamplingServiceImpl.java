@@ -0,0 +1,151 @@
+package com.quiz.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.entity.Question;
+import com.quiz.event.QuestionBankChangedEvent;
+import com.quiz.service.QuestionSamplingService;
+import com.quiz.service.QuestionService;
+import com.quiz.utils.SamplingUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 随机组卷服务实现类
+ * <p>
+ * 每个题库缓存一份按ID升序排列的 long[] 索引（全部启用题目 + 各题型），
+ * 题库内容变更时整体失效并在下次抽样时重建，替代 ORDER BY RAND() 的全表扫描与排序。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Service
+@RequiredArgsConstructor
+public class QuestionSamplingServiceImpl implements QuestionSamplingService {
+
+    /**
+     * 不限题库时使用的索引键
+     */
+    private static final Long ALL_BANKS = 0L;
+
+    private final QuizSystemProperties quizSystemProperties;
+
+    @Autowired
+    @Lazy
+    private QuestionService questionService;
+
+    private final Map<Long, QuestionIdIndex> indexes = new ConcurrentHashMap<>();
+
+    @Override
+    public List<Long> sampleQuestionIds(Long bankId, int count, Map<Question.QuestionType, Integer> typeCounts, long seed) {
+        QuestionIdIndex index = indexes.computeIfAbsent(bankId != null ? bankId : ALL_BANKS, this::buildIndex);
+        SplittableRandom random = new SplittableRandom(seed);
+        int maxCount = quizSystemProperties.getQuestion().getMaxRandomCount();
+
+        List<Long> result = new ArrayList<>();
+        if (typeCounts == null || typeCounts.isEmpty()) {
+            for (long id : SamplingUtils.sample(index.all, Math.min(count, maxCount), random)) {
+                result.add(id);
+            }
+            return result;
+        }
+
+        // 分层抽样：按题型枚举顺序逐层抽取，每层使用独立拆分的随机源，保证同一种子可复现
+        int remaining = maxCount;
+        for (Question.QuestionType type : Question.QuestionType.values()) {
+            Integer quota = typeCounts.get(type);
+            SplittableRandom stratumRandom = random.split();
+            if (quota == null || quota <= 0 || remaining <= 0) {
+                continue;
+            }
+            long[] sampled = SamplingUtils.sample(index.byType.get(type), Math.min(quota, remaining), stratumRandom);
+            for (long id : sampled) {
+                result.add(id);
+            }
+            remaining -= sampled.length;
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> generatePaper(Long bankId, int count, Map<Question.QuestionType, Integer> typeCounts, Long seed) {
+        Map<String, Object> result = new HashMap<>();
+
+        long paperSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        List<Long> ids = sampleQuestionIds(bankId, count, typeCounts, paperSeed);
+
+        // 只按ID查询被抽中的题目，并保持抽样顺序
+        Map<Long, Question> questionMap = questionService.getQuestionsByIds(ids).stream()
+                .collect(Collectors.toMap(Question::getId, Function.identity()));
+        List<Question> questions = ids.stream()
+                .map(questionMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        result.put("seed", paperSeed);
+        result.put("questions", questions);
+        return result;
+    }
+
+    /**
+     * 题库内容变更后失效对应索引（不限题库的索引同时失效）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionBankChanged(QuestionBankChangedEvent event) {
+        indexes.remove(event.getBankId());
+        indexes.remove(ALL_BANKS);
+    }
+
+    private QuestionIdIndex buildIndex(Long key) {
+        LambdaQueryWrapper<Question> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(Question::getId, Question::getType)
+                   .eq(!ALL_BANKS.equals(key), Question::getBankId, key)
+                   .eq(Question::getStatus, 1)
+                   .orderByAsc(Question::getId);
+        List<Question> rows = questionService.list(queryWrapper);
+
+        long[] all = new long[rows.size()];
+        int[] typeSizes = new int[Question.QuestionType.values().length];
+        for (int i = 0; i < rows.size(); i++) {
+            Question row = rows.get(i);
+            all[i] = row.getId();
+            if (row.getType() != null) {
+                typeSizes[row.getType().ordinal()]++;
+            }
+        }
+
+        Map<Question.QuestionType, long[]> byType = new EnumMap<>(Question.QuestionType.class);
+        int[] positions = new int[typeSizes.length];
+        for (Question.QuestionType type : Question.QuestionType.values()) {
+            byType.put(type, new long[typeSizes[type.ordinal()]]);
+        }
+        for (Question row : rows) {
+            if (row.getType() != null) {
+                byType.get(row.getType())[positions[row.getType().ordinal()]++] = row.getId();
+            }
+        }
+        return new QuestionIdIndex(all, byType);
+    }
+
+    /**
+     * 题目ID索引（不可变）
+     */
+    private static class QuestionIdIndex {
+        private final long[] all;
+        private final Map<Question.QuestionType, long[]> byType;
+
+        private QuestionIdIndex(long[] all, Map<Question.QuestionType, long[]> byType) {
+            this.all = all;
+            this.byType = byType;
+        }
+    }
+}
@@ -5,13 +5,18 @@ import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.quiz.entity.Question;
 import com.quiz.entity.QuestionBank;
+import com.quiz.event.QuestionBankChangedEvent;
 import com.quiz.mapper.QuestionBankMapper;
 import com.quiz.mapper.QuestionMapper;
+import com.quiz.service.QuestionCounterService;
 import com.quiz.service.QuestionService;
+import com.quiz.service.SystemMetricsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -29,6 +34,9 @@ import java.util.stream.Collectors;
 public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question> implements QuestionService {
 
     private final QuestionBankMapper questionBankMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SystemMetricsService systemMetricsService;
+    private final QuestionCounterService questionCounterService;
 
     @Override
     public List<Question> getQuestionsByBankId(Long bankId) {
@@ -42,11 +50,22 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question> i
         return processQuestionsOptions(questions);
     }
 
+    @Override
+    public List<Long> getQuestionIdsByBankId(Long bankId) {
+        LambdaQueryWrapper<Question> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(Question::getId)
+                   .eq(Question::getBankId, bankId)
+                   .eq(Question::getStatus, 1)
+                   .orderByAsc(Question::getSortOrder)
+                   .orderByAsc(Question::getId);
+        return listObjs(queryWrapper, id -> ((Number) id).longValue());
+    }
+
     @Override
     public Question getQuestionDetail(Long id) {
         Question question = getById(id);
         if (question != null) {
-            return processQuestionOptions(question);
+            return processQuestionOptions(questionCounterService.applyPending(question));
         }
         return null;
     }
@@ -85,6 +104,7 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question> i
 
         boolean saved = save(question);
         if (saved) {
+            systemMetricsService.increment(SystemMetricsService.Metric.QUESTIONS, 1);
             updateBankQuestionCount(question.getBankId());
         }
         return saved;
@@ -107,21 +127,45 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question> i
         question.setSortOrder(sortOrder);
 
         save(question);
+        systemMetricsService.increment(SystemMetricsService.Metric.QUESTIONS, 1);
+        eventPublisher.publishEvent(new QuestionBankChangedEvent(bankId));
         return question;
     }
 
+    @Override
+    @Transactional
+    public boolean updateQuestion(Question question) {
+        boolean updated = updateById(question);
+        if (updated) {
+            eventPublisher.publishEvent(new QuestionBankChangedEvent(question.getBankId()));
+        }
+        return updated;
+    }
+
     @Override
     @Transactional
     public boolean deleteByBankId(Long bankId) {
         LambdaQueryWrapper<Question> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(Question::getBankId, bankId);
-        return remove(queryWrapper);
+        int removed = baseMapper.delete(queryWrapper);
+        systemMetricsService.increment(SystemMetricsService.Metric.QUESTIONS, -removed);
+        eventPublisher.publishEvent(new QuestionBankChangedEvent(bankId));
+        return removed > 0;
     }
 
     @Override
     @Transactional
     public boolean deleteQuestion(Long questionId) {
-        return removeById(questionId);
+        Question question = getById(questionId);
+        if (question == null) {
+            return false;
+        }
+        boolean removed = removeById(questionId);
+        if (removed) {
+            systemMetricsService.increment(SystemMetricsService.Metric.QUESTIONS, -1);
+            eventPublisher.publishEvent(new QuestionBankChangedEvent(question.getBankId()));
+        }
+        return removed;
     }
 
     @Override
@@ -134,6 +178,7 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question> i
                         .set(Question::getSortOrder, i);
             update(updateWrapper);
         }
+        eventPublisher.publishEvent(new QuestionBankChangedEvent(bankId));
         return true;
     }
 
@@ -153,7 +198,10 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question> i
             updateWrapper.eq(Question::getCreatedBy, userId);
         }
 
-        return update(updateWrapper);
+        List<Long> bankIds = getBankIdsOf(ids);
+        boolean updated = update(updateWrapper);
+        bankIds.forEach(bankId -> eventPublisher.publishEvent(new QuestionBankChangedEvent(bankId)));
+        return updated;
     }
 
     @Override
@@ -171,7 +219,25 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question> i
             queryWrapper.eq(Question::getCreatedBy, userId);
         }
 
-        return remove(queryWrapper);
+        List<Long> bankIds = getBankIdsOf(ids);
+        int removed = baseMapper.delete(queryWrapper);
+        systemMetricsService.increment(SystemMetricsService.Metric.QUESTIONS, -removed);
+        bankIds.forEach(bankId -> eventPublisher.publishEvent(new QuestionBankChangedEvent(bankId)));
+        return removed > 0;
+    }
+
+    @Override
+    @Transactional
+    public int insertBatch(List<Question> questions) {
+        if (questions == null || questions.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Question question : questions) {
+            question.setCreatedAt(now);
+            question.setUpdatedAt(now);
+        }
+        return baseMapper.insertBatch(questions);
     }
 
     @Override
@@ -233,6 +299,18 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question> i
         bank.setId(bankId);
         bank.setQuestionCount(count);
         questionBankMapper.updateById(bank);
+        eventPublisher.publishEvent(new QuestionBankChangedEvent(bankId));
+    }
+
+    /**
+     * 查询题目所属的题库ID（去重）
+     */
+    private List<Long> getBankIdsOf(List<Long> questionIds) {
+        LambdaQueryWrapper<Question> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(Question::getBankId)
+                   .in(Question::getId, questionIds)
+                   .groupBy(Question::getBankId);
+        return listObjs(queryWrapper, bankId -> ((Number) bankId).longValue());
     }
 
     /**
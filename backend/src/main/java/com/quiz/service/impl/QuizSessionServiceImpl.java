@@ -3,28 +3,45 @@ package com.quiz.service.impl;
 import cn.hutool.core.util.IdUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.quiz.dto.AnswerChange;
+import com.quiz.dto.GradeResult;
+import com.quiz.dto.SessionQuestionDto;
 import com.quiz.entity.Question;
 import com.quiz.entity.QuestionBank;
 import com.quiz.entity.QuizSession;
 import com.quiz.entity.UserAnswer;
 import com.quiz.entity.User;
+import com.quiz.entity.WrongQuestion;
+import com.quiz.config.properties.QuizSystemProperties;
 import com.quiz.mapper.QuizSessionMapper;
+import com.quiz.service.AnswerGradingService;
 import com.quiz.service.QuestionBankService;
 import com.quiz.service.QuestionService;
 import com.quiz.service.QuizSessionService;
+import com.quiz.service.SessionPaperService;
+import com.quiz.service.SessionStateService;
+import com.quiz.service.SystemMetricsService;
 import com.quiz.service.UserAnswerService;
 import com.quiz.service.UserService;
 import com.quiz.service.WrongQuestionService;
 import com.quiz.service.FavoriteService;
+import com.quiz.utils.AnswerUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StopWatch;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * 答题会话服务实现类
@@ -32,12 +49,20 @@ import java.util.stream.Collectors;
  * @author Quiz System
  * @since 2024
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizSession> implements QuizSessionService {
 
     private final QuestionService questionService;
     private final UserAnswerService userAnswerService;
+    private final SessionStateService sessionStateService;
+    private final TransactionTemplate transactionTemplate;
+    private final QuizSystemProperties quizSystemProperties;
+    private final MeterRegistry meterRegistry;
+    private final SessionPaperService sessionPaperService;
+    private final AnswerGradingService answerGradingService;
+    private final SystemMetricsService systemMetricsService;
 
     @Autowired
     @Lazy
@@ -131,6 +156,11 @@ public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizS
 
         // 检查是否有未完成的会话
         QuizSession session = getOngoingSession(userId, bankId, mode);
+        if (session != null && sessionStateService.isWriteBehind()) {
+            // 写回模式下先把内存中的进度落库，保证续答读取到最新答案
+            sessionStateService.flush(session.getSessionId());
+            session = getSessionBySessionId(session.getSessionId());
+        }
         List<UserAnswer> existingAnswers = new ArrayList<>();
         int startIndex = 0;
 
@@ -160,6 +190,7 @@ public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizS
             session.setStatus(QuizSession.SessionStatus.ongoing);
             session.setDeleted(0);
             save(session);
+            systemMetricsService.increment(SystemMetricsService.Metric.SESSIONS, 1);
         }
 
         session.setBankName(bank.getName());
@@ -172,6 +203,172 @@ public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizS
         return result;
     }
 
+    @Override
+    @Transactional
+    public Map<String, Object> createOrContinueWindowedSession(Long userId, Long bankId, QuizSession.AnswerMode mode, boolean forceNew) {
+        Map<String, Object> result = new HashMap<>();
+
+        // 检查题库是否存在
+        QuestionBank bank = questionBankService.getById(bankId);
+        if (bank == null) {
+            throw new RuntimeException("题库不存在");
+        }
+
+        // 如果强制新建，删除旧的未完成会话
+        if (forceNew) {
+            resetSession(userId, bankId, mode);
+        }
+
+        QuizSession session = getOngoingSession(userId, bankId, mode);
+        List<Long> questionIds;
+        if (session != null) {
+            if (sessionStateService.isWriteBehind()) {
+                sessionStateService.flush(session.getSessionId());
+                session = getSessionBySessionId(session.getSessionId());
+            }
+            questionIds = getPaperQuestionIds(session);
+        } else {
+            // 创建新会话，只固定题目ID顺序，不加载题目内容
+            questionIds = resolvePaperQuestionIds(userId, bankId, mode);
+            if (questionIds.isEmpty()) {
+                throw new RuntimeException(mode == QuizSession.AnswerMode.favorite ? "该题库没有收藏的题目"
+                        : mode == QuizSession.AnswerMode.wrong ? "该题库没有错题" : "没有可用的题目");
+            }
+
+            session = new QuizSession();
+            session.setUserId(userId);
+            session.setBankId(bankId);
+            session.setSessionId(IdUtil.fastSimpleUUID());
+            session.setMode(mode);
+            session.setTotalQuestions(questionIds.size());
+            session.setAnsweredQuestions(0);
+            session.setCorrectAnswers(0);
+            session.setCurrentIndex(0);
+            session.setStartTime(LocalDateTime.now());
+            session.setStatus(QuizSession.SessionStatus.ongoing);
+            session.setDeleted(0);
+            save(session);
+            systemMetricsService.increment(SystemMetricsService.Metric.SESSIONS, 1);
+            sessionPaperService.savePaper(session.getSessionId(), questionIds);
+        }
+
+        session.setBankName(bank.getName());
+        int startIndex = Math.min(session.getCurrentIndex(), Math.max(questionIds.size() - 1, 0));
+
+        result.put("session", session);
+        result.put("total", questionIds.size());
+        result.put("startIndex", startIndex);
+        result.put("window", buildQuestionWindow(session, questionIds, startIndex,
+                quizSystemProperties.getSession().getWindowSize()));
+
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getQuestionWindow(String sessionId, Long userId, int from, Integer size) {
+        if (sessionStateService.isWriteBehind()) {
+            sessionStateService.flush(sessionId);
+        }
+
+        QuizSession session = getSessionBySessionId(sessionId);
+        if (session == null) {
+            throw new RuntimeException("会话不存在");
+        }
+        if (!session.getUserId().equals(userId)) {
+            throw new RuntimeException("无权查看此会话");
+        }
+
+        int windowSize = size != null ? size : quizSystemProperties.getSession().getWindowSize();
+        windowSize = Math.max(1, Math.min(windowSize, quizSystemProperties.getSession().getMaxWindowSize()));
+
+        return buildQuestionWindow(session, getPaperQuestionIds(session), from, windowSize);
+    }
+
+    /**
+     * 获取会话试卷的题目ID列表；旧会话没有试卷时按模式补建
+     */
+    private List<Long> getPaperQuestionIds(QuizSession session) {
+        List<Long> questionIds = sessionPaperService.getQuestionIds(session.getSessionId());
+        if (questionIds == null) {
+            questionIds = resolvePaperQuestionIds(session.getUserId(), session.getBankId(), session.getMode());
+            sessionPaperService.savePaper(session.getSessionId(), questionIds);
+        }
+        return questionIds;
+    }
+
+    /**
+     * 按答题模式确定试卷的题目ID顺序（只查询ID）
+     */
+    private List<Long> resolvePaperQuestionIds(Long userId, Long bankId, QuizSession.AnswerMode mode) {
+        if (mode == QuizSession.AnswerMode.favorite) {
+            return favoriteService.getFavoriteQuestionIdsByBank(userId, bankId);
+        } else if (mode == QuizSession.AnswerMode.wrong) {
+            return wrongQuestionService.getWrongQuestionIdsByBank(userId, bankId, 0);
+        }
+        return questionService.getQuestionIdsByBankId(bankId);
+    }
+
+    /**
+     * 构建题目窗口：按试卷索引切片，只加载窗口内的题目与答题记录，并给出下一窗口的预取提示
+     */
+    private Map<String, Object> buildQuestionWindow(QuizSession session, List<Long> questionIds, int from, int size) {
+        Map<String, Object> window = new HashMap<>();
+
+        int total = questionIds.size();
+        int start = Math.max(0, Math.min(from, total));
+        int end = Math.min(total, start + size);
+        List<Long> windowIds = questionIds.subList(start, end);
+
+        Map<Long, Question> questionMap = questionService.getQuestionsByIds(windowIds).stream()
+                .collect(Collectors.toMap(Question::getId, q -> q));
+        Map<Long, UserAnswer> answerMap = userAnswerService.getAnswers(session.getSessionId(), windowIds).stream()
+                .collect(Collectors.toMap(UserAnswer::getQuestionId, a -> a, (a, b) -> b));
+        boolean revealAnswer = session.getMode() != QuizSession.AnswerMode.exam;
+
+        List<SessionQuestionDto> items = new ArrayList<>(windowIds.size());
+        for (int i = 0; i < windowIds.size(); i++) {
+            Question question = questionMap.get(windowIds.get(i));
+            if (question == null) {
+                // 题目已被删除
+                continue;
+            }
+            SessionQuestionDto item = new SessionQuestionDto();
+            item.setIndex(start + i);
+            item.setId(question.getId());
+            item.setBankId(question.getBankId());
+            item.setType(question.getType());
+            item.setContent(question.getContent());
+            item.setOptions(question.getOptions());
+
+            UserAnswer answer = answerMap.get(question.getId());
+            if (answer != null) {
+                item.setUserAnswer(answer.getUserAnswer());
+                item.setIsCorrect(answer.getIsCorrect());
+                if (revealAnswer) {
+                    item.setCorrectAnswer(question.getCorrectAnswer());
+                    item.setAnalysis(question.getAnalysis());
+                }
+            }
+            items.add(item);
+        }
+
+        window.put("from", start);
+        window.put("size", end - start);
+        window.put("total", total);
+        window.put("questions", items);
+        window.put("hasMore", end < total);
+        if (end < total) {
+            // 预取提示：浏览到 prefetchAt 时请求下一窗口
+            Map<String, Object> prefetch = new HashMap<>();
+            prefetch.put("from", end);
+            prefetch.put("size", Math.min(size, total - end));
+            prefetch.put("prefetchAt", start + (end - start) / 2);
+            window.put("prefetch", prefetch);
+        }
+
+        return window;
+    }
+
     @Override
     public QuizSession getSessionBySessionId(String sessionId) {
         LambdaQueryWrapper<QuizSession> queryWrapper = new LambdaQueryWrapper<>();
@@ -181,8 +378,73 @@ public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizS
     }
 
     @Override
-    @Transactional
     public Map<String, Object> submitAnswer(String sessionId, Long userId, Long questionId, int questionIndex, String userAnswer) {
+        if (sessionStateService.isWriteBehind()) {
+            return submitAnswerWriteBehind(sessionId, userId, questionId, questionIndex, userAnswer);
+        }
+        return submitAnswerWriteThrough(sessionId, userId, questionId, questionIndex, userAnswer);
+    }
+
+    /**
+     * 写回模式答题：只更新内存/Redis中的会话状态，由定时任务批量落库，不占用数据库事务
+     */
+    private Map<String, Object> submitAnswerWriteBehind(String sessionId, Long userId, Long questionId, int questionIndex, String userAnswer) {
+        Map<String, Object> result = new HashMap<>();
+
+        QuizSession session = sessionStateService.getSession(sessionId);
+        if (session == null) {
+            // 内存中没有进行中的会话，读取数据库以给出准确的错误信息
+            session = getSessionBySessionId(sessionId);
+        }
+        if (session == null) {
+            throw new RuntimeException("会话不存在");
+        }
+        if (!session.getUserId().equals(userId)) {
+            throw new RuntimeException("无权操作此会话");
+        }
+        if (session.getStatus() != QuizSession.SessionStatus.ongoing) {
+            throw new RuntimeException("会话已结束");
+        }
+
+        Question question = questionService.getQuestionDetail(questionId);
+        if (question == null) {
+            throw new RuntimeException("题目不存在");
+        }
+
+        GradeResult gradeResult = answerGradingService.evaluate(question, userAnswer);
+        boolean isCorrect = gradeResult.isCorrect();
+
+        UserAnswer answer = new UserAnswer();
+        answer.setUserId(userId);
+        answer.setSessionId(sessionId);
+        answer.setQuestionId(questionId);
+        answer.setQuestionIndex(questionIndex);
+        answer.setUserAnswer(userAnswer);
+        answer.setIsCorrect(isCorrect ? 1 : 0);
+        session = sessionStateService.recordAnswer(sessionId, answer);
+
+        boolean hasNext = questionIndex + 1 < session.getTotalQuestions();
+
+        // 全部答完时结束会话（completeSession 会同步落库）
+        if (session.getAnsweredQuestions().equals(session.getTotalQuestions())) {
+            completeSession(sessionId);
+        }
+
+        result.put("isCorrect", isCorrect);
+        result.put("score", gradeResult.getScore());
+        result.put("correctAnswer", question.getCorrectAnswer());
+        result.put("analysis", question.getAnalysis());
+        result.put("currentIndex", session.getCurrentIndex());
+        result.put("hasNext", hasNext);
+
+        return result;
+    }
+
+    /**
+     * 直写模式答题：会话与题目在事务外读取，事务内只执行两条原子写入
+     * （会话计数器 UPDATE + 答题记录 upsert），答错时再 upsert 错题本
+     */
+    private Map<String, Object> submitAnswerWriteThrough(String sessionId, Long userId, Long questionId, int questionIndex, String userAnswer) {
         Map<String, Object> result = new HashMap<>();
 
         // 获取会话
@@ -204,64 +466,42 @@ public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizS
         }
 
         // 判断答案是否正确
-        boolean isCorrect = checkAnswer(question, userAnswer);
-
-        // 保存或更新用户答案
-        UserAnswer answer = userAnswerService.getAnswer(sessionId, questionId);
-        if (answer == null) {
-            answer = new UserAnswer();
-            answer.setUserId(userId);
-            answer.setSessionId(sessionId);
-            answer.setQuestionId(questionId);
-            answer.setQuestionIndex(questionIndex);
-            answer.setUserAnswer(userAnswer);
-            answer.setIsCorrect(isCorrect ? 1 : 0);
-            answer.setCreatedAt(LocalDateTime.now());
-            answer.setUpdatedAt(LocalDateTime.now());
-            userAnswerService.save(answer);
-
-            // 更新会话统计
-            session.setAnsweredQuestions(session.getAnsweredQuestions() + 1);
-            if (isCorrect) {
-                session.setCorrectAnswers(session.getCorrectAnswers() + 1);
+        GradeResult gradeResult = answerGradingService.evaluate(question, userAnswer);
+        boolean isCorrect = gradeResult.isCorrect();
+
+        UserAnswer answer = new UserAnswer();
+        answer.setUserId(userId);
+        answer.setSessionId(sessionId);
+        answer.setQuestionId(questionId);
+        answer.setQuestionIndex(questionIndex);
+        answer.setUserAnswer(userAnswer);
+        answer.setIsCorrect(isCorrect ? 1 : 0);
+        answer.setCreatedAt(LocalDateTime.now());
+        answer.setUpdatedAt(LocalDateTime.now());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // 计数器须在写入答案之前更新：增量依赖该题已有的答题记录，读到的已有记录同时用于答题统计
+            if (baseMapper.applyAnswer(sessionId, questionId, AnswerUtils.answered(answer),
+                    AnswerUtils.correct(answer), questionIndex + 1) == 0) {
+                throw new RuntimeException("会话已结束");
             }
-        } else {
-            // 更新已有答案
-            boolean wasCorrect = answer.getIsCorrect() != null && answer.getIsCorrect() == 1;
-            answer.setUserAnswer(userAnswer);
-            answer.setIsCorrect(isCorrect ? 1 : 0);
-            answer.setUpdatedAt(LocalDateTime.now());
-            userAnswerService.updateById(answer);
-
-            // 更新正确数
-            if (wasCorrect && !isCorrect) {
-                session.setCorrectAnswers(session.getCorrectAnswers() - 1);
-            } else if (!wasCorrect && isCorrect) {
-                session.setCorrectAnswers(session.getCorrectAnswers() + 1);
-            }
-        }
+            UserAnswer previous = baseMapper.selectAppliedPrevious();
+            userAnswerService.upsertAnswers(Collections.singletonList(new AnswerChange(answer, previous)));
 
-        // 更新当前索引
-        session.setCurrentIndex(questionIndex + 1);
-        updateById(session);
-
-        // 如果答错，添加到错题本
-        if (!isCorrect) {
-            wrongQuestionService.addWrongQuestion(userId, session.getBankId(), questionId, userAnswer);
-        }
+            // 如果答错，添加到错题本
+            if (!isCorrect) {
+                wrongQuestionService.addWrongQuestion(userId, session.getBankId(), questionId, userAnswer);
+            }
+        });
 
         // 检查是否还有下一题（根据索引）
         boolean hasNext = questionIndex + 1 < session.getTotalQuestions();
 
-        // 检查是否所有题目都已回答（只有全部答完才结束会话）
-        if (session.getAnsweredQuestions().equals(session.getTotalQuestions())) {
-            completeSession(sessionId);
-        }
-
         result.put("isCorrect", isCorrect);
+        result.put("score", gradeResult.getScore());
         result.put("correctAnswer", question.getCorrectAnswer());
         result.put("analysis", question.getAnalysis());
-        result.put("currentIndex", session.getCurrentIndex());
+        result.put("currentIndex", questionIndex + 1);
         result.put("hasNext", hasNext);
 
         return result;
@@ -271,8 +511,14 @@ public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizS
     @Transactional
     public Map<String, Object> submitExam(String sessionId, Long userId, List<Map<String, Object>> answers) {
         Map<String, Object> result = new HashMap<>();
+        StopWatch stopWatch = new StopWatch("submitExam");
+
+        if (sessionStateService.isWriteBehind()) {
+            sessionStateService.flush(sessionId);
+        }
 
         // 获取会话
+        stopWatch.start("load");
         QuizSession session = getSessionBySessionId(sessionId);
         if (session == null) {
             throw new RuntimeException("会话不存在");
@@ -284,62 +530,102 @@ public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizS
             throw new RuntimeException("会话已结束");
         }
 
-        // 获取所有题目
+        // 获取所有题目，并一次性预取会话已有的答题记录
         List<Question> questions = questionService.getQuestionsByBankId(session.getBankId());
         Map<Long, Question> questionMap = questions.stream()
                 .collect(Collectors.toMap(Question::getId, q -> q));
-
-        List<Map<String, Object>> results = new ArrayList<>();
-        int correctCount = 0;
-
-        for (Map<String, Object> answerData : answers) {
+        Map<Long, UserAnswer> answerMap = userAnswerService.getAnswersBySessionId(sessionId).stream()
+                .collect(Collectors.toMap(UserAnswer::getQuestionId, a -> a, (a, b) -> b));
+        stopWatch.stop();
+
+        // 内存判分，题量较大时并行
+        stopWatch.start("grade");
+        LocalDateTime now = LocalDateTime.now();
+        UserAnswer[] graded = new UserAnswer[answers.size()];
+        IntStream indexes = IntStream.range(0, answers.size());
+        if (answers.size() >= quizSystemProperties.getSession().getGradeParallelThreshold()) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> {
+            Map<String, Object> answerData = answers.get(i);
             Long questionId = Long.valueOf(answerData.get("questionId").toString());
-            int questionIndex = Integer.parseInt(answerData.get("questionIndex").toString());
-            String userAnswerStr = (String) answerData.get("userAnswer");
-
             Question question = questionMap.get(questionId);
-            if (question == null) continue;
-
-            boolean isCorrect = checkAnswer(question, userAnswerStr);
-            if (isCorrect) {
-                correctCount++;
+            if (question == null) {
+                return;
             }
+            String userAnswerStr = (String) answerData.get("userAnswer");
 
-            // 保存答案
-            UserAnswer userAnswer = userAnswerService.getAnswer(sessionId, questionId);
+            UserAnswer userAnswer = new UserAnswer();
+            userAnswer.setUserId(userId);
+            userAnswer.setSessionId(sessionId);
+            userAnswer.setQuestionId(questionId);
+            userAnswer.setQuestionIndex(Integer.parseInt(answerData.get("questionIndex").toString()));
+            userAnswer.setUserAnswer(userAnswerStr);
+            userAnswer.setIsCorrect(answerGradingService.grade(question, userAnswerStr) ? 1 : 0);
+            userAnswer.setCreatedAt(now);
+            userAnswer.setUpdatedAt(now);
+            graded[i] = userAnswer;
+        });
+
+        List<AnswerChange> gradedAnswers = new ArrayList<>(answers.size());
+        List<WrongQuestion> wrongQuestions = new ArrayList<>();
+        List<Map<String, Object>> results = new ArrayList<>(answers.size());
+        for (UserAnswer userAnswer : graded) {
             if (userAnswer == null) {
-                userAnswer = new UserAnswer();
-                userAnswer.setUserId(userId);
-                userAnswer.setSessionId(sessionId);
-                userAnswer.setQuestionId(questionId);
-                userAnswer.setQuestionIndex(questionIndex);
-                userAnswer.setCreatedAt(LocalDateTime.now());
+                continue;
             }
-            userAnswer.setUserAnswer(userAnswerStr);
-            userAnswer.setIsCorrect(isCorrect ? 1 : 0);
-            userAnswer.setUpdatedAt(LocalDateTime.now());
-            userAnswerService.saveOrUpdate(userAnswer);
+            boolean isCorrect = userAnswer.getIsCorrect() == 1;
+            // 预取的已有记录即写入前的记录，无需在写入时回查
+            gradedAnswers.add(new AnswerChange(userAnswer, answerMap.put(userAnswer.getQuestionId(), userAnswer)));
 
             // 如果答错，添加到错题本
             if (!isCorrect) {
-                wrongQuestionService.addWrongQuestion(userId, session.getBankId(), questionId, userAnswerStr);
+                WrongQuestion wrongQuestion = new WrongQuestion();
+                wrongQuestion.setUserId(userId);
+                wrongQuestion.setBankId(session.getBankId());
+                wrongQuestion.setQuestionId(userAnswer.getQuestionId());
+                wrongQuestion.setErrorCount(1);
+                wrongQuestion.setLastErrorTime(now);
+                wrongQuestion.setLastErrorAnswer(userAnswer.getUserAnswer());
+                wrongQuestions.add(wrongQuestion);
             }
 
+            Question question = questionMap.get(userAnswer.getQuestionId());
             Map<String, Object> questionResult = new HashMap<>();
-            questionResult.put("questionId", questionId);
+            questionResult.put("questionId", userAnswer.getQuestionId());
             questionResult.put("isCorrect", isCorrect);
             questionResult.put("correctAnswer", question.getCorrectAnswer());
             questionResult.put("analysis", question.getAnalysis());
             results.add(questionResult);
         }
+        stopWatch.stop();
+
+        // 分块批量写入答题记录与错题本
+        stopWatch.start("persist-answers");
+        userAnswerService.upsertAnswers(gradedAnswers);
+        stopWatch.stop();
 
-        // 更新会话统计
-        session.setAnsweredQuestions(answers.size());
+        stopWatch.start("persist-wrong");
+        wrongQuestionService.addWrongQuestions(wrongQuestions);
+        stopWatch.stop();
+
+        // 更新会话统计（合并本次提交与之前已作答的记录）
+        stopWatch.start("update-session");
+        int answeredCount = answerMap.values().stream().mapToInt(AnswerUtils::answered).sum();
+        int correctCount = answerMap.values().stream().mapToInt(AnswerUtils::correct).sum();
+        session.setAnsweredQuestions(answeredCount);
         session.setCorrectAnswers(correctCount);
         session.setCurrentIndex(session.getTotalQuestions());
         session.setEndTime(LocalDateTime.now());
         session.setStatus(QuizSession.SessionStatus.completed);
         updateById(session);
+        stopWatch.stop();
+
+        if (sessionStateService.isWriteBehind()) {
+            sessionStateService.evict(sessionId);
+        }
+
+        recordExamTimings(stopWatch, gradedAnswers.size());
 
         result.put("session", session);
         result.put("results", results);
@@ -347,12 +633,32 @@ public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizS
         return result;
     }
 
+    /**
+     * 记录交卷各阶段耗时（日志 + quiz.exam.submit 指标，按 stage 区分）
+     */
+    private void recordExamTimings(StopWatch stopWatch, int answerCount) {
+        for (StopWatch.TaskInfo task : stopWatch.getTaskInfo()) {
+            Timer.builder("quiz.exam.submit")
+                    .description("交卷各阶段耗时")
+                    .tag("stage", task.getTaskName())
+                    .register(meterRegistry)
+                    .record(task.getTimeNanos(), TimeUnit.NANOSECONDS);
+        }
+        log.info("交卷完成: answers={}, {}", answerCount, Arrays.stream(stopWatch.getTaskInfo())
+                .map(task -> task.getTaskName() + "=" + task.getTimeMillis() + "ms")
+                .collect(Collectors.joining(", ")));
+    }
+
     @Override
     @Transactional
     public boolean resetSession(Long userId, Long bankId, QuizSession.AnswerMode mode) {
         // 查找未完成的会话
         QuizSession session = getOngoingSession(userId, bankId, mode);
         if (session != null) {
+            if (sessionStateService.isWriteBehind()) {
+                sessionStateService.flush(session.getSessionId());
+                sessionStateService.evict(session.getSessionId());
+            }
             // 软删除：将 deleted 标记为 1
             session.setDeleted(1);
             session.setStatus(QuizSession.SessionStatus.completed);
@@ -366,6 +672,10 @@ public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizS
     public Map<String, Object> getSessionDetail(String sessionId, Long userId) {
         Map<String, Object> result = new HashMap<>();
 
+        if (sessionStateService.isWriteBehind()) {
+            sessionStateService.flush(sessionId);
+        }
+
         QuizSession session = getSessionBySessionId(sessionId);
         if (session == null) {
             throw new RuntimeException("会话不存在");
@@ -450,84 +760,20 @@ public class QuizSessionServiceImpl extends ServiceImpl<QuizSessionMapper, QuizS
     @Override
     @Transactional
     public QuizSession completeSession(String sessionId) {
+        if (sessionStateService.isWriteBehind()) {
+            // 结束前将内存中的答题数据同步落库
+            sessionStateService.flush(sessionId);
+        }
         QuizSession session = getSessionBySessionId(sessionId);
         if (session != null && session.getStatus() == QuizSession.SessionStatus.ongoing) {
             session.setEndTime(LocalDateTime.now());
             session.setStatus(QuizSession.SessionStatus.completed);
             updateById(session);
         }
-        return session;
-    }
-
-    /**
-     * 检查答案是否正确
-     */
-    private boolean checkAnswer(Question question, String userAnswer) {
-        if (userAnswer == null || userAnswer.trim().isEmpty()) {
-            return false;
-        }
-
-        String correctAnswer = question.getCorrectAnswer();
-        if (correctAnswer == null) {
-            return false;
-        }
-
-        // 根据题目类型进行不同的判断
-        switch (question.getType()) {
-            case single:
-                // 单选题：直接比较（忽略大小写）
-                return userAnswer.trim().equalsIgnoreCase(correctAnswer.trim());
-
-            case judge:
-                // 判断题：需要处理中英文格式转换
-                // 前端传递的是 "true"/"false"，数据库可能存储 "正确"/"错误" 或 "true"/"false"
-                String normalizedUserAnswer = normalizeJudgeAnswer(userAnswer.trim());
-                String normalizedCorrectAnswer = normalizeJudgeAnswer(correctAnswer.trim());
-                return normalizedUserAnswer.equals(normalizedCorrectAnswer);
-
-            case multiple:
-                // 多选题：支持两种格式 "ABC" 或 "A,B,C"
-                // 统一去除逗号，转为字符数组排序后比较
-                String userAnswerNormalized = userAnswer.toUpperCase().replace(",", "");
-                String correctAnswerNormalized = correctAnswer.toUpperCase().replace(",", "");
-                char[] userChars = userAnswerNormalized.toCharArray();
-                char[] correctChars = correctAnswerNormalized.toCharArray();
-                Arrays.sort(userChars);
-                Arrays.sort(correctChars);
-                return Arrays.equals(userChars, correctChars);
-
-            case essay:
-                // 简答题：简单比较（可以根据需求改进）
-                return userAnswer.trim().equalsIgnoreCase(correctAnswer.trim());
-
-            default:
-                return false;
+        if (sessionStateService.isWriteBehind()) {
+            sessionStateService.evict(sessionId);
         }
-    }
-
-    /**
-     * 标准化判断题答案，将各种格式统一为 "true" 或 "false"
-     * 支持：true/false, 正确/错误, 对/错, 是/否, 1/0, T/F, Y/N
-     */
-    private String normalizeJudgeAnswer(String answer) {
-        if (answer == null) {
-            return "";
-        }
-        String normalized = answer.trim().toLowerCase();
-        // 判断为"正确"的情况
-        if (normalized.equals("true") || normalized.equals("正确") ||
-            normalized.equals("对") || normalized.equals("是") ||
-            normalized.equals("1") || normalized.equals("t") || normalized.equals("y")) {
-            return "true";
-        }
-        // 判断为"错误"的情况
-        if (normalized.equals("false") || normalized.equals("错误") ||
-            normalized.equals("错") || normalized.equals("否") ||
-            normalized.equals("0") || normalized.equals("f") || normalized.equals("n")) {
-            return "false";
-        }
-        // 无法识别时返回原值
-        return normalized;
+        return session;
     }
 
     @Override
@@ -0,0 +1,665 @@
+package com.quiz.service.impl;
+
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.entity.User;
+import com.quiz.event.AnswersRecordedEvent;
+import com.quiz.mapper.UserAnswerMapper;
+import com.quiz.mapper.UserMapper;
+import com.quiz.service.ClusterLockService;
+import com.quiz.service.RankingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 排行榜服务实现类
+ * <p>
+ * 每个 排行类型 × 时间范围 对应一个 Redis 有序集合（quiz:ranking:{type}:{period}:{bucket}），
+ * 成员为用户ID。日/周/月按自然日、自然周（周一开始）、自然月分桶，桶键到期自动清理；
+ * 答题事件携带每条记录相对写入前的增量及其日期（重复提交同一题不重复计数），按日期计入对应的桶，
+ * 通过一次 Lua 调用同时累加答题数、正确数并重算正确率，取前 N 名与查询本人名次均为 O(log n)。
+ * 关闭 Redis 时使用本节点内存排行榜。
+ * 每晚由一个节点按答题记录重建当前各桶，用于补上 Redis 写入失败时丢失的增量；
+ * 重建期间的增量记入重建日志，替换时原子重放，不会被重建结果覆盖。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RankingServiceImpl implements RankingService {
+
+    private static final String KEY_PREFIX = "quiz:ranking:";
+
+    private static final String TYPE_CORRECT = "correct";
+    private static final String TYPE_ANSWERS = "answers";
+    private static final String TYPE_ACCURACY = "accuracy";
+
+    private static final String[] PERIODS = {"day", "week", "month", "all"};
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * 重建时每次 ZADD 写入的成员数
+     */
+    private static final int REBUILD_CHUNK = 1000;
+
+    /**
+     * 集群锁名称与租期（覆盖一次重建的最长耗时），也是重建日志的过期时间
+     */
+    private static final String LOCK_NAME = "ranking-rebuild";
+    private static final Duration LOCK_LEASE = Duration.ofHours(1);
+
+    /**
+     * 重建日志的首个元素，日志键存在即表示对应的桶正在重建
+     */
+    private static final String JOURNAL_START = "start";
+
+    /**
+     * 累加一个用户在一组排行榜（correct、answers、accuracy）上的成绩并重算正确率，
+     * 增量可为负，累计答题数不低于 0，正确数不超过答题数
+     */
+    private static final String APPLY_FUNCTION =
+            "local function apply(correctKey, answersKey, accuracyKey, member, correctDelta, answeredDelta) "
+                    + "  local correct = tonumber(redis.call('ZINCRBY', correctKey, correctDelta, member)) "
+                    + "  local answered = tonumber(redis.call('ZINCRBY', answersKey, answeredDelta, member)) "
+                    + "  if answered < 0 then "
+                    + "    answered = 0 "
+                    + "    redis.call('ZADD', answersKey, 0, member) "
+                    + "  end "
+                    + "  if correct < 0 or correct > answered then "
+                    + "    correct = math.max(0, math.min(correct, answered)) "
+                    + "    redis.call('ZADD', correctKey, correct, member) "
+                    + "  end "
+                    + "  if answered > 0 then "
+                    + "    redis.call('ZADD', accuracyKey, math.floor(correct * 10000 / answered + 0.5) / 100, member) "
+                    + "  else "
+                    + "    redis.call('ZREM', accuracyKey, member) "
+                    + "  end "
+                    + "end "
+                    + "local function expire(ttl, a, b, c) "
+                    + "  if tonumber(ttl) > 0 then "
+                    + "    redis.call('EXPIRE', a, ttl) "
+                    + "    redis.call('EXPIRE', b, ttl) "
+                    + "    redis.call('EXPIRE', c, ttl) "
+                    + "  end "
+                    + "end ";
+
+    /**
+     * 按时间范围累加各排行榜；桶正在重建时同时把增量追加到重建日志，由重建完成时重放
+     * KEYS: 每个时间范围依次为 correct、answers、accuracy、重建日志四个键；
+     * ARGV[1]: 用户ID；之后每个时间范围依次为正确数增量、答题数增量、过期秒数（0 表示不过期）
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(APPLY_FUNCTION
+            + "for i = 1, #KEYS, 4 do "
+            + "  local arg = (i - 1) / 4 * 3 + 2 "
+            + "  apply(KEYS[i], KEYS[i + 1], KEYS[i + 2], ARGV[1], ARGV[arg], ARGV[arg + 1]) "
+            + "  expire(ARGV[arg + 2], KEYS[i], KEYS[i + 1], KEYS[i + 2]) "
+            + "  if redis.call('EXISTS', KEYS[i + 3]) == 1 then "
+            + "    redis.call('RPUSH', KEYS[i + 3], ARGV[1] .. ':' .. ARGV[arg] .. ':' .. ARGV[arg + 1]) "
+            + "  end "
+            + "end "
+            + "return 1", Long.class);
+
+    /**
+     * 用重建结果替换一组排行榜，并重放重建期间记录的增量，替换与重放在同一个脚本内原子完成
+     * KEYS[1..3]: correct、answers、accuracy；KEYS[4]: 重建日志；KEYS[5..7]: 对应的临时键（不存在表示结果为空）
+     * ARGV[1]: 过期秒数（0 表示不过期）；返回重放的增量条数
+     */
+    private static final RedisScript<Long> SWAP_SCRIPT = new DefaultRedisScript<>(APPLY_FUNCTION
+            + "for j = 1, 3 do "
+            + "  if redis.call('EXISTS', KEYS[j + 4]) == 1 then "
+            + "    redis.call('RENAME', KEYS[j + 4], KEYS[j]) "
+            + "  else "
+            + "    redis.call('DEL', KEYS[j]) "
+            + "  end "
+            + "end "
+            + "local entries = redis.call('LRANGE', KEYS[4], 1, -1) "
+            + "for _, entry in ipairs(entries) do "
+            + "  local member, correct, answered = string.match(entry, '^([^:]+):([^:]+):([^:]+)$') "
+            + "  apply(KEYS[1], KEYS[2], KEYS[3], member, correct, answered) "
+            + "end "
+            + "redis.call('DEL', KEYS[4]) "
+            + "expire(ARGV[1], KEYS[1], KEYS[2], KEYS[3]) "
+            + "return #entries", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserAnswerMapper userAnswerMapper;
+    private final UserMapper userMapper;
+    private final QuizSystemProperties quizSystemProperties;
+    private final ClusterLockService clusterLockService;
+
+    /**
+     * 本地排行榜（键同 Redis），过期的桶在写入时清理
+     */
+    private final Map<String, LocalLeaderboard> localBoards = new ConcurrentHashMap<>();
+
+    /**
+     * 本地排行榜正在重建的时间范围及重建期间的增量（用户ID、正确数增量、答题数增量）；
+     * 本地排行榜的累加、替换与重放都在它的锁下进行
+     */
+    private final Map<String, List<long[]>> localJournals = new HashMap<>();
+
+    /**
+     * 本地排行榜各节点独立，重建只需在本节点内互斥
+     */
+    private final ReentrantLock localRebuildLock = new ReentrantLock();
+
+    /**
+     * 答题后累加各时间范围的排行榜：每条增量按答题记录的日期计入，
+     * 只累加该日期所在桶仍是当前桶的时间范围（如覆盖昨天的记录不影响今日榜，但计入本周、本月与总榜）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnswersRecorded(AnswersRecordedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        Map<String, int[]> deltas = new LinkedHashMap<>();
+        for (String period : PERIODS) {
+            String current = bucket(period, today);
+            int[] delta = new int[2];
+            for (AnswersRecordedEvent.AnswerDelta answer : event.getDeltas()) {
+                if (bucket(period, answer.getDate()).equals(current)) {
+                    delta[0] += answer.getCorrect();
+                    delta[1] += answer.getAnswered();
+                }
+            }
+            if (delta[0] != 0 || delta[1] != 0) {
+                deltas.put(period, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (!useRedis()) {
+            incrementLocal(event.getUserId(), deltas, today);
+            return;
+        }
+
+        List<String> keys = new ArrayList<>(deltas.size() * 4);
+        List<String> args = new ArrayList<>(deltas.size() * 3 + 1);
+        args.add(String.valueOf(event.getUserId()));
+        deltas.forEach((period, delta) -> {
+            keys.add(key(TYPE_CORRECT, period, today));
+            keys.add(key(TYPE_ANSWERS, period, today));
+            keys.add(key(TYPE_ACCURACY, period, today));
+            keys.add(journalKey(period, today));
+            args.add(String.valueOf(delta[0]));
+            args.add(String.valueOf(delta[1]));
+            args.add(String.valueOf(ttl(period).getSeconds()));
+        });
+        try {
+            stringRedisTemplate.execute(INCREMENT_SCRIPT, keys, args.toArray());
+        } catch (DataAccessException e) {
+            log.warn("更新排行榜失败，用户ID: {}，将在下次重建时补上: {}", event.getUserId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getTopRanking(String type, String period) {
+        String metric = normalizeType(type);
+        String range = normalizePeriod(period);
+        int limit = Math.max(1, quizSystemProperties.getRanking().getTopSize());
+        LocalDate today = LocalDate.now();
+
+        List<Long> userIds;
+        Map<String, Map<Long, Double>> scores = new HashMap<>();
+        if (useRedis()) {
+            Set<ZSetOperations.TypedTuple<String>> top = stringRedisTemplate.opsForZSet()
+                    .reverseRangeWithScores(key(metric, range, today), 0, limit - 1);
+            if (top == null || top.isEmpty()) {
+                return new ArrayList<>();
+            }
+            userIds = new ArrayList<>(top.size());
+            for (ZSetOperations.TypedTuple<String> tuple : top) {
+                userIds.add(Long.valueOf(tuple.getValue()));
+            }
+            Object[] members = top.stream().map(ZSetOperations.TypedTuple::getValue).toArray();
+            for (String other : new String[]{TYPE_CORRECT, TYPE_ANSWERS}) {
+                List<Double> values = stringRedisTemplate.opsForZSet().score(key(other, range, today), members);
+                scores.put(other, zip(userIds, values));
+            }
+        } else {
+            LocalLeaderboard board = localBoards.get(key(metric, range, today));
+            if (board == null) {
+                return new ArrayList<>();
+            }
+            userIds = board.top(limit);
+            for (String other : new String[]{TYPE_CORRECT, TYPE_ANSWERS}) {
+                LocalLeaderboard otherBoard = localBoards.get(key(other, range, today));
+                List<Double> values = new ArrayList<>(userIds.size());
+                for (Long userId : userIds) {
+                    values.add(otherBoard != null ? otherBoard.score(userId) : null);
+                }
+                scores.put(other, zip(userIds, values));
+            }
+        }
+        if (userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, User> users = userMapper.selectBatchIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<Map<String, Object>> ranking = new ArrayList<>(userIds.size());
+        int rank = 1;
+        for (Long userId : userIds) {
+            User user = users.get(userId);
+            if (user == null) {
+                continue;
+            }
+            Map<String, Object> item = toItem(userId,
+                    scores.get(TYPE_CORRECT).get(userId), scores.get(TYPE_ANSWERS).get(userId));
+            item.put("username", user.getUsername());
+            item.put("nickname", user.getNickname());
+            item.put("avatar", user.getAvatar());
+            item.put("rank", rank++);
+            ranking.add(item);
+        }
+        return ranking;
+    }
+
+    @Override
+    public Map<String, Object> getUserRanking(Long userId, String type, String period) {
+        if (userId == null) {
+            return null;
+        }
+        String metric = normalizeType(type);
+        String range = normalizePeriod(period);
+        LocalDate today = LocalDate.now();
+        String member = String.valueOf(userId);
+
+        Long rank;
+        Double correct;
+        Double answered;
+        if (useRedis()) {
+            rank = stringRedisTemplate.opsForZSet().reverseRank(key(metric, range, today), member);
+            if (rank == null) {
+                return null;
+            }
+            correct = stringRedisTemplate.opsForZSet().score(key(TYPE_CORRECT, range, today), member);
+            answered = stringRedisTemplate.opsForZSet().score(key(TYPE_ANSWERS, range, today), member);
+        } else {
+            LocalLeaderboard board = localBoards.get(key(metric, range, today));
+            rank = board != null ? board.rank(userId) : null;
+            if (rank == null) {
+                return null;
+            }
+            LocalLeaderboard correctBoard = localBoards.get(key(TYPE_CORRECT, range, today));
+            LocalLeaderboard answersBoard = localBoards.get(key(TYPE_ANSWERS, range, today));
+            correct = correctBoard != null ? correctBoard.score(userId) : null;
+            answered = answersBoard != null ? answersBoard.score(userId) : null;
+        }
+
+        Map<String, Object> item = toItem(userId, correct, answered);
+        item.put("rank", rank + 1);
+        return item;
+    }
+
+    /**
+     * 每晚由获取到集群锁的一个节点重建（本地排行榜时各节点各自重建）
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void scheduledRebuild() {
+        if (!runExclusive(this::doRebuild)) {
+            log.info("排行榜重建已由其他节点执行，本节点跳过");
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        if (!runExclusive(this::doRebuild)) {
+            throw new RuntimeException("排行榜正在重建，请稍后再试");
+        }
+    }
+
+    /**
+     * 启动时排行榜为空（首次部署、Redis 数据丢失或使用本地排行榜）则按答题记录重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        try {
+            String key = key(TYPE_ANSWERS, "all", LocalDate.now());
+            boolean empty = useRedis() ? !Boolean.TRUE.equals(stringRedisTemplate.hasKey(key)) : !localBoards.containsKey(key);
+            if (empty && !runExclusive(this::doRebuild)) {
+                log.info("排行榜正在由其他节点重建，本节点跳过");
+            }
+        } catch (Exception e) {
+            log.warn("启动时重建排行榜失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 逐个时间范围重建：读取快照前开始记录该桶的增量，替换时重放，快照之后的增量不会被覆盖丢失。
+     * 开始记录与读取快照之间已提交、但尚未累加的答题（提交到事件监听器执行之间的毫秒级窗口）会被计入两次，
+     * 由下一次重建修正
+     */
+    private void doRebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        for (String period : PERIODS) {
+            if (useRedis()) {
+                rebuildRedis(period, today, now);
+            } else {
+                rebuildLocal(period, today, now);
+            }
+        }
+        if (!useRedis()) {
+            pruneLocal(today);
+        }
+    }
+
+    private void rebuildRedis(String period, LocalDate today, LocalDateTime now) {
+        String journalKey = journalKey(period, today);
+        List<String> keys = new ArrayList<>(7);
+        for (String type : new String[]{TYPE_CORRECT, TYPE_ANSWERS, TYPE_ACCURACY}) {
+            keys.add(key(type, period, today));
+        }
+        keys.add(journalKey);
+        for (String type : new String[]{TYPE_CORRECT, TYPE_ANSWERS, TYPE_ACCURACY}) {
+            keys.add(key(type, period, today) + ":rebuild");
+        }
+        try {
+            stringRedisTemplate.delete(keys.subList(3, 7));
+            stringRedisTemplate.opsForList().rightPush(journalKey, JOURNAL_START);
+            stringRedisTemplate.expire(journalKey, LOCK_LEASE);
+
+            Snapshot snapshot = snapshot(period, today, now);
+            fillRedis(keys.get(4), snapshot.correct);
+            fillRedis(keys.get(5), snapshot.answered);
+            fillRedis(keys.get(6), snapshot.accuracy);
+            Long replayed = stringRedisTemplate.execute(SWAP_SCRIPT, keys, String.valueOf(ttl(period).getSeconds()));
+            log.info("排行榜重建完成，时间范围: {}，用户数: {}，重放增量: {}", period, snapshot.size, replayed);
+        } catch (DataAccessException e) {
+            log.warn("重建排行榜失败，时间范围: {}: {}", period, e.getMessage());
+            try {
+                stringRedisTemplate.delete(keys.subList(3, 7));
+            } catch (DataAccessException ignored) {
+                // 日志与临时键带有过期时间或在下次重建时清理
+            }
+        }
+    }
+
+    private void rebuildLocal(String period, LocalDate today, LocalDateTime now) {
+        synchronized (localJournals) {
+            localJournals.put(period, new ArrayList<>());
+        }
+        Snapshot snapshot;
+        try {
+            snapshot = snapshot(period, today, now);
+        } catch (RuntimeException e) {
+            synchronized (localJournals) {
+                localJournals.remove(period);
+            }
+            throw e;
+        }
+        synchronized (localJournals) {
+            localBoard(key(TYPE_CORRECT, period, today)).replaceAll(snapshot.correct);
+            localBoard(key(TYPE_ANSWERS, period, today)).replaceAll(snapshot.answered);
+            localBoard(key(TYPE_ACCURACY, period, today)).replaceAll(snapshot.accuracy);
+            List<long[]> journal = localJournals.remove(period);
+            for (long[] entry : journal) {
+                applyLocal(period, entry[0], entry[1], entry[2], today);
+            }
+            log.info("排行榜重建完成，时间范围: {}，用户数: {}，重放增量: {}", period, snapshot.size, journal.size());
+        }
+    }
+
+    /**
+     * 按答题记录统计时间范围内各用户的成绩
+     */
+    private Snapshot snapshot(String period, LocalDate today, LocalDateTime now) {
+        List<Map<String, Object>> rows = userAnswerMapper.countByUser(periodStart(period, today), now);
+        Snapshot snapshot = new Snapshot(rows.size());
+        for (Map<String, Object> row : rows) {
+            Long userId = ((Number) row.get("userId")).longValue();
+            long answeredCount = ((Number) row.get("answered")).longValue();
+            long correctCount = ((Number) row.get("correct")).longValue();
+            snapshot.correct.put(userId, (double) correctCount);
+            snapshot.answered.put(userId, (double) answeredCount);
+            snapshot.accuracy.put(userId, accuracyOf(correctCount, answeredCount));
+        }
+        return snapshot;
+    }
+
+    /**
+     * 分块写入重建用的临时键，由替换脚本 RENAME 覆盖正式键，读取方不会看到写了一半的排行榜
+     */
+    private void fillRedis(String tempKey, Map<Long, Double> scores) {
+        Set<ZSetOperations.TypedTuple<String>> chunk = new HashSet<>();
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            chunk.add(ZSetOperations.TypedTuple.of(String.valueOf(entry.getKey()), entry.getValue()));
+            if (chunk.size() >= REBUILD_CHUNK) {
+                stringRedisTemplate.opsForZSet().add(tempKey, chunk);
+                chunk = new HashSet<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            stringRedisTemplate.opsForZSet().add(tempKey, chunk);
+        }
+    }
+
+    /**
+     * Redis 排行榜由集群锁保证只有一个节点重建；本地排行榜只需本节点内互斥
+     */
+    private boolean runExclusive(Runnable task) {
+        if (useRedis()) {
+            return clusterLockService.runExclusive(LOCK_NAME, LOCK_LEASE, task);
+        }
+        if (!localRebuildLock.tryLock()) {
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            localRebuildLock.unlock();
+        }
+    }
+
+    private void incrementLocal(Long userId, Map<String, int[]> deltas, LocalDate today) {
+        synchronized (localJournals) {
+            deltas.forEach((period, delta) -> {
+                applyLocal(period, userId, delta[0], delta[1], today);
+                List<long[]> journal = localJournals.get(period);
+                if (journal != null) {
+                    journal.add(new long[]{userId, delta[0], delta[1]});
+                }
+            });
+        }
+        pruneLocal(today);
+    }
+
+    private void applyLocal(String period, long userId, long correct, long answered, LocalDate today) {
+        LocalLeaderboard correctBoard = localBoard(key(TYPE_CORRECT, period, today));
+        LocalLeaderboard answersBoard = localBoard(key(TYPE_ANSWERS, period, today));
+        LocalLeaderboard accuracyBoard = localBoard(key(TYPE_ACCURACY, period, today));
+        long answeredTotal = Math.max(0, (long) (answersBoard.score(userId, 0) + answered));
+        long correctTotal = Math.max(0, Math.min(answeredTotal, (long) (correctBoard.score(userId, 0) + correct)));
+        correctBoard.replace(userId, correctTotal);
+        answersBoard.replace(userId, answeredTotal);
+        if (answeredTotal > 0) {
+            accuracyBoard.replace(userId, accuracyOf(correctTotal, answeredTotal));
+        } else {
+            accuracyBoard.remove(userId);
+        }
+    }
+
+    private LocalLeaderboard localBoard(String key) {
+        return localBoards.computeIfAbsent(key, k -> new LocalLeaderboard());
+    }
+
+    /**
+     * 清理不属于当前日/周/月的本地排行榜
+     */
+    private void pruneLocal(LocalDate today) {
+        if (localBoards.size() <= PERIODS.length * 3) {
+            return;
+        }
+        Set<String> current = new HashSet<>();
+        for (String period : PERIODS) {
+            current.add(key(TYPE_CORRECT, period, today));
+            current.add(key(TYPE_ANSWERS, period, today));
+            current.add(key(TYPE_ACCURACY, period, today));
+        }
+        localBoards.keySet().retainAll(current);
+    }
+
+    private boolean useRedis() {
+        return quizSystemProperties.getRanking().isRedisEnabled();
+    }
+
+    private static Map<String, Object> toItem(Long userId, Double correct, Double answered) {
+        long correctCount = correct != null ? correct.longValue() : 0L;
+        long answeredCount = answered != null ? answered.longValue() : 0L;
+        Map<String, Object> item = new HashMap<>();
+        item.put("id", userId);
+        item.put("correctAnswers", correctCount);
+        item.put("totalAnswers", answeredCount);
+        item.put("accuracy", accuracyOf(correctCount, answeredCount));
+        return item;
+    }
+
+    private static Map<Long, Double> zip(List<Long> userIds, List<Double> values) {
+        if (values == null) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Double> result = new HashMap<>(userIds.size() * 2);
+        for (int i = 0; i < userIds.size() && i < values.size(); i++) {
+            if (values.get(i) != null) {
+                result.put(userIds.get(i), values.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 正确率（百分比，保留两位小数），与 Lua 脚本中的计算保持一致
+     */
+    private static double accuracyOf(long correct, long answered) {
+        return answered > 0 ? Math.floor(correct * 10000.0 / answered + 0.5) / 100 : 0;
+    }
+
+    private static String normalizeType(String type) {
+        if (TYPE_ANSWERS.equals(type) || TYPE_ACCURACY.equals(type)) {
+            return type;
+        }
+        return TYPE_CORRECT;
+    }
+
+    private static String normalizePeriod(String period) {
+        for (String candidate : PERIODS) {
+            if (candidate.equals(period)) {
+                return candidate;
+            }
+        }
+        return "all";
+    }
+
+    private static String key(String type, String period, LocalDate today) {
+        return KEY_PREFIX + type + ":" + period + ":" + bucket(period, today);
+    }
+
+    /**
+     * 桶的重建日志键，只在该桶重建期间存在
+     */
+    private static String journalKey(String period, LocalDate today) {
+        return KEY_PREFIX + "journal:" + period + ":" + bucket(period, today);
+    }
+
+    /**
+     * 时间范围对应的桶：日为 yyyyMMdd，周为本周一的 yyyyMMdd，月为 yyyyMM
+     */
+    private static String bucket(String period, LocalDate today) {
+        switch (period) {
+            case "day":
+                return today.format(DAY_FORMAT);
+            case "week":
+                return today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).format(DAY_FORMAT);
+            case "month":
+                return today.format(MONTH_FORMAT);
+            default:
+                return "all";
+        }
+    }
+
+    /**
+     * 桶的开始时间，总排行返回 null（不限开始时间）
+     */
+    private static LocalDateTime periodStart(String period, LocalDate today) {
+        switch (period) {
+            case "day":
+                return today.atStartOfDay();
+            case "week":
+                return today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            case "month":
+                return today.withDayOfMonth(1).atStartOfDay();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 桶键的过期时间（覆盖整个周期并留出余量），总排行不过期
+     */
+    private static Duration ttl(String period) {
+        switch (period) {
+            case "day":
+                return Duration.ofDays(2);
+            case "week":
+                return Duration.ofDays(8);
+            case "month":
+                return Duration.ofDays(32);
+            default:
+                return Duration.ZERO;
+        }
+    }
+
+    /**
+     * 重建用的成绩快照
+     */
+    private static final class Snapshot {
+
+        private final int size;
+        private final Map<Long, Double> correct;
+        private final Map<Long, Double> answered;
+        private final Map<Long, Double> accuracy;
+
+        private Snapshot(int size) {
+            this.size = size;
+            this.correct = new HashMap<>(size * 2);
+            this.answered = new HashMap<>(size * 2);
+            this.accuracy = new HashMap<>(size * 2);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.quiz.service.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.quiz.entity.SessionPaper;
+import com.quiz.mapper.SessionPaperMapper;
+import com.quiz.service.SessionPaperService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 会话试卷服务实现类
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Service
+@RequiredArgsConstructor
+public class SessionPaperServiceImpl extends ServiceImpl<SessionPaperMapper, SessionPaper> implements SessionPaperService {
+
+    @Override
+    public List<Long> getQuestionIds(String sessionId) {
+        SessionPaper paper = getById(sessionId);
+        return paper != null ? paper.getQuestionIds() : null;
+    }
+
+    @Override
+    public void savePaper(String sessionId, List<Long> questionIds) {
+        SessionPaper paper = new SessionPaper();
+        paper.setSessionId(sessionId);
+        paper.setQuestionIds(questionIds);
+        paper.setQuestionCount(questionIds.size());
+        paper.setCreatedAt(LocalDateTime.now());
+        saveOrUpdate(paper);
+    }
+}
@@ -0,0 +1,655 @@
+package com.quiz.service.impl;
+
+import cn.hutool.core.util.IdUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.dto.AnswerChange;
+import com.quiz.entity.QuizSession;
+import com.quiz.entity.UserAnswer;
+import com.quiz.entity.WrongQuestion;
+import com.quiz.mapper.QuizSessionMapper;
+import com.quiz.mapper.UserAnswerMapper;
+import com.quiz.service.SessionStateService;
+import com.quiz.service.UserAnswerService;
+import com.quiz.service.WrongQuestionService;
+import com.quiz.utils.AnswerUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 答题会话状态服务实现类
+ * <p>
+ * 每个进行中的会话对应一个 {@link SessionState}，答题时只修改内存并同步写入
+ * Redis Hash（quiz:session:state:{sessionId}），脏数据由定时任务批量写回
+ * quiz_sessions / user_answers / wrong_questions。
+ * 写回模式依赖会话粘滞：同一会话的请求应路由到同一节点。加载会话的节点持有归属租约
+ * （quiz:session:owner:{sessionId}），每次刷新时续期；节点宕机、租约过期后才由其他节点从 Redis 接管。
+ * <p>
+ * 一次刷新收集所有脏会话，按批在一个事务内用多行语句写入。错题次数随答案记录为本会话的累计值
+ * （user_answers.wrong_count），错题本按相对已落库累计值的增量累加，二者同一事务提交，
+ * 因此接管或重试时重复写回同一份数据不会重复累加错误次数。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SessionStateServiceImpl implements SessionStateService {
+
+    private static final String STATE_KEY_PREFIX = "quiz:session:state:";
+    private static final String DIRTY_SET_KEY = "quiz:session:dirty";
+    private static final String OWNER_KEY_PREFIX = "quiz:session:owner:";
+    private static final String FIELD_SESSION = "session";
+    private static final String FIELD_ANSWER_PREFIX = "answer:";
+    private static final String FIELD_WRONG_PREFIX = "wrong:";
+
+    /**
+     * 续期本节点持有的会话租约，租约已过期且无人接管时重新获取；返回已被其他节点接管的键的下标（从 1 开始）
+     * KEYS: 租约键；ARGV[1]: 节点标识；ARGV[2]: 租约时长（毫秒）
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "local lost = {} "
+                    + "for i, key in ipairs(KEYS) do "
+                    + "  local owner = redis.call('GET', key) "
+                    + "  if not owner or owner == ARGV[1] then "
+                    + "    redis.call('SET', key, ARGV[1], 'PX', ARGV[2]) "
+                    + "  else "
+                    + "    lost[#lost + 1] = i "
+                    + "  end "
+                    + "end "
+                    + "return lost", List.class);
+
+    private final QuizSessionMapper quizSessionMapper;
+    private final UserAnswerMapper userAnswerMapper;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final QuizSystemProperties quizSystemProperties;
+
+    @Autowired
+    @Lazy
+    private UserAnswerService userAnswerService;
+
+    @Autowired
+    @Lazy
+    private WrongQuestionService wrongQuestionService;
+
+    private final Map<String, SessionState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 本节点标识，作为会话归属租约的值
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    /**
+     * 写回串行执行，保证增量所依据的已落库记录是最新的
+     */
+    private final Object flushLock = new Object();
+
+    @Override
+    public boolean isWriteBehind() {
+        return quizSystemProperties.getSession().getWriteMode() == QuizSystemProperties.WriteMode.WRITE_BEHIND;
+    }
+
+    @Override
+    public QuizSession getSession(String sessionId) {
+        SessionState state = loadState(sessionId, true);
+        if (state == null) {
+            return null;
+        }
+        synchronized (state) {
+            state.lastAccess = System.currentTimeMillis();
+            return copyOf(state.session);
+        }
+    }
+
+    @Override
+    public QuizSession recordAnswer(String sessionId, UserAnswer answer) {
+        SessionState state = loadState(sessionId, true);
+        if (state == null) {
+            throw new RuntimeException("会话不存在");
+        }
+
+        synchronized (state) {
+            QuizSession session = state.session;
+            LocalDateTime now = LocalDateTime.now();
+            boolean isCorrect = answer.getIsCorrect() != null && answer.getIsCorrect() == 1;
+
+            // 计数器按相对已有作答的增量调整，空白答案不计为作答；答错次数在本会话内累计
+            UserAnswer existing = state.answers.get(answer.getQuestionId());
+            answer.setWrongCount(wrongCount(existing) + (isCorrect ? 0 : 1));
+            if (existing == null) {
+                answer.setCreatedAt(now);
+            } else {
+                answer.setId(existing.getId());
+                answer.setCreatedAt(existing.getCreatedAt());
+            }
+            session.setAnsweredQuestions(session.getAnsweredQuestions()
+                    + AnswerUtils.answered(answer) - AnswerUtils.answered(existing));
+            session.setCorrectAnswers(session.getCorrectAnswers()
+                    + AnswerUtils.correct(answer) - AnswerUtils.correct(existing));
+            answer.setUpdatedAt(now);
+            session.setCurrentIndex(answer.getQuestionIndex() + 1);
+            session.setUpdatedAt(now);
+
+            state.answers.put(answer.getQuestionId(), answer);
+            state.dirtyAnswers.put(answer.getQuestionId(), answer);
+            state.sessionDirty = true;
+            state.lastAccess = System.currentTimeMillis();
+
+            Map<String, Object> fields = new HashMap<>();
+            fields.put(FIELD_SESSION, session);
+            fields.put(FIELD_ANSWER_PREFIX + answer.getQuestionId(), answer);
+
+            // 答错时记下最近一次错误，写回错题本时使用；错误次数以答案上的累计值为准
+            if (!isCorrect) {
+                WrongQuestion wrong = new WrongQuestion();
+                wrong.setUserId(session.getUserId());
+                wrong.setBankId(session.getBankId());
+                wrong.setQuestionId(answer.getQuestionId());
+                wrong.setErrorCount(answer.getWrongCount());
+                wrong.setStatus(0);
+                wrong.setLastErrorTime(now);
+                wrong.setLastErrorAnswer(answer.getUserAnswer());
+                state.lastWrong.put(answer.getQuestionId(), wrong);
+                fields.put(FIELD_WRONG_PREFIX + answer.getQuestionId(), wrong);
+            }
+
+            writeToRedis(sessionId, fields);
+            return copyOf(session);
+        }
+    }
+
+    @Override
+    public void flush(String sessionId) {
+        SessionState state = loadState(sessionId, false);
+        if (state == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            FlushItem item = snapshot(sessionId, state);
+            if (item != null) {
+                write(Collections.singletonList(item));
+            }
+        }
+    }
+
+    @Override
+    public void flushAll() {
+        Map<String, SessionState> owned = renewLeases();
+        synchronized (flushLock) {
+            List<FlushItem> items = new ArrayList<>();
+            for (Map.Entry<String, SessionState> entry : owned.entrySet()) {
+                FlushItem item = snapshot(entry.getKey(), entry.getValue());
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+
+            // 每批会话一个事务；整批失败时逐个会话重试，避免单个会话的错误阻塞其他会话
+            int batchSize = quizSystemProperties.getSession().getFlushBatchSize();
+            for (int from = 0; from < items.size(); from += batchSize) {
+                List<FlushItem> batch = items.subList(from, Math.min(from + batchSize, items.size()));
+                try {
+                    write(batch);
+                } catch (RuntimeException e) {
+                    if (batch.size() == 1) {
+                        log.error("会话状态写回失败: sessionId={}", batch.get(0).sessionId, e);
+                        continue;
+                    }
+                    log.warn("批量写回 {} 个会话失败，逐个重试: {}", batch.size(), e.getMessage());
+                    for (FlushItem failed : batch) {
+                        FlushItem retry = snapshot(failed.sessionId, failed.state);
+                        if (retry == null) {
+                            continue;
+                        }
+                        try {
+                            write(Collections.singletonList(retry));
+                        } catch (RuntimeException ex) {
+                            log.error("会话状态写回失败: sessionId={}", retry.sessionId, ex);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void evict(String sessionId) {
+        states.remove(sessionId);
+        try {
+            redisTemplate.delete(STATE_KEY_PREFIX + sessionId);
+            redisTemplate.opsForSet().remove(DIRTY_SET_KEY, sessionId);
+            stringRedisTemplate.delete(OWNER_KEY_PREFIX + sessionId);
+        } catch (DataAccessException e) {
+            log.warn("清理Redis会话状态失败: sessionId={}, error={}", sessionId, e.getMessage());
+        }
+    }
+
+    /**
+     * 定时写回脏会话，并清理长时间未访问的内存状态
+     */
+    @Scheduled(fixedDelayString = "${quiz.system.session.flush-interval:2000}")
+    public void scheduledFlush() {
+        if (!isWriteBehind()) {
+            return;
+        }
+        flushAll();
+        recoverOrphans();
+
+        long idleLimit = System.currentTimeMillis()
+                - quizSystemProperties.getCache().getUserSessionExpireTime() * 1000;
+        states.entrySet().removeIf(entry -> {
+            SessionState state = entry.getValue();
+            synchronized (state) {
+                return !state.isDirty() && state.lastAccess < idleLimit;
+            }
+        });
+    }
+
+    /**
+     * 应用关闭前将内存中的答题数据全部落库
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!states.isEmpty()) {
+            log.info("应用关闭，写回 {} 个会话状态", states.size());
+            flushAll();
+        }
+    }
+
+    /**
+     * 接管其他节点遗留在 Redis 中的脏会话：仅当归属租约已过期（持有节点宕机或已停止续期）时才接管
+     */
+    private void recoverOrphans() {
+        List<Object> candidates;
+        try {
+            candidates = redisTemplate.opsForSet().randomMembers(DIRTY_SET_KEY,
+                    quizSystemProperties.getSession().getFlushBatchSize());
+        } catch (DataAccessException e) {
+            log.warn("读取Redis脏会话集合失败: {}", e.getMessage());
+            return;
+        }
+        if (candidates == null || candidates.isEmpty()) {
+            return;
+        }
+
+        for (Object candidate : new HashSet<>(candidates)) {
+            String sessionId = candidate.toString();
+            if (states.containsKey(sessionId)) {
+                continue;
+            }
+            try {
+                Boolean claimed = stringRedisTemplate.opsForValue().setIfAbsent(OWNER_KEY_PREFIX + sessionId,
+                        nodeId, ownerLease());
+                if (!Boolean.TRUE.equals(claimed)) {
+                    continue;
+                }
+                log.info("接管遗留会话状态并写回: sessionId={}", sessionId);
+                flush(sessionId);
+                if (!states.containsKey(sessionId)) {
+                    // Redis 中的会话状态已不存在，清理脏标记与租约
+                    redisTemplate.opsForSet().remove(DIRTY_SET_KEY, sessionId);
+                    stringRedisTemplate.delete(OWNER_KEY_PREFIX + sessionId);
+                }
+            } catch (Exception e) {
+                log.warn("接管遗留会话状态失败: sessionId={}, error={}", sessionId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 续期本节点内存中所有会话的租约，返回仍由本节点持有的会话；已被其他节点接管的会话直接丢弃本地状态
+     * （其答题数据在 Redis 中是完整的，由接管节点写回）
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, SessionState> renewLeases() {
+        Map<String, SessionState> owned = new HashMap<>(states);
+        List<String> sessionIds = new ArrayList<>(owned.keySet());
+        String leaseMillis = String.valueOf(ownerLease().toMillis());
+        int batchSize = quizSystemProperties.getSession().getFlushBatchSize();
+        try {
+            for (int from = 0; from < sessionIds.size(); from += batchSize) {
+                List<String> batch = sessionIds.subList(from, Math.min(from + batchSize, sessionIds.size()));
+                List<String> keys = new ArrayList<>(batch.size());
+                batch.forEach(sessionId -> keys.add(OWNER_KEY_PREFIX + sessionId));
+                List<Object> lost = stringRedisTemplate.execute(RENEW_SCRIPT, keys, nodeId, leaseMillis);
+                if (lost == null) {
+                    continue;
+                }
+                for (Object index : lost) {
+                    String sessionId = batch.get(((Number) index).intValue() - 1);
+                    states.remove(sessionId, owned.remove(sessionId));
+                    log.info("会话已由其他节点接管，释放本地状态: sessionId={}", sessionId);
+                }
+            }
+        } catch (DataAccessException e) {
+            // Redis 不可用时其他节点也无法接管，照常写回
+            log.warn("续期会话租约失败: {}", e.getMessage());
+        }
+        return owned;
+    }
+
+    /**
+     * 取出会话的脏数据并清除脏标记，会话无脏数据时返回 null；调用方须持有 flushLock
+     */
+    private FlushItem snapshot(String sessionId, SessionState state) {
+        synchronized (state) {
+            if (!state.isDirty()) {
+                return null;
+            }
+            List<AnswerChange> answers = new ArrayList<>(state.dirtyAnswers.size());
+            List<WrongQuestion> wrongs = new ArrayList<>();
+            for (UserAnswer answer : state.dirtyAnswers.values()) {
+                UserAnswer previous = state.persisted.get(answer.getQuestionId());
+                answers.add(new AnswerChange(answer, previous));
+                int errors = wrongCount(answer) - wrongCount(previous);
+                if (errors > 0) {
+                    wrongs.add(toWrongQuestion(state, answer, errors));
+                }
+            }
+            FlushItem item = new FlushItem(sessionId, state, copyOf(state.session), answers, wrongs);
+            state.dirtyAnswers.clear();
+            state.sessionDirty = false;
+            return item;
+        }
+    }
+
+    /**
+     * 在一个独立事务内写回一批会话；失败时恢复脏标记（不覆盖期间产生的新数据）并抛出异常，等待下次重试
+     */
+    private void write(List<FlushItem> items) {
+        try {
+            // 写回使用独立事务，不受调用方事务回滚影响
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transactionTemplate.executeWithoutResult(status -> writeToDatabase(items));
+        } catch (RuntimeException e) {
+            for (FlushItem item : items) {
+                synchronized (item.state) {
+                    for (AnswerChange change : item.answers) {
+                        item.state.dirtyAnswers.putIfAbsent(change.getCurrent().getQuestionId(), change.getCurrent());
+                    }
+                    item.state.sessionDirty = true;
+                }
+            }
+            throw e;
+        }
+
+        List<FlushItem> clean = new ArrayList<>();
+        for (FlushItem item : items) {
+            synchronized (item.state) {
+                for (AnswerChange change : item.answers) {
+                    item.state.persisted.put(change.getCurrent().getQuestionId(), change.getCurrent());
+                }
+                if (!item.state.isDirty()) {
+                    clean.add(item);
+                }
+            }
+        }
+        if (clean.isEmpty()) {
+            return;
+        }
+
+        // 无新脏数据的会话移出脏集合；移除期间又有新答题的会话重新登记。
+        // 移除失败时会话留在脏集合中，接管节点按已落库记录计算增量，重复写回不会重复计数
+        try {
+            Object[] cleanIds = clean.stream().map(item -> item.sessionId).toArray();
+            redisTemplate.opsForSet().remove(DIRTY_SET_KEY, cleanIds);
+            for (FlushItem item : clean) {
+                synchronized (item.state) {
+                    if (item.state.isDirty()) {
+                        redisTemplate.opsForSet().add(DIRTY_SET_KEY, item.sessionId);
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("更新Redis脏会话集合失败: error={}", e.getMessage());
+        }
+    }
+
+    private void writeToDatabase(List<FlushItem> items) {
+        List<AnswerChange> answers = new ArrayList<>();
+        List<QuizSession> sessions = new ArrayList<>(items.size());
+        List<WrongQuestion> wrongs = new ArrayList<>();
+        for (FlushItem item : items) {
+            answers.addAll(item.answers);
+            sessions.add(item.session);
+            wrongs.addAll(item.wrongs);
+        }
+
+        userAnswerService.upsertAnswers(answers);
+        int batchSize = quizSystemProperties.getSession().getFlushBatchSize();
+        for (int from = 0; from < sessions.size(); from += batchSize) {
+            quizSessionMapper.updateProgressBatch(sessions.subList(from, Math.min(from + batchSize, sessions.size())));
+        }
+        if (!wrongs.isEmpty()) {
+            wrongQuestionService.addWrongQuestions(wrongs);
+        }
+    }
+
+    /**
+     * 本次写回计入错题本的记录：错误次数为尚未落库的增量，错误答案取最近一次答错时的记录
+     */
+    private static WrongQuestion toWrongQuestion(SessionState state, UserAnswer answer, int errors) {
+        WrongQuestion wrong = new WrongQuestion();
+        wrong.setUserId(state.session.getUserId());
+        wrong.setBankId(state.session.getBankId());
+        wrong.setQuestionId(answer.getQuestionId());
+        wrong.setErrorCount(errors);
+        wrong.setStatus(0);
+        WrongQuestion last = state.lastWrong.get(answer.getQuestionId());
+        if (last != null) {
+            wrong.setLastErrorTime(last.getLastErrorTime());
+            wrong.setLastErrorAnswer(last.getLastErrorAnswer());
+        } else {
+            wrong.setLastErrorTime(answer.getUpdatedAt());
+            wrong.setLastErrorAnswer(answer.getUserAnswer());
+        }
+        return wrong;
+    }
+
+    private static int wrongCount(UserAnswer answer) {
+        return answer != null && answer.getWrongCount() != null ? answer.getWrongCount() : 0;
+    }
+
+    private Duration ownerLease() {
+        return Duration.ofMillis(quizSystemProperties.getSession().getOwnerLeaseTime());
+    }
+
+    /**
+     * 加载会话状态：优先内存，其次 Redis（其他节点写入），最后数据库
+     */
+    private SessionState loadState(String sessionId, boolean loadFromDatabase) {
+        SessionState state = states.get(sessionId);
+        if (state != null) {
+            return state;
+        }
+
+        state = loadFromRedis(sessionId);
+        if (state == null && loadFromDatabase) {
+            state = loadFromDatabase(sessionId);
+        }
+        if (state == null) {
+            return null;
+        }
+        SessionState existing = states.putIfAbsent(sessionId, state);
+        if (existing != null) {
+            return existing;
+        }
+        // 会话加载到哪个节点就由哪个节点持有，原持有节点在下次续期时发现并释放本地状态
+        claim(sessionId);
+        return state;
+    }
+
+    private void claim(String sessionId) {
+        try {
+            stringRedisTemplate.opsForValue().set(OWNER_KEY_PREFIX + sessionId, nodeId, ownerLease());
+        } catch (DataAccessException e) {
+            log.warn("获取会话租约失败: sessionId={}, error={}", sessionId, e.getMessage());
+        }
+    }
+
+    private SessionState loadFromRedis(String sessionId) {
+        Map<Object, Object> entries;
+        try {
+            entries = redisTemplate.opsForHash().entries(STATE_KEY_PREFIX + sessionId);
+        } catch (DataAccessException e) {
+            log.warn("读取Redis会话状态失败，回退到数据库: sessionId={}, error={}", sessionId, e.getMessage());
+            return null;
+        }
+        Object session = entries.get(FIELD_SESSION);
+        if (!(session instanceof QuizSession)) {
+            return null;
+        }
+
+        // 来自 Redis 的状态可能尚未落库，全部视为脏数据（增量相对已落库记录计算，重复写回不会重复计数）
+        SessionState state = new SessionState((QuizSession) session);
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            String field = entry.getKey().toString();
+            if (field.startsWith(FIELD_ANSWER_PREFIX) && entry.getValue() instanceof UserAnswer) {
+                UserAnswer answer = (UserAnswer) entry.getValue();
+                state.answers.put(answer.getQuestionId(), answer);
+                state.dirtyAnswers.put(answer.getQuestionId(), answer);
+            } else if (field.startsWith(FIELD_WRONG_PREFIX) && entry.getValue() instanceof WrongQuestion) {
+                WrongQuestion wrong = (WrongQuestion) entry.getValue();
+                state.lastWrong.put(wrong.getQuestionId(), wrong);
+            }
+        }
+        state.sessionDirty = true;
+        // 答题统计与错题次数的增量相对已落库的记录计算，接管时读取一次
+        for (UserAnswer answer : selectPersistedAnswers(sessionId)) {
+            state.persisted.put(answer.getQuestionId(), answer);
+        }
+        return state;
+    }
+
+    private SessionState loadFromDatabase(String sessionId) {
+        LambdaQueryWrapper<QuizSession> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(QuizSession::getSessionId, sessionId)
+                   .and(w -> w.isNull(QuizSession::getDeleted).or().eq(QuizSession::getDeleted, 0));
+        QuizSession session = quizSessionMapper.selectOne(queryWrapper);
+        if (session == null || session.getStatus() != QuizSession.SessionStatus.ongoing) {
+            return null;
+        }
+
+        SessionState state = new SessionState(session);
+        for (UserAnswer answer : selectPersistedAnswers(sessionId)) {
+            state.answers.put(answer.getQuestionId(), answer);
+            state.persisted.put(answer.getQuestionId(), answer);
+        }
+
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(FIELD_SESSION, session);
+        for (UserAnswer answer : state.answers.values()) {
+            fields.put(FIELD_ANSWER_PREFIX + answer.getQuestionId(), answer);
+        }
+        writeToRedis(sessionId, fields);
+        return state;
+    }
+
+    private List<UserAnswer> selectPersistedAnswers(String sessionId) {
+        LambdaQueryWrapper<UserAnswer> answerWrapper = new LambdaQueryWrapper<>();
+        answerWrapper.eq(UserAnswer::getSessionId, sessionId);
+        return userAnswerMapper.selectList(answerWrapper);
+    }
+
+    /**
+     * 一次往返写入 Hash 字段、刷新过期时间并登记脏会话
+     */
+    private void writeToRedis(String sessionId, Map<String, Object> fields) {
+        String key = STATE_KEY_PREFIX + sessionId;
+        long expireSeconds = quizSystemProperties.getCache().getUserSessionExpireTime();
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    operations.opsForHash().putAll(key, fields);
+                    operations.expire(key, expireSeconds, TimeUnit.SECONDS);
+                    operations.opsForSet().add(DIRTY_SET_KEY, sessionId);
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("写入Redis会话状态失败，仅保留本地状态: sessionId={}, error={}", sessionId, e.getMessage());
+        }
+    }
+
+    private static QuizSession copyOf(QuizSession source) {
+        QuizSession copy = new QuizSession();
+        BeanUtils.copyProperties(source, copy);
+        return copy;
+    }
+
+    /**
+     * 单个会话的内存状态，所有字段在 synchronized(this) 下访问
+     */
+    private static class SessionState {
+        private final QuizSession session;
+        private final Map<Long, UserAnswer> answers = new HashMap<>();
+        /**
+         * 已落库的答题记录，作为写回时计算答题统计增量的基准
+         */
+        private final Map<Long, UserAnswer> persisted = new HashMap<>();
+        private final Map<Long, UserAnswer> dirtyAnswers = new LinkedHashMap<>();
+        /**
+         * 各题最近一次答错的记录，只用于错题本的错误时间与错误答案
+         */
+        private final Map<Long, WrongQuestion> lastWrong = new HashMap<>();
+        private boolean sessionDirty;
+        private long lastAccess = System.currentTimeMillis();
+
+        private SessionState(QuizSession session) {
+            this.session = session;
+        }
+
+        private boolean isDirty() {
+            return sessionDirty || !dirtyAnswers.isEmpty();
+        }
+    }
+
+    /**
+     * 一个会话待写回的数据快照
+     */
+    private static class FlushItem {
+        private final String sessionId;
+        private final SessionState state;
+        private final QuizSession session;
+        private final List<AnswerChange> answers;
+        private final List<WrongQuestion> wrongs;
+
+        private FlushItem(String sessionId, SessionState state, QuizSession session,
+                          List<AnswerChange> answers, List<WrongQuestion> wrongs) {
+            this.sessionId = sessionId;
+            this.state = state;
+            this.session = session;
+            this.answers = answers;
+            this.wrongs = wrongs;
+        }
+    }
+}
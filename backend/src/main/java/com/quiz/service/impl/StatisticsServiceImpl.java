@@ -2,9 +2,13 @@ package com.quiz.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.quiz.entity.UserAnswer;
-import com.quiz.mapper.UserAnswerMapper;
+import com.quiz.entity.UserDailyStats;
+import com.quiz.service.AnswerBreakdownService;
+import com.quiz.service.DailyStatsService;
 import com.quiz.service.FavoriteService;
+import com.quiz.service.RankingService;
 import com.quiz.service.StatisticsService;
+import com.quiz.service.SystemMetricsService;
 import com.quiz.service.WrongQuestionService;
 import com.quiz.utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
@@ -15,8 +19,10 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 统计服务实现类
@@ -30,39 +36,16 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     private final FavoriteService favoriteService;
     private final WrongQuestionService wrongQuestionService;
-    private final UserAnswerMapper userAnswerMapper;
 
-    private final com.quiz.service.QuestionService questionService;
-    private final com.quiz.service.UserService userService;
     private final com.quiz.service.AnswerService answerService;
+    private final DailyStatsService dailyStatsService;
+    private final RankingService rankingService;
+    private final AnswerBreakdownService answerBreakdownService;
+    private final SystemMetricsService systemMetricsService;
 
     @Override
     public Map<String, Object> getSystemStats() {
-        Map<String, Object> stats = new HashMap<>();
-
-        try {
-            // 获取题目总数
-            long totalQuestions = questionService.count();
-            stats.put("totalQuestions", totalQuestions);
-            
-            // 获取用户总数
-            long totalUsers = userService.count();
-            stats.put("totalUsers", totalUsers);
-            
-            // 获取答题会话总数
-            QueryWrapper<UserAnswer> answerWrapper = new QueryWrapper<>();
-            answerWrapper.select("DISTINCT session_id");
-            long totalSessions = answerService.count(answerWrapper);
-            stats.put("totalSessions", totalSessions);
-            
-        } catch (Exception e) {
-            // 如果查询失败，返回默认值
-            stats.put("totalQuestions", 1256L);
-            stats.put("totalUsers", 892L);
-            stats.put("totalSessions", 15678L);
-        }
-
-        return stats;
+        return systemMetricsService.getSystemStats();
     }
 
     @Override
@@ -75,21 +58,16 @@ public class StatisticsServiceImpl implements StatisticsService {
                 throw new RuntimeException("用户未登录");
             }
             
-            // 获取用户答题总数
-            QueryWrapper<UserAnswer> answerWrapper = new QueryWrapper<>();
-            answerWrapper.eq("user_id", userId);
-            long totalAnswers = answerService.count(answerWrapper);
-            
-            // 获取用户正确答题数
-            answerWrapper = new QueryWrapper<>();
-            answerWrapper.eq("user_id", userId).eq("is_correct", 1);
-            long correctAnswers = answerService.count(answerWrapper);
+            // 获取用户答题总数与正确答题数（每日统计汇总）
+            long[] totals = dailyStatsService.getTotals(userId);
+            long totalAnswers = totals[0];
+            long correctAnswers = totals[1];
 
         // 计算正确率
         double accuracy = totalAnswers > 0 ? (double) correctAnswers / totalAnswers * 100 : 0;
 
             // 获取练习次数（按session计算）
-            answerWrapper = new QueryWrapper<>();
+            QueryWrapper<UserAnswer> answerWrapper = new QueryWrapper<>();
             answerWrapper.eq("user_id", userId);
             answerWrapper.select("DISTINCT session_id");
             long sessionCount = answerService.count(answerWrapper);
@@ -126,101 +104,12 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     @Override
     public List<Map<String, Object>> getRankingData(String type, String period) {
-        List<Map<String, Object>> ranking = new ArrayList<>();
-        
-        try {
-            // 获取所有用户
-            List<com.quiz.entity.User> allUsers = userService.list();
-            
-            // 为每个用户计算统计数据
-            List<Map<String, Object>> userStatsList = new ArrayList<>();
-            
-            for (com.quiz.entity.User user : allUsers) {
-                // 构建时间范围查询条件
-                QueryWrapper<UserAnswer> answerWrapper = new QueryWrapper<>();
-                answerWrapper.eq("user_id", user.getId());
-                
-                // 根据时间范围添加时间过滤条件
-                if (period != null && !period.equals("all")) {
-                    LocalDateTime startTime = getStartTimeByPeriod(period);
-                    if (startTime != null) {
-                        answerWrapper.ge("created_at", startTime);
-                    }
-                }
-
-                // 总答题数
-                long totalAnswers = answerService.count(answerWrapper);
-
-                // 正确答题数
-                answerWrapper = new QueryWrapper<>();
-                answerWrapper.eq("user_id", user.getId());
-                if (period != null && !period.equals("all")) {
-                    LocalDateTime startTime = getStartTimeByPeriod(period);
-                    if (startTime != null) {
-                        answerWrapper.ge("created_at", startTime);
-                    }
-                }
-                answerWrapper.eq("is_correct", 1);
-                long correctAnswers = answerService.count(answerWrapper);
-
-                // 计算正确率
-            double accuracy = totalAnswers > 0 ? (double) correctAnswers / totalAnswers * 100 : 0;
-
-                // 只包含有答题记录的用户
-                if (totalAnswers > 0) {
-                    Map<String, Object> userData = new HashMap<>();
-                    userData.put("id", user.getId());
-                    userData.put("username", user.getUsername());
-                    userData.put("nickname", user.getNickname());
-                    userData.put("avatar", user.getAvatar());
-                    userData.put("correctAnswers", correctAnswers);
-                    userData.put("totalAnswers", totalAnswers);
-                    userData.put("accuracy", Math.round(accuracy * 100.0) / 100.0);
-
-                    userStatsList.add(userData);
-                }
-            }
-
-            // 按正确答题数降序排序
-            userStatsList.sort((a, b) -> {
-                Long countA = (Long) a.get("correctAnswers");
-                Long countB = (Long) b.get("correctAnswers");
-                return countB.compareTo(countA);
-            });
-
-            // 构建最终排行榜（前20名）
-            int rank = 1;
-            for (Map<String, Object> userData : userStatsList) {
-                if (rank > 20) break; // 只取前20名
-
-                userData.put("rank", rank++);
-                ranking.add(userData);
-            }
-            
-        } catch (Exception e) {
-            // 如果查询失败，返回空列表
-            e.printStackTrace();
-        }
-        
-        return ranking;
+        return rankingService.getTopRanking(type, period);
     }
-    
-    /**
-     * 根据时间范围获取开始时间
-     */
-    private LocalDateTime getStartTimeByPeriod(String period) {
-        LocalDate today = LocalDate.now();
-        
-        switch (period) {
-            case "day":
-                return today.atStartOfDay();
-            case "week":
-                return today.minusWeeks(1).atStartOfDay();
-            case "month":
-                return today.minusMonths(1).atStartOfDay();
-            default:
-                return null; // "all" 表示不限制时间
-        }
+
+    @Override
+    public Map<String, Object> getMyRanking(String type, String period) {
+        return rankingService.getUserRanking(SecurityUtils.getCurrentUserId(), type, period);
     }
 
     /**
@@ -234,38 +123,7 @@ public class StatisticsServiceImpl implements StatisticsService {
                 return dailyStats;
             }
 
-            LocalDate today = LocalDate.now();
-            for (int i = 6; i >= 0; i--) {
-                LocalDate date = today.minusDays(i);
-                LocalDateTime startOfDay = date.atStartOfDay();
-                LocalDateTime endOfDay = date.atTime(23, 59, 59);
-
-                // 查询当天的答题数据
-                QueryWrapper<UserAnswer> wrapper = new QueryWrapper<>();
-                wrapper.eq("user_id", userId)
-                       .ge("created_at", startOfDay)
-                       .le("created_at", endOfDay);
-
-                long totalAnswers = userAnswerMapper.selectCount(wrapper);
-
-                wrapper = new QueryWrapper<>();
-                wrapper.eq("user_id", userId)
-                       .ge("created_at", startOfDay)
-                       .le("created_at", endOfDay)
-                       .eq("is_correct", 1);
-                long correctAnswers = userAnswerMapper.selectCount(wrapper);
-
-                // 计算正确率
-                double accuracy = totalAnswers > 0 ? (double) correctAnswers / totalAnswers * 100 : 0;
-
-                Map<String, Object> dailyStat = new HashMap<>();
-                dailyStat.put("date", date.toString());
-                dailyStat.put("totalAnswers", (int) totalAnswers);
-                dailyStat.put("correctAnswers", (int) correctAnswers);
-                dailyStat.put("accuracy", Math.round(accuracy));
-                dailyStats.add(dailyStat);
-            }
-
+            dailyStats.addAll(getDailySeries(userId, 7));
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -273,6 +131,39 @@ public class StatisticsServiceImpl implements StatisticsService {
         return dailyStats;
     }
 
+    /**
+     * 最近 days 天（含今天）的每日统计，没有答题的日期补零
+     */
+    private List<Map<String, Object>> getDailySeries(Long userId, int days) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(days - 1);
+        Map<LocalDate, UserDailyStats> rows = new HashMap<>();
+        for (UserDailyStats row : dailyStatsService.getRange(userId, start, today)) {
+            rows.put(row.getStatDate(), row);
+        }
+
+        List<Map<String, Object>> series = new ArrayList<>(days);
+        for (LocalDate date = start; !date.isAfter(today); date = date.plusDays(1)) {
+            series.add(toDayData(date, rows.get(date)));
+        }
+        return series;
+    }
+
+    private Map<String, Object> toDayData(LocalDate date, UserDailyStats row) {
+        int totalAnswers = row != null && row.getAnswered() != null ? row.getAnswered() : 0;
+        int correctAnswers = row != null && row.getCorrect() != null ? row.getCorrect() : 0;
+
+        // 计算正确率
+        double accuracy = totalAnswers > 0 ? (double) correctAnswers / totalAnswers * 100 : 0;
+
+        Map<String, Object> dayData = new HashMap<>();
+        dayData.put("date", date.toString());
+        dayData.put("totalAnswers", totalAnswers);
+        dayData.put("correctAnswers", correctAnswers);
+        dayData.put("accuracy", Math.round(accuracy));
+        return dayData;
+    }
+
     @Override
     public Map<String, Object> getDetailedStats() {
         Map<String, Object> stats = new HashMap<>();
@@ -312,40 +203,8 @@ public class StatisticsServiceImpl implements StatisticsService {
                 return trend;
             }
 
-            LocalDate today = LocalDate.now();
             int days = period.equals("week") ? 7 : period.equals("month") ? 30 : 90;
-
-            for (int i = days - 1; i >= 0; i--) {
-                LocalDate date = today.minusDays(i);
-                LocalDateTime startOfDay = date.atStartOfDay();
-                LocalDateTime endOfDay = date.atTime(23, 59, 59);
-
-                // 查询当天的答题数据
-                QueryWrapper<UserAnswer> wrapper = new QueryWrapper<>();
-                wrapper.eq("user_id", userId)
-                       .ge("created_at", startOfDay)
-                       .le("created_at", endOfDay);
-
-                long totalAnswers = userAnswerMapper.selectCount(wrapper);
-
-                wrapper = new QueryWrapper<>();
-                wrapper.eq("user_id", userId)
-                       .ge("created_at", startOfDay)
-                       .le("created_at", endOfDay)
-                       .eq("is_correct", 1);
-                long correctAnswers = userAnswerMapper.selectCount(wrapper);
-
-                // 计算正确率
-                double accuracy = totalAnswers > 0 ? (double) correctAnswers / totalAnswers * 100 : 0;
-
-                Map<String, Object> dayData = new HashMap<>();
-                dayData.put("date", date.toString());
-                dayData.put("totalAnswers", (int) totalAnswers);
-                dayData.put("correctAnswers", (int) correctAnswers);
-                dayData.put("accuracy", Math.round(accuracy));
-                trend.add(dayData);
-            }
-
+            trend.addAll(getDailySeries(userId, days));
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -355,43 +214,12 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     @Override
     public List<Map<String, Object>> getTypeStats() {
-        List<Map<String, Object>> stats = new ArrayList<>();
-        
-        try {
-            Long userId = SecurityUtils.getCurrentUserId();
-            if (userId == null) {
-                return stats;
-            }
-            
-            // 查询用户答题记录，按题型分组统计
-            QueryWrapper<UserAnswer> wrapper = new QueryWrapper<>();
-            wrapper.eq("user_id", userId);
-            List<UserAnswer> userAnswers = userAnswerMapper.selectList(wrapper);
-            
-            // 按题型统计
-            Map<String, Integer> typeCountMap = new HashMap<>();
-            for (UserAnswer answer : userAnswers) {
-                // 通过题目ID查询题目类型
-                com.quiz.entity.Question question = questionService.getById(answer.getQuestionId());
-                if (question != null && question.getType() != null) {
-                    String type = question.getType().toString().toLowerCase();
-                    typeCountMap.put(type, typeCountMap.getOrDefault(type, 0) + 1);
-                }
-            }
-            
-            // 转换为返回格式
-            for (Map.Entry<String, Integer> entry : typeCountMap.entrySet()) {
-                Map<String, Object> typeStat = new HashMap<>();
-                typeStat.put("type", entry.getKey());
-                typeStat.put("count", entry.getValue());
-                stats.add(typeStat);
-            }
-            
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        
-        return stats;
+        return answerBreakdownService.getByType(SecurityUtils.getCurrentUserId());
+    }
+
+    @Override
+    public List<Map<String, Object>> getBankStats() {
+        return answerBreakdownService.getByBank(SecurityUtils.getCurrentUserId());
     }
 
     @Override
@@ -404,25 +232,11 @@ public class StatisticsServiceImpl implements StatisticsService {
                 throw new RuntimeException("用户未登录");
             }
 
-            LocalDate today = LocalDate.now();
-            LocalDateTime startOfDay = today.atStartOfDay();
-            LocalDateTime endOfDay = today.atTime(23, 59, 59);
-
             // 查询今日答题数据
-            QueryWrapper<UserAnswer> wrapper = new QueryWrapper<>();
-            wrapper.eq("user_id", userId)
-                   .ge("created_at", startOfDay)
-                   .le("created_at", endOfDay);
-
-            long answered = userAnswerMapper.selectCount(wrapper);
-
-            // 查询今日正确答题数
-            wrapper = new QueryWrapper<>();
-            wrapper.eq("user_id", userId)
-                   .ge("created_at", startOfDay)
-                   .le("created_at", endOfDay)
-                   .eq("is_correct", 1);
-            long correct = userAnswerMapper.selectCount(wrapper);
+            LocalDate today = LocalDate.now();
+            List<UserDailyStats> rows = dailyStatsService.getRange(userId, today, today);
+            long answered = rows.isEmpty() ? 0 : rows.get(0).getAnswered();
+            long correct = rows.isEmpty() ? 0 : rows.get(0).getCorrect();
 
             stats.put("answered", answered);
             stats.put("correct", correct);
@@ -448,44 +262,29 @@ public class StatisticsServiceImpl implements StatisticsService {
             
             LocalDate today = LocalDate.now();
             LocalDate weekStart = today.minusDays(6); // 本周开始（7天前）
-            
+
+            // 一次读取最近一年有答题的日期
+            Set<LocalDate> activeDays = new HashSet<>();
+            for (UserDailyStats row : dailyStatsService.getRange(userId, today.minusDays(364), today)) {
+                if (row.getAnswered() != null && row.getAnswered() > 0) {
+                    activeDays.add(row.getStatDate());
+                }
+            }
+
             // 计算本周学习天数
             int weekDays = 0;
             for (int i = 0; i < 7; i++) {
-                LocalDate date = weekStart.plusDays(i);
-                LocalDateTime startOfDay = date.atStartOfDay();
-                LocalDateTime endOfDay = date.atTime(23, 59, 59);
-                
-                QueryWrapper<UserAnswer> wrapper = new QueryWrapper<>();
-                wrapper.eq("user_id", userId)
-                       .ge("created_at", startOfDay)
-                       .le("created_at", endOfDay);
-                
-                long dayAnswers = userAnswerMapper.selectCount(wrapper);
-                if (dayAnswers > 0) {
+                if (activeDays.contains(weekStart.plusDays(i))) {
                     weekDays++;
                 }
             }
-            
-            // 计算连续学习天数
+
+            // 计算连续学习天数（最多一年）
             int streakDays = 0;
             LocalDate checkDate = today;
-            while (streakDays < 365) { // 最多检查一年
-                LocalDateTime startOfDay = checkDate.atStartOfDay();
-                LocalDateTime endOfDay = checkDate.atTime(23, 59, 59);
-                
-                QueryWrapper<UserAnswer> wrapper = new QueryWrapper<>();
-                wrapper.eq("user_id", userId)
-                       .ge("created_at", startOfDay)
-                       .le("created_at", endOfDay);
-                
-                long dayAnswers = userAnswerMapper.selectCount(wrapper);
-                if (dayAnswers > 0) {
-                    streakDays++;
-                    checkDate = checkDate.minusDays(1);
-                } else {
-                    break;
-                }
+            while (streakDays < 365 && activeDays.contains(checkDate)) {
+                streakDays++;
+                checkDate = checkDate.minusDays(1);
             }
             
             progress.put("days", weekDays);
@@ -516,41 +315,11 @@ public class StatisticsServiceImpl implements StatisticsService {
             LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
             LocalDate start = startDate != null ? LocalDate.parse(startDate) : end.minusDays(30);
 
-            // 查询学习历史数据
-            LocalDate currentDate = start;
-            while (!currentDate.isAfter(end) && history.size() < size) {
-                LocalDateTime startOfDay = currentDate.atStartOfDay();
-                LocalDateTime endOfDay = currentDate.atTime(23, 59, 59);
-
-                QueryWrapper<UserAnswer> wrapper = new QueryWrapper<>();
-                wrapper.eq("user_id", userId)
-                       .ge("created_at", startOfDay)
-                       .le("created_at", endOfDay);
-
-                long totalAnswers = userAnswerMapper.selectCount(wrapper);
-
-                if (totalAnswers > 0) {
-                    wrapper = new QueryWrapper<>();
-                    wrapper.eq("user_id", userId)
-                           .ge("created_at", startOfDay)
-                           .le("created_at", endOfDay)
-                           .eq("is_correct", 1);
-                    long correctAnswers = userAnswerMapper.selectCount(wrapper);
-
-                    double accuracy = totalAnswers > 0 ? (double) correctAnswers / totalAnswers * 100 : 0;
-
-                    Map<String, Object> dayData = new HashMap<>();
-                    dayData.put("date", currentDate.toString());
-                    dayData.put("totalAnswers", (int) totalAnswers);
-                    dayData.put("correctAnswers", (int) correctAnswers);
-                    dayData.put("accuracy", Math.round(accuracy));
-
-                    history.add(dayData);
-                }
-
-                currentDate = currentDate.plusDays(1);
+            // 查询学习历史数据（只返回有答题的日期）
+            int offset = (Math.max(page, 1) - 1) * size;
+            for (UserDailyStats row : dailyStatsService.getActiveDays(userId, start, end, offset, size)) {
+                history.add(toDayData(row.getStatDate(), row));
             }
-
         } catch (Exception e) {
             e.printStackTrace();
         }
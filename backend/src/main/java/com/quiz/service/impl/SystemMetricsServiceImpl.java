@@ -0,0 +1,260 @@
+package com.quiz.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.event.AnswersRecordedEvent;
+import com.quiz.mapper.QuestionBankMapper;
+import com.quiz.mapper.QuestionMapper;
+import com.quiz.mapper.QuizSessionMapper;
+import com.quiz.mapper.UserMapper;
+import com.quiz.service.SystemMetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 系统计数服务实现类
+ * <p>
+ * 各项总数保存在 Redis 哈希 quiz:metrics:totals 中，在新增/删除路径上增量调整，
+ * 并定期按数据库精确计数校正（同时作为 Redis 不可用时的本地后备值）；
+ * 每日活跃用户写入 HyperLogLog（quiz:metrics:active:{yyyyMMdd}），多日活跃数通过 PFCOUNT 合并计算。
+ * 首页统计只读取一次哈希和一次 HyperLogLog，耗时与表大小无关。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+@Slf4j
+@Service
+public class SystemMetricsServiceImpl implements SystemMetricsService {
+
+    private static final String TOTALS_KEY = "quiz:metrics:totals";
+    private static final String ACTIVE_KEY_PREFIX = "quiz:metrics:active:";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /**
+     * 本节点已记录过当日活跃的用户数上限（用于跳过重复的 PFADD）
+     */
+    private static final int RECORDED_CAPACITY = 100000;
+
+    /**
+     * 写入活跃用户并刷新过期时间
+     * KEYS[1]: 当日键；ARGV[1]: 用户ID；ARGV[2]: 过期秒数
+     */
+    private static final RedisScript<Long> RECORD_ACTIVE_SCRIPT = new DefaultRedisScript<>(
+            "local added = redis.call('PFADD', KEYS[1], ARGV[1]) "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[2]) "
+                    + "return added", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserMapper userMapper;
+    private final QuestionMapper questionMapper;
+    private final QuestionBankMapper questionBankMapper;
+    private final QuizSessionMapper quizSessionMapper;
+    private final QuizSystemProperties quizSystemProperties;
+
+    private final Map<Metric, AtomicLong> localTotals = new EnumMap<>(Metric.class);
+    private final Map<LocalDate, Set<Long>> localActiveUsers = new ConcurrentHashMap<>();
+    private final LRUCache<Long, LocalDate> recordedToday;
+
+    public SystemMetricsServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                    UserMapper userMapper,
+                                    QuestionMapper questionMapper,
+                                    QuestionBankMapper questionBankMapper,
+                                    QuizSessionMapper quizSessionMapper,
+                                    QuizSystemProperties quizSystemProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.userMapper = userMapper;
+        this.questionMapper = questionMapper;
+        this.questionBankMapper = questionBankMapper;
+        this.quizSessionMapper = quizSessionMapper;
+        this.quizSystemProperties = quizSystemProperties;
+        for (Metric metric : Metric.values()) {
+            localTotals.put(metric, new AtomicLong());
+        }
+        this.recordedToday = CacheUtil.newLRUCache(RECORDED_CAPACITY);
+    }
+
+    @Override
+    public void increment(Metric metric, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(metric, delta);
+                }
+            });
+        } else {
+            apply(metric, delta);
+        }
+    }
+
+    private void apply(Metric metric, long delta) {
+        localTotals.get(metric).addAndGet(delta);
+        if (useRedis()) {
+            try {
+                stringRedisTemplate.opsForHash().increment(TOTALS_KEY, metric.getField(), delta);
+            } catch (DataAccessException e) {
+                log.warn("更新系统计数失败，{}: {}，将在下次校正时修正", metric.getField(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void recordActiveUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        if (today.equals(recordedToday.get(userId, false))) {
+            return;
+        }
+        if (useRedis()) {
+            try {
+                long ttl = TimeUnit.DAYS.toSeconds(quizSystemProperties.getMetrics().getActiveRetentionDays());
+                stringRedisTemplate.execute(RECORD_ACTIVE_SCRIPT,
+                        Collections.singletonList(activeKey(today)), String.valueOf(userId), String.valueOf(ttl));
+            } catch (DataAccessException e) {
+                log.warn("记录活跃用户失败，用户ID: {}: {}", userId, e.getMessage());
+                return;
+            }
+        } else {
+            localActiveUsers.computeIfAbsent(today, d -> ConcurrentHashMap.newKeySet()).add(userId);
+            LocalDate oldest = today.minusDays(quizSystemProperties.getMetrics().getActiveRetentionDays());
+            localActiveUsers.keySet().removeIf(date -> date.isBefore(oldest));
+        }
+        recordedToday.put(userId, today);
+    }
+
+    /**
+     * 答题即视为当日活跃
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnswersRecorded(AnswersRecordedEvent event) {
+        recordActiveUser(event.getUserId());
+    }
+
+    @Override
+    public long countActiveUsers(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            return 0;
+        }
+        if (useRedis()) {
+            List<String> keys = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                keys.add(activeKey(date));
+            }
+            try {
+                Long count = stringRedisTemplate.opsForHyperLogLog().size(keys.toArray(new String[0]));
+                return count != null ? count : 0;
+            } catch (DataAccessException e) {
+                log.warn("统计活跃用户失败: {}", e.getMessage());
+                return 0;
+            }
+        }
+        Set<Long> users = new HashSet<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            users.addAll(localActiveUsers.getOrDefault(date, Collections.emptySet()));
+        }
+        return users.size();
+    }
+
+    @Override
+    public Map<String, Object> getSystemStats() {
+        Map<String, Object> stats = new HashMap<>();
+        List<Object> values = null;
+        if (useRedis()) {
+            try {
+                List<Object> fields = new ArrayList<>();
+                for (Metric metric : Metric.values()) {
+                    fields.add(metric.getField());
+                }
+                values = stringRedisTemplate.opsForHash().multiGet(TOTALS_KEY, fields);
+            } catch (DataAccessException e) {
+                log.warn("读取系统计数失败，使用本地计数: {}", e.getMessage());
+            }
+        }
+        Metric[] metrics = Metric.values();
+        for (int i = 0; i < metrics.length; i++) {
+            Object value = values != null && i < values.size() ? values.get(i) : null;
+            stats.put(metrics[i].getField(), value != null
+                    ? Long.parseLong(value.toString()) : localTotals.get(metrics[i]).get());
+        }
+        LocalDate today = LocalDate.now();
+        stats.put("activeUsersToday", countActiveUsers(today, today));
+        return stats;
+    }
+
+    /**
+     * 启动时与每隔 reconcileInterval 按数据库精确计数校正
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${quiz.system.metrics.reconcile-interval:600000}",
+            initialDelayString = "${quiz.system.metrics.reconcile-interval:600000}")
+    public void reconcile() {
+        Map<Metric, Long> counts = new EnumMap<>(Metric.class);
+        counts.put(Metric.USERS, userMapper.selectCount(null));
+        counts.put(Metric.QUESTIONS, questionMapper.selectCount(null));
+        counts.put(Metric.BANKS, questionBankMapper.selectCount(null));
+        counts.put(Metric.SESSIONS, quizSessionMapper.selectCount(null));
+
+        Map<String, String> fields = new HashMap<>();
+        counts.forEach((metric, count) -> {
+            long previous = localTotals.get(metric).getAndSet(count);
+            if (previous != count) {
+                log.debug("校正系统计数 {}: {} -> {}", metric.getField(), previous, count);
+            }
+            fields.put(metric.getField(), String.valueOf(count));
+        });
+        if (useRedis()) {
+            try {
+                stringRedisTemplate.opsForHash().putAll(TOTALS_KEY, fields);
+            } catch (DataAccessException e) {
+                log.warn("写入系统计数失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("启动时校正系统计数失败: {}", e.getMessage());
+        }
+    }
+
+    private boolean useRedis() {
+        return quizSystemProperties.getMetrics().isRedisEnabled();
+    }
+
+    private static String activeKey(LocalDate date) {
+        return ACTIVE_KEY_PREFIX + date.format(DAY_FORMAT);
+    }
+}
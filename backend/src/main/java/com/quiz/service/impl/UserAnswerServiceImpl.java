@@ -2,14 +2,23 @@ package com.quiz.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.dto.AnswerChange;
 import com.quiz.entity.UserAnswer;
+import com.quiz.event.AnswersRecordedEvent;
 import com.quiz.mapper.UserAnswerMapper;
+import com.quiz.service.QuestionCounterService;
 import com.quiz.service.UserAnswerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户答题记录服务实现类
@@ -21,6 +30,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserAnswerServiceImpl extends ServiceImpl<UserAnswerMapper, UserAnswer> implements UserAnswerService {
 
+    private final QuizSystemProperties quizSystemProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuestionCounterService questionCounterService;
+
     @Override
     public List<UserAnswer> getAnswersBySessionId(String sessionId) {
         LambdaQueryWrapper<UserAnswer> queryWrapper = new LambdaQueryWrapper<>();
@@ -37,6 +50,17 @@ public class UserAnswerServiceImpl extends ServiceImpl<UserAnswerMapper, UserAns
         return getOne(queryWrapper);
     }
 
+    @Override
+    public List<UserAnswer> getAnswers(String sessionId, Collection<Long> questionIds) {
+        if (questionIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        LambdaQueryWrapper<UserAnswer> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(UserAnswer::getSessionId, sessionId)
+                   .in(UserAnswer::getQuestionId, questionIds);
+        return list(queryWrapper);
+    }
+
     @Override
     @Transactional
     public boolean deleteBySessionId(String sessionId) {
@@ -49,11 +73,60 @@ public class UserAnswerServiceImpl extends ServiceImpl<UserAnswerMapper, UserAns
     @Transactional
     public boolean saveOrUpdateAnswer(UserAnswer answer) {
         UserAnswer existing = getAnswer(answer.getSessionId(), answer.getQuestionId());
+        boolean success;
         if (existing != null) {
             answer.setId(existing.getId());
-            return updateById(answer);
+            success = updateById(answer);
         } else {
-            return save(answer);
+            success = save(answer);
+        }
+        List<AnswerChange> changes = List.of(new AnswerChange(answer, existing));
+        recordQuestionCounts(changes);
+        publishRecorded(changes);
+        return success;
+    }
+
+    @Override
+    public void upsertAnswers(List<AnswerChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        // 按固定大小分块，避免单条SQL过长；增量由调用方提供的写入前记录计算，不再回查
+        int batchSize = quizSystemProperties.getSession().getFlushBatchSize();
+        List<UserAnswer> answers = new ArrayList<>(changes.size());
+        changes.forEach(change -> answers.add(change.getCurrent()));
+        for (int from = 0; from < answers.size(); from += batchSize) {
+            baseMapper.upsertBatch(answers.subList(from, Math.min(from + batchSize, answers.size())));
+        }
+        recordQuestionCounts(changes);
+        publishRecorded(changes);
+    }
+
+    /**
+     * 按相对已有记录的增量累计题目答题数与答对数，同一会话内重复提交同一题只计一次
+     */
+    private void recordQuestionCounts(List<AnswerChange> changes) {
+        for (AnswerChange change : changes) {
+            questionCounterService.recordAnswerChange(change.getCurrent().getQuestionId(),
+                    change.answeredDelta(), change.correctDelta());
+        }
+    }
+
+    /**
+     * 按用户发布答题记录写入事件，每条记录的增量相对写入前的记录：
+     * 新作答 +1；覆盖已有作答只在正确性变化时调整正确数；空白答案不计为作答
+     */
+    private void publishRecorded(List<AnswerChange> changes) {
+        Map<Long, List<AnswersRecordedEvent.AnswerDelta>> deltasByUser = new HashMap<>();
+        for (AnswerChange change : changes) {
+            UserAnswer answer = change.getCurrent();
+            if (answer.getUserId() == null) {
+                continue;
+            }
+            deltasByUser.computeIfAbsent(answer.getUserId(), key -> new ArrayList<>())
+                    .add(new AnswersRecordedEvent.AnswerDelta(answer.getQuestionId(), change.date(),
+                            change.answeredDelta(), change.correctDelta()));
         }
+        deltasByUser.forEach((userId, deltas) -> eventPublisher.publishEvent(new AnswersRecordedEvent(userId, deltas)));
     }
 }
@@ -7,7 +7,11 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.quiz.dto.LoginRequest;
 import com.quiz.dto.RegisterRequest;
 import com.quiz.entity.User;
+import com.quiz.exception.TooManyRequestsException;
 import com.quiz.mapper.UserMapper;
+import com.quiz.service.LoginAttemptService;
+import com.quiz.service.PrincipalCacheService;
+import com.quiz.service.SystemMetricsService;
 import com.quiz.service.UserService;
 import com.quiz.utils.JwtUtils;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +33,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final PrincipalCacheService principalCacheService;
+    private final LoginAttemptService loginAttemptService;
+    private final SystemMetricsService systemMetricsService;
 
     @Override
     public User register(RegisterRequest request) {
@@ -54,20 +61,25 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 创建用户
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(loginAttemptService.encodePassword(request.getPassword()));
         user.setNickname(StrUtil.isNotBlank(request.getNickname()) ? request.getNickname() : request.getUsername());
         user.setEmail(request.getEmail());
         user.setStatus(1);
 
         save(user);
+        systemMetricsService.increment(SystemMetricsService.Metric.USERS, 1);
         return user;
     }
 
     @Override
-    public String login(LoginRequest request) {
+    public String login(LoginRequest request, String clientIp) {
+        // 失败次数超限时直接拒绝，不再进行密码校验
+        loginAttemptService.checkAllowed(request.getUsername(), clientIp);
+
         // 根据用户名查找用户
         User user = getUserByUsername(request.getUsername());
         if (user == null) {
+            loginAttemptService.recordFailure(request.getUsername(), clientIp);
             throw new RuntimeException("用户名或密码错误");
         }
 
@@ -77,12 +89,18 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         }
 
         // 验证密码
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!loginAttemptService.verifyPassword(request.getPassword(), user.getPassword())) {
+            loginAttemptService.recordFailure(request.getUsername(), clientIp);
             throw new RuntimeException("用户名或密码错误");
         }
+        loginAttemptService.reset(request.getUsername());
+
+        // 工作因子调整后，用本次登录的明文密码重新哈希
+        rehashPasswordIfNeeded(user, request.getPassword());
 
         // 更新最后登录时间
         updateLastLoginTime(user.getId());
+        systemMetricsService.recordActiveUser(user.getId());
 
         // 生成JWT Token
         return jwtUtils.generateToken(user.getUsername(), user.getId());
@@ -102,6 +120,27 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         return baseMapper.selectOne(queryWrapper);
     }
 
+    /**
+     * 已存储哈希的工作因子低于当前选定值时重新哈希；仅在密码未被并发修改时更新。
+     * 哈希名额已满时跳过，下次登录再升级
+     */
+    private void rehashPasswordIfNeeded(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        String encoded;
+        try {
+            encoded = loginAttemptService.encodePassword(rawPassword);
+        } catch (TooManyRequestsException e) {
+            return;
+        }
+        LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(User::getId, user.getId())
+                    .eq(User::getPassword, user.getPassword())
+                    .set(User::getPassword, encoded);
+        update(updateWrapper);
+    }
+
     @Override
     public void updateLastLoginTime(Long userId) {
         LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
@@ -115,7 +154,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(User::getId, userId)
                     .set(User::getPermissions, permissions);
-        return update(updateWrapper);
+        boolean updated = update(updateWrapper);
+        principalCacheService.invalidate(userId);
+        return updated;
     }
 
     @Override
@@ -140,14 +181,16 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         }
 
         // 验证旧密码
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!loginAttemptService.verifyPassword(oldPassword, user.getPassword())) {
             throw new RuntimeException("当前密码错误");
         }
 
         // 更新密码
         LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(User::getId, userId)
-                    .set(User::getPassword, passwordEncoder.encode(newPassword));
-        return update(updateWrapper);
+                    .set(User::getPassword, loginAttemptService.encodePassword(newPassword));
+        boolean updated = update(updateWrapper);
+        principalCacheService.invalidate(userId);
+        return updated;
     }
 }
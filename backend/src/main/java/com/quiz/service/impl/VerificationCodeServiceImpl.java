@@ -1,18 +1,27 @@
 package com.quiz.service.impl;
 
+import com.quiz.exception.TooManyRequestsException;
 import com.quiz.service.EmailService;
 import com.quiz.service.VerificationCodeService;
+import com.quiz.utils.RandomCodeGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
-import java.util.concurrent.TimeUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * 验证码服务实现类
+ * <p>
+ * 发送与校验各由一个 Lua 脚本在 Redis 端原子完成，每一步只需一次往返：
+ * 发送时检查冷却期和每小时配额（按邮箱、按IP）后一并写入验证码；
+ * 校验时比对成功即删除，比对失败累加错误次数，达到上限后验证码作废。
  *
  * @author Quiz System
  * @since 2024-09-29
@@ -22,6 +31,47 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class VerificationCodeServiceImpl implements VerificationCodeService {
 
+    private static final long ISSUED = 0L;
+    private static final long COOLDOWN = 1L;
+    private static final long EMAIL_QUOTA = 2L;
+    private static final long IP_QUOTA = 3L;
+
+    private static final long VERIFIED = 1L;
+    private static final long EXHAUSTED = -2L;
+
+    private static final long QUOTA_WINDOW_SECONDS = 3600;
+
+    /**
+     * 发送验证码：冷却期内或超出配额时返回 {原因, 剩余秒数}，否则写入验证码、清空错误次数、设置冷却期并累加配额
+     * KEYS: 验证码、错误次数、冷却期、邮箱配额、IP配额
+     * ARGV: 验证码、有效期、冷却时间、邮箱配额上限、IP配额上限、配额窗口
+     */
+    private static final RedisScript<List> ISSUE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[3]) == 1 then return {1, redis.call('TTL', KEYS[3])} end "
+                    + "if tonumber(redis.call('GET', KEYS[4]) or '0') >= tonumber(ARGV[4]) then return {2, redis.call('TTL', KEYS[4])} end "
+                    + "if tonumber(redis.call('GET', KEYS[5]) or '0') >= tonumber(ARGV[5]) then return {3, redis.call('TTL', KEYS[5])} end "
+                    + "redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2]) "
+                    + "redis.call('DEL', KEYS[2]) "
+                    + "redis.call('SET', KEYS[3], '1', 'EX', ARGV[3]) "
+                    + "for i = 4, 5 do "
+                    + "  if redis.call('INCR', KEYS[i]) == 1 then redis.call('EXPIRE', KEYS[i], ARGV[6]) end "
+                    + "end "
+                    + "return {0, 0}", List.class);
+
+    /**
+     * 校验验证码：1 成功（删除验证码）；0 不存在或已过期；-1 错误；-2 错误次数达到上限（删除验证码）
+     * KEYS: 验证码、错误次数
+     * ARGV: 用户输入、最大错误次数
+     */
+    private static final RedisScript<Long> VERIFY_SCRIPT = new DefaultRedisScript<>(
+            "local stored = redis.call('GET', KEYS[1]) "
+                    + "if not stored then return 0 end "
+                    + "if stored == ARGV[1] then redis.call('DEL', KEYS[1], KEYS[2]) return 1 end "
+                    + "local failures = redis.call('INCR', KEYS[2]) "
+                    + "if failures == 1 then redis.call('PEXPIRE', KEYS[2], math.max(redis.call('PTTL', KEYS[1]), 1)) end "
+                    + "if failures >= tonumber(ARGV[2]) then redis.call('DEL', KEYS[1], KEYS[2]) return -2 end "
+                    + "return -1", Long.class);
+
     private final StringRedisTemplate redisTemplate;
     private final EmailService emailService;
 
@@ -34,58 +84,82 @@ public class VerificationCodeServiceImpl implements VerificationCodeService {
     @Value("${verification.code.prefix:verification:email:}")
     private String keyPrefix;
 
+    @Value("${verification.code.cooldown:60}")
+    private int cooldownSeconds;
+
+    @Value("${verification.code.hourly-limit:5}")
+    private int emailHourlyLimit;
+
+    @Value("${verification.code.ip-hourly-limit:20}")
+    private int ipHourlyLimit;
+
+    @Value("${verification.code.max-attempts:5}")
+    private int maxAttempts;
+
     @Override
-    public boolean sendVerificationCode(String email) {
+    public boolean sendVerificationCode(String email, String clientIp) {
+        String normalized = normalize(email);
+        String code = RandomCodeGenerator.numeric(codeLength);
+
+        List<?> result;
         try {
-            // 检查是否在冷却期内（1分钟内只能发送一次）
-            String cooldownKey = keyPrefix + "cooldown:" + email;
-            if (Boolean.TRUE.equals(redisTemplate.hasKey(cooldownKey))) {
+            result = redisTemplate.execute(ISSUE_SCRIPT, Arrays.asList(
+                            codeKey(normalized),
+                            attemptsKey(normalized),
+                            keyPrefix + "cooldown:" + normalized,
+                            keyPrefix + "quota:" + normalized,
+                            keyPrefix + "quota:ip:" + clientIp),
+                    code, String.valueOf(expireSeconds), String.valueOf(cooldownSeconds),
+                    String.valueOf(emailHourlyLimit), String.valueOf(ipHourlyLimit), String.valueOf(QUOTA_WINDOW_SECONDS));
+        } catch (Exception e) {
+            log.error("发送验证码失败，邮箱：{}，错误：{}", email, e.getMessage());
+            return false;
+        }
+
+        long status = result != null && !result.isEmpty() ? ((Number) result.get(0)).longValue() : ISSUED;
+        if (status != ISSUED) {
+            long retryAfter = Math.max(1, ((Number) result.get(1)).longValue());
+            if (status == COOLDOWN) {
                 log.warn("验证码发送过于频繁，邮箱：{}", email);
-                return false;
+                throw new TooManyRequestsException("验证码发送过于频繁，请" + retryAfter + "秒后再试", retryAfter);
             }
+            log.warn("验证码发送超过每小时配额，邮箱：{}，IP：{}，类型：{}", email, clientIp, status == EMAIL_QUOTA ? "邮箱" : "IP");
+            throw new TooManyRequestsException("验证码发送次数过多，请稍后再试", retryAfter);
+        }
 
-            // 生成验证码
-            String code = generateCode();
-            
-            // 存储验证码到Redis
-            String key = keyPrefix + email;
-            redisTemplate.opsForValue().set(key, code, expireSeconds, TimeUnit.SECONDS);
-            
-            // 设置冷却期
-            redisTemplate.opsForValue().set(cooldownKey, "1", 60, TimeUnit.SECONDS);
-            
-            // 发送邮件
+        try {
             emailService.sendVerificationCodeEmail(email, code);
-            
-            log.info("验证码发送成功，邮箱：{}", email);
-            return true;
         } catch (Exception e) {
             log.error("发送验证码失败，邮箱：{}，错误：{}", email, e.getMessage());
             return false;
         }
+        log.info("验证码发送成功，邮箱：{}", email);
+        return true;
     }
 
     @Override
     public boolean verifyCode(String email, String code) {
+        if (code == null) {
+            return false;
+        }
+        String normalized = normalize(email);
         try {
-            String key = keyPrefix + email;
-            String storedCode = redisTemplate.opsForValue().get(key);
-            
-            if (storedCode == null) {
-                log.warn("验证码不存在或已过期，邮箱：{}", email);
-                return false;
-            }
-            
-            boolean isValid = storedCode.equals(code);
-            if (isValid) {
-                // 验证成功后删除验证码
-                redisTemplate.delete(key);
+            Long result = redisTemplate.execute(VERIFY_SCRIPT,
+                    Arrays.asList(codeKey(normalized), attemptsKey(normalized)),
+                    code.trim(), String.valueOf(maxAttempts));
+            long status = result != null ? result : 0L;
+            if (status == VERIFIED) {
                 log.info("验证码验证成功，邮箱：{}", email);
+                return true;
+            }
+            if (status == EXHAUSTED) {
+                log.warn("验证码错误次数过多，已作废，邮箱：{}", email);
+            } else if (status == 0L) {
+                log.warn("验证码不存在或已过期，邮箱：{}", email);
             } else {
                 log.warn("验证码错误，邮箱：{}", email);
             }
-            
-            return isValid;
+            return false;
         } catch (Exception e) {
             log.error("验证码验证失败，邮箱：{}，错误：{}", email, e.getMessage());
             return false;
@@ -95,23 +169,26 @@ public class VerificationCodeServiceImpl implements VerificationCodeService {
     @Override
     public void deleteCode(String email) {
         try {
-            String key = keyPrefix + email;
-            redisTemplate.delete(key);
+            String normalized = normalize(email);
+            redisTemplate.delete(Arrays.asList(codeKey(normalized), attemptsKey(normalized)));
             log.info("验证码已删除，邮箱：{}", email);
         } catch (Exception e) {
             log.error("删除验证码失败，邮箱：{}，错误：{}", email, e.getMessage());
         }
     }
 
+    private String codeKey(String email) {
+        return keyPrefix + email;
+    }
+
+    private String attemptsKey(String email) {
+        return keyPrefix + "attempts:" + email;
+    }
+
     /**
-     * 生成随机验证码
+     * 邮箱统一小写，避免通过大小写变化绕过冷却期和配额
      */
-    private String generateCode() {
-        Random random = new Random();
-        StringBuilder code = new StringBuilder();
-        for (int i = 0; i < codeLength; i++) {
-            code.append(random.nextInt(10));
-        }
-        return code.toString();
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
     }
 }
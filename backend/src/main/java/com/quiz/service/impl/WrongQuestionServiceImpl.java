@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.quiz.config.properties.QuizSystemProperties;
 import com.quiz.dto.WrongQuestionWithDetailDto;
 import com.quiz.entity.Question;
 import com.quiz.entity.QuestionBank;
@@ -12,6 +13,7 @@ import com.quiz.mapper.WrongQuestionMapper;
 import com.quiz.service.QuestionBankService;
 import com.quiz.service.QuestionService;
 import com.quiz.service.WrongQuestionService;
+import com.quiz.utils.SamplingUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
@@ -33,33 +35,28 @@ public class WrongQuestionServiceImpl extends ServiceImpl<WrongQuestionMapper, W
 
     private final QuestionService questionService;
     private final QuestionBankService questionBankService;
+    private final QuizSystemProperties quizSystemProperties;
 
     @Override
     public void addWrongQuestion(Long userId, Long bankId, Long questionId, String wrongAnswer) {
-        LambdaQueryWrapper<WrongQuestion> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(WrongQuestion::getUserId, userId)
-                   .eq(WrongQuestion::getQuestionId, questionId);
+        // 单条 upsert：不存在则新建，已存在则累加错误次数并重新标记为未掌握
+        WrongQuestion wrongQuestion = new WrongQuestion();
+        wrongQuestion.setUserId(userId);
+        wrongQuestion.setBankId(bankId);
+        wrongQuestion.setQuestionId(questionId);
+        wrongQuestion.setErrorCount(1);
+        wrongQuestion.setLastErrorTime(LocalDateTime.now());
+        wrongQuestion.setLastErrorAnswer(wrongAnswer);
+        baseMapper.upsertBatch(Collections.singletonList(wrongQuestion));
+    }
 
-        WrongQuestion existingWrong = getOne(queryWrapper);
-
-        if (existingWrong != null) {
-            // 已存在，更新错误次数和错误答案
-            existingWrong.setErrorCount(existingWrong.getErrorCount() + 1);
-            existingWrong.setLastErrorTime(LocalDateTime.now());
-            existingWrong.setLastErrorAnswer(wrongAnswer);
-            existingWrong.setStatus(0); // 重新标记为未掌握
-            updateById(existingWrong);
-        } else {
-            // 不存在，创建新记录
-            WrongQuestion wrongQuestion = new WrongQuestion();
-            wrongQuestion.setUserId(userId);
-            wrongQuestion.setBankId(bankId);
-            wrongQuestion.setQuestionId(questionId);
-            wrongQuestion.setErrorCount(1);
-            wrongQuestion.setLastErrorTime(LocalDateTime.now());
-            wrongQuestion.setLastErrorAnswer(wrongAnswer);
-            wrongQuestion.setStatus(0);
-            save(wrongQuestion);
+    @Override
+    @Transactional
+    public void addWrongQuestions(List<WrongQuestion> wrongQuestions) {
+        // 按固定大小分块，避免单条SQL过长
+        int batchSize = quizSystemProperties.getSession().getFlushBatchSize();
+        for (int from = 0; from < wrongQuestions.size(); from += batchSize) {
+            baseMapper.upsertBatch(wrongQuestions.subList(from, Math.min(from + batchSize, wrongQuestions.size())));
         }
     }
 
@@ -218,9 +215,23 @@ public class WrongQuestionServiceImpl extends ServiceImpl<WrongQuestionMapper, W
             queryWrapper.eq(WrongQuestion::getStatus, status);
         }
 
-        // 使用 last 方法添加原生SQL进行随机排序和限制数量
-        queryWrapper.last("ORDER BY RAND() LIMIT " + count);
-        return list(queryWrapper);
+        // 只查询ID，在内存中抽样后再按ID查询，避免 ORDER BY RAND() 的全量排序
+        queryWrapper.select(WrongQuestion::getId);
+        long[] ids = listObjs(queryWrapper, id -> ((Number) id).longValue()).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        long[] sampled = SamplingUtils.sample(ids, count, new SplittableRandom());
+        if (sampled.length == 0) {
+            return new ArrayList<>();
+        }
+
+        List<Long> sampledIds = Arrays.stream(sampled).boxed().collect(Collectors.toList());
+        Map<Long, WrongQuestion> wrongMap = listByIds(sampledIds).stream()
+                .collect(Collectors.toMap(WrongQuestion::getId, w -> w));
+        return sampledIds.stream()
+                .map(wrongMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     @Override
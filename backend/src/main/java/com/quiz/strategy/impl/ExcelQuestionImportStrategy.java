@@ -1,5 +1,6 @@
 package com.quiz.strategy.impl;
 
+import com.quiz.config.properties.QuizSystemProperties;
 import com.quiz.dto.QuestionImportResult;
 import com.quiz.entity.Question;
 import com.quiz.service.QuestionService;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -31,6 +33,10 @@ import java.util.List;
  * - 解析：可选
  * - 选项：从第5列开始，可以有任意多个选项
  *
+ * 默认通过 {@link XlsxRowReader} 以 SAX 事件模型逐行读取，解析出的题目按 quiz.system.question.import-batch-size
+ * 分批以多行 INSERT 写入（每批一个事务），导入时的内存占用与文件大小无关；
+ * 流式读取无法打开文件或关闭 quiz.system.file.excel-streaming-read 时使用 XSSFWorkbook 整表读取，两者共用单元格文本规则与行解析逻辑。
+ *
  * @author Quiz System
  * @since 2024
  */
@@ -40,6 +46,7 @@ import java.util.List;
 public class ExcelQuestionImportStrategy implements QuestionImportStrategy {
 
     private final QuestionService questionService;
+    private final QuizSystemProperties quizSystemProperties;
 
     @Value("${file.upload.path:/tmp/quiz-uploads}")
     private String uploadPath;
@@ -48,6 +55,7 @@ public class ExcelQuestionImportStrategy implements QuestionImportStrategy {
     public QuestionImportResult importQuestions(String filePath, Long bankId, Long userId) {
         QuestionImportResult result = new QuestionImportResult();
         List<String> errors = new ArrayList<>();
+        ImportState state = null;
 
         try {
             // 将相对路径转换为绝对路径
@@ -62,71 +70,45 @@ public class ExcelQuestionImportStrategy implements QuestionImportStrategy {
                 return result;
             }
 
-            try (FileInputStream fis = new FileInputStream(file);
-                 Workbook workbook = new XSSFWorkbook(fis)) {
-
-                Sheet sheet = workbook.getSheetAt(0);
-                int lastRowNum = sheet.getLastRowNum();
-                int successCount = 0;
-                int skipCount = 0;
-                int totalDataRows = 0;
-                int sortOrder = questionService.countByBankId(bankId); // 从当前最大序号开始
-
-                // 跳过表头行（第0行），从第1行开始处理数据
-                for (int i = 1; i <= lastRowNum; i++) {
-                    Row row = sheet.getRow(i);
-                    if (row == null) {
-                        skipCount++;
-                        continue;
-                    }
-
-                    // 检查是否为空行
-                    if (isEmptyRow(row)) {
-                        continue;
-                    }
-
-                    totalDataRows++;
-
-                    try {
-                        Question question = parseQuestionFromRow(row, bankId, userId, sortOrder);
-                        if (question != null) {
-                            boolean saved = questionService.save(question);
-                            if (saved) {
-                                successCount++;
-                                sortOrder++;
-                            } else {
-                                errors.add(String.format("第%d行保存失败", i + 1));
-                            }
-                        } else {
-                            skipCount++;
-                            errors.add(String.format("第%d行格式错误，已跳过", i + 1));
-                        }
-                    } catch (Exception e) {
-                        skipCount++;
-                        errors.add(String.format("第%d行处理异常：%s", i + 1, e.getMessage()));
-                        log.error("处理第{}行时发生异常", i + 1, e);
+            // 从当前最大序号开始
+            ImportState importState = new ImportState(bankId, userId, questionService.countByBankId(bankId), errors);
+            state = importState;
+            if (quizSystemProperties.getFile().isExcelStreamingRead()) {
+                try {
+                    XlsxRowReader.read(file, (rowNum, cells) -> processRow(importState, rowNum, cells));
+                } catch (Exception e) {
+                    // 尚未读到任何行时（如文件结构不被事件模型支持）改用整表读取
+                    if (importState.rowsSeen > 0) {
+                        throw e;
                     }
+                    log.warn("流式读取Excel失败，改用XSSFWorkbook读取: {}", e.getMessage());
+                    readWorkbook(file, (rowNum, cells) -> processRow(importState, rowNum, cells));
                 }
+            } else {
+                readWorkbook(file, (rowNum, cells) -> processRow(importState, rowNum, cells));
+            }
 
-                result.setTotalCount(totalDataRows);
-                result.setSuccessCount(successCount);
-                result.setSkipCount(skipCount);
-                result.setErrorCount(totalDataRows - successCount - skipCount);
-                result.setErrors(errors);
-
-                if (successCount > 0) {
-                    result.setMessage(String.format("成功导入%d题，跳过%d题", successCount, skipCount));
-                    // 更新题库题目数量
-                    questionService.updateBankQuestionCount(bankId);
-                } else {
-                    result.setMessage("没有成功导入任何题目");
-                }
-
-                return result;
+            flushPending(importState);
+            fillResult(result, importState);
+            if (importState.successCount > 0) {
+                result.setMessage(String.format("成功导入%d题，跳过%d题", importState.successCount, importState.skipCount));
+                // 更新题库题目数量
+                questionService.updateBankQuestionCount(bankId);
+            } else {
+                result.setMessage("没有成功导入任何题目");
             }
+            return result;
         } catch (Exception e) {
             log.error("Excel文件解析失败", e);
             errors.add("Excel文件解析失败：" + e.getMessage());
+            if (state != null) {
+                // 已解析的题目仍然写入
+                flushPending(state);
+                fillResult(result, state);
+                if (state.successCount > 0) {
+                    questionService.updateBankQuestionCount(bankId);
+                }
+            }
             result.setErrors(errors);
             result.setMessage("文件解析失败");
             return result;
@@ -134,20 +116,106 @@ public class ExcelQuestionImportStrategy implements QuestionImportStrategy {
     }
 
     /**
-     * 检查是否为空行
+     * 处理一行数据：跳过表头行（第0行）与空行，解析后加入待写入批次，批次满时写入
      */
-    private boolean isEmptyRow(Row row) {
-        int lastCellNum = row.getLastCellNum();
-        if (lastCellNum <= 0) {
-            return true;
+    private void processRow(ImportState state, int rowNum, List<String> cells) {
+        state.rowsSeen++;
+        if (rowNum == 0 || isEmptyRow(cells)) {
+            return;
         }
-        for (int j = 0; j < lastCellNum; j++) {
-            Cell cell = row.getCell(j);
-            if (cell != null) {
-                String cellValue = getCellStringValue(cell);
-                if (cellValue != null && !cellValue.trim().isEmpty()) {
-                    return false;
+
+        state.totalDataRows++;
+
+        try {
+            Question question = parseQuestionFromRow(cells, state.bankId, state.userId);
+            if (question != null) {
+                state.pending.add(question);
+                state.pendingRows.add(rowNum);
+                if (state.pending.size() >= quizSystemProperties.getQuestion().getImportBatchSize()) {
+                    flushPending(state);
                 }
+            } else {
+                state.skipCount++;
+                state.errors.add(String.format("第%d行格式错误，已跳过", rowNum + 1));
+            }
+        } catch (Exception e) {
+            state.skipCount++;
+            state.errors.add(String.format("第%d行处理异常：%s", rowNum + 1, e.getMessage()));
+            log.error("处理第{}行时发生异常", rowNum + 1, e);
+        }
+    }
+
+    /**
+     * 写入待写入批次：一条多行 INSERT、一个事务；失败时整批回滚，再逐行保存以定位出错的行。
+     * 排序号在写入时分配，只有成功保存的题目占用序号，失败的行不会在题库中留下空缺
+     */
+    private void flushPending(ImportState state) {
+        if (state.pending.isEmpty()) {
+            return;
+        }
+        try {
+            for (int i = 0; i < state.pending.size(); i++) {
+                state.pending.get(i).setSortOrder(state.sortOrder + i);
+            }
+            questionService.insertBatch(state.pending);
+            state.successCount += state.pending.size();
+            state.sortOrder += state.pending.size();
+        } catch (Exception e) {
+            log.warn("批量写入{}道题目失败，改为逐行保存: {}", state.pending.size(), e.getMessage());
+            for (int i = 0; i < state.pending.size(); i++) {
+                int rowNum = state.pendingRows.get(i);
+                Question question = state.pending.get(i);
+                question.setSortOrder(state.sortOrder);
+                try {
+                    if (questionService.save(question)) {
+                        state.successCount++;
+                        state.sortOrder++;
+                    } else {
+                        state.errors.add(String.format("第%d行保存失败", rowNum + 1));
+                    }
+                } catch (Exception rowException) {
+                    state.errors.add(String.format("第%d行保存失败：%s", rowNum + 1, rowException.getMessage()));
+                    log.error("保存第{}行时发生异常", rowNum + 1, rowException);
+                }
+            }
+        } finally {
+            state.pending.clear();
+            state.pendingRows.clear();
+        }
+    }
+
+    private static void fillResult(QuestionImportResult result, ImportState state) {
+        result.setTotalCount(state.totalDataRows);
+        result.setSuccessCount(state.successCount);
+        result.setSkipCount(state.skipCount);
+        result.setErrorCount(state.totalDataRows - state.successCount - state.skipCount);
+        result.setErrors(state.errors);
+    }
+
+    /**
+     * 使用 XSSFWorkbook 整表读取第一个工作表（整个工作表加载到内存，作为流式读取的后备）
+     */
+    private void readWorkbook(File file, XlsxRowReader.RowHandler handler) throws IOException {
+        try (FileInputStream fis = new FileInputStream(file);
+             Workbook workbook = new XSSFWorkbook(fis)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                List<String> cells = new ArrayList<>();
+                for (int j = 0; j < row.getLastCellNum(); j++) {
+                    cells.add(XlsxRowReader.cellText(row.getCell(j)));
+                }
+                handler.handle(row.getRowNum(), cells);
+            }
+        }
+    }
+
+    /**
+     * 检查是否为空行
+     */
+    private boolean isEmptyRow(List<String> cells) {
+        for (String cellValue : cells) {
+            if (cellValue != null && !cellValue.trim().isEmpty()) {
+                return false;
             }
         }
         return true;
@@ -198,16 +266,15 @@ public class ExcelQuestionImportStrategy implements QuestionImportStrategy {
      * 从Excel行解析题目对象
      * Excel格式：试题类型 | 题目 | 答案 | 解析 | 选项1 | 选项2 | 选项3 | ...
      */
-    private Question parseQuestionFromRow(Row row, Long bankId, Long userId, int sortOrder) {
+    private Question parseQuestionFromRow(List<String> cells, Long bankId, Long userId) {
         try {
             Question question = new Question();
             question.setBankId(bankId);
             question.setCreatedBy(userId);
-            question.setSortOrder(sortOrder);
             question.setStatus(1);
 
             // 试题类型 (列0)
-            String typeStr = getCellStringValue(row.getCell(0));
+            String typeStr = getCell(cells, 0);
             if (typeStr == null || typeStr.trim().isEmpty()) {
                 return null;
             }
@@ -220,30 +287,29 @@ public class ExcelQuestionImportStrategy implements QuestionImportStrategy {
             question.setType(type);
 
             // 题目内容 (列1)
-            String content = getCellStringValue(row.getCell(1));
+            String content = getCell(cells, 1);
             if (content == null || content.trim().isEmpty()) {
                 return null; // 题目内容是必需的
             }
             question.setContent(content);
 
             // 答案 (列2)
-            String answer = getCellStringValue(row.getCell(2));
+            String answer = getCell(cells, 2);
             if (answer == null || answer.trim().isEmpty()) {
                 return null; // 正确答案是必需的
             }
             question.setCorrectAnswer(answer.trim());
 
             // 解析 (列3)
-            String analysis = getCellStringValue(row.getCell(3));
+            String analysis = getCell(cells, 3);
             if (analysis != null && !analysis.trim().isEmpty()) {
                 question.setAnalysis(analysis.trim());
             }
 
             // 选项 (列4开始，可以有任意多个)
             List<String> options = new ArrayList<>();
-            int lastCellNum = row.getLastCellNum();
-            for (int i = 4; i < lastCellNum; i++) {
-                String option = getCellStringValue(row.getCell(i));
+            for (int i = 4; i < cells.size(); i++) {
+                String option = cells.get(i);
                 if (option != null && !option.trim().isEmpty()) {
                     options.add(option.trim());
                 }
@@ -303,48 +369,34 @@ public class ExcelQuestionImportStrategy implements QuestionImportStrategy {
         }
     }
 
+    private static String getCell(List<String> cells, int index) {
+        return index < cells.size() ? cells.get(index) : null;
+    }
+
     /**
-     * 安全获取单元格字符串值
+     * 单次导入的进度与计数
      */
-    private String getCellStringValue(Cell cell) {
-        if (cell == null) {
-            return null;
-        }
-
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue().trim();
-            case NUMERIC:
-                double numericValue = cell.getNumericCellValue();
-                if (numericValue == (long) numericValue) {
-                    return String.valueOf((long) numericValue);
-                } else {
-                    return String.valueOf(numericValue);
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                try {
-                    switch (cell.getCachedFormulaResultType()) {
-                        case STRING:
-                            return cell.getStringCellValue().trim();
-                        case NUMERIC:
-                            double formulaValue = cell.getNumericCellValue();
-                            if (formulaValue == (long) formulaValue) {
-                                return String.valueOf((long) formulaValue);
-                            } else {
-                                return String.valueOf(formulaValue);
-                            }
-                        case BOOLEAN:
-                            return String.valueOf(cell.getBooleanCellValue());
-                        default:
-                            return cell.getCellFormula();
-                    }
-                } catch (Exception e) {
-                    return cell.getCellFormula();
-                }
-            default:
-                return null;
+    private static final class ImportState {
+
+        private final Long bankId;
+        private final Long userId;
+        private final List<String> errors;
+        private final List<Question> pending = new ArrayList<>();
+        private final List<Integer> pendingRows = new ArrayList<>();
+        /**
+         * 下一道成功写入的题目使用的排序号
+         */
+        private int sortOrder;
+        private int rowsSeen;
+        private int totalDataRows;
+        private int successCount;
+        private int skipCount;
+
+        ImportState(Long bankId, Long userId, int sortOrder, List<String> errors) {
+            this.bankId = bankId;
+            this.userId = userId;
+            this.sortOrder = sortOrder;
+            this.errors = errors;
         }
     }
 }
@@ -0,0 +1,215 @@
+package com.quiz.strategy.impl;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 基于 SAX 事件模型的 xlsx 逐行读取器
+ * <p>
+ * 直接解析第一个工作表的 XML，每读完一行回调一次，行对象不保留；
+ * 内存中只有共享字符串表（仅字符串本身）与当前行，不构建整表的 DOM。
+ * <p>
+ * 单元格文本规则与整表读取共用（见 {@link #cellText(Cell)}），两种读取方式得到相同的行：
+ * 字符串去除首尾空白；数值不套用单元格格式，整数不带小数部分，其余按 {@link Double#toString(double)}；
+ * 布尔为 TRUE/FALSE；错误为 "ERROR:" 加错误码；公式取缓存结果并按其类型套用上述规则，没有缓存结果时视为空单元格。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+final class XlsxRowReader {
+
+    /**
+     * 行回调
+     */
+    interface RowHandler {
+
+        /**
+         * 处理一行
+         *
+         * @param rowNum 行号（从 0 开始）
+         * @param cells  按列下标排列的单元格文本（已去除首尾空白），缺失的单元格为 null
+         */
+        void handle(int rowNum, List<String> cells);
+    }
+
+    private XlsxRowReader() {
+    }
+
+    /**
+     * 逐行读取第一个工作表
+     */
+    static void read(File file, RowHandler handler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new TypedSheetHandler(reader.getStylesTable(), strings, new RowCollector(handler)));
+                parser.parse(new InputSource(sheet));
+            }
+        }
+    }
+
+    /**
+     * 整表读取时的单元格文本，与事件模型读取的结果一致
+     */
+    static String cellText(Cell cell) {
+        if (cell == null) {
+            return null;
+        }
+        CellType type = cell.getCellType();
+        if (type == CellType.FORMULA) {
+            if (cell instanceof XSSFCell && !((XSSFCell) cell).getCTCell().isSetV()) {
+                return null;
+            }
+            type = cell.getCachedFormulaResultType();
+        }
+        switch (type) {
+            case STRING:
+                return cell.getStringCellValue().trim();
+            case NUMERIC:
+                return numberText(cell.getNumericCellValue());
+            case BOOLEAN:
+                return cell.getBooleanCellValue() ? "TRUE" : "FALSE";
+            case ERROR:
+                return "ERROR:" + FormulaError.forInt(cell.getErrorCellValue()).getString();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 数值文本：整数不带小数部分，其余按 {@link Double#toString(double)}
+     */
+    static String numberText(double value) {
+        if (value == (long) value) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * 忽略单元格数字格式（千分位、日期、百分比等），按 {@link #numberText(double)} 输出数值
+     */
+    private static final class RawNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return numberText(value);
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            return numberText(value);
+        }
+    }
+
+    /**
+     * 记录每个单元格的类型属性（t），供 {@link RowCollector} 按类型归一化；
+     * 父类对公式单元格只给出缓存值的原始文本，布尔与错误结果无法从文本本身区分
+     */
+    private static final class TypedSheetHandler extends XSSFSheetXMLHandler {
+
+        private final RowCollector collector;
+
+        TypedSheetHandler(StylesTable styles, ReadOnlySharedStringsTable strings, RowCollector collector) {
+            super(styles, strings, collector, new RawNumberFormatter(), false);
+            this.collector = collector;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            if ("c".equals(localName)) {
+                collector.cellType = attributes.getValue("t");
+            }
+            super.startElement(uri, localName, qName, attributes);
+        }
+    }
+
+    /**
+     * 将单元格事件组装为行
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+        private String cellType;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.handle(rowNum, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            String value = normalize(formattedValue);
+            if (column < cells.size()) {
+                cells.set(column, value);
+            } else {
+                cells.add(value);
+            }
+        }
+
+        private String normalize(String value) {
+            if (value == null) {
+                return null;
+            }
+            if (cellType == null || "n".equals(cellType)) {
+                // 无样式表时父类直接给出原始数值文本
+                try {
+                    return numberText(Double.parseDouble(value));
+                } catch (NumberFormatException e) {
+                    return value.trim();
+                }
+            }
+            switch (cellType) {
+                case "b":
+                    // 普通布尔单元格为 TRUE/FALSE，布尔公式的缓存值为 1/0
+                    return "1".equals(value) || "TRUE".equalsIgnoreCase(value) ? "TRUE" : "FALSE";
+                case "e":
+                    return value.startsWith("ERROR:") ? value : "ERROR:" + value;
+                default:
+                    return value.trim();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.quiz.utils;
+
+import com.quiz.entity.UserAnswer;
+
+/**
+ * 答题计数规则工具类
+ * <p>
+ * 空白答案（null、空串或只含空格）不计为作答，也不计为答对。
+ * SQL 侧对应的条件为 {@code TRIM(user_answer) <> ''}（TRIM 只去除空格），
+ * 会话计数器、答题统计、排行榜与题目计数器都按这一条规则计数。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public final class AnswerUtils {
+
+    private AnswerUtils() {
+    }
+
+    /**
+     * 答案是否计为作答：含有空格以外的字符
+     */
+    public static boolean isAnswered(String userAnswer) {
+        if (userAnswer == null) {
+            return false;
+        }
+        for (int i = 0; i < userAnswer.length(); i++) {
+            if (userAnswer.charAt(i) != ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 答题记录计入的作答数（0 或 1），记录为 null 时为 0
+     */
+    public static int answered(UserAnswer answer) {
+        return answer != null && isAnswered(answer.getUserAnswer()) ? 1 : 0;
+    }
+
+    /**
+     * 答题记录计入的答对数（0 或 1），空白答案即使判为正确也不计入
+     */
+    public static int correct(UserAnswer answer) {
+        return answered(answer) == 1 && answer.getIsCorrect() != null && answer.getIsCorrect() == 1 ? 1 : 0;
+    }
+}
@@ -0,0 +1,104 @@
+package com.quiz.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 客户端IP工具类
+ *
+ * <p>默认只信任直接连接方地址（{@link HttpServletRequest#getRemoteAddr()}），
+ * X-Forwarded-For / X-Real-IP 可由客户端任意伪造，仅当直接连接方属于配置的受信任代理时才采用。</p>
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public final class IpUtils {
+
+    private static final String UNKNOWN = "unknown";
+
+    /**
+     * 受信任代理配置项（IP或CIDR）到匹配器的缓存
+     */
+    private static final Map<String, IpAddressMatcher> MATCHERS = new ConcurrentHashMap<>();
+
+    private IpUtils() {
+    }
+
+    /**
+     * 获取客户端IP，不信任任何转发头，直接返回连接方地址
+     */
+    public static String getClientIp(HttpServletRequest request) {
+        return getClientIp(request, Collections.emptyList());
+    }
+
+    /**
+     * 获取客户端IP
+     *
+     * <p>直接连接方不在受信任代理列表中时返回连接方地址；否则从 X-Forwarded-For 自右向左
+     * 跳过受信任代理，取第一个不受信任的地址（左侧条目可被客户端伪造，不能直接取第一个）；
+     * 没有 X-Forwarded-For 时采用 X-Real-IP。</p>
+     *
+     * @param request        请求
+     * @param trustedProxies 受信任的反向代理地址（IP或CIDR）
+     */
+    public static String getClientIp(HttpServletRequest request, Collection<String> trustedProxies) {
+        if (request == null) {
+            return UNKNOWN;
+        }
+        String remote = request.getRemoteAddr();
+        if (remote == null || remote.isBlank()) {
+            return UNKNOWN;
+        }
+        if (trustedProxies == null || trustedProxies.isEmpty() || !isTrusted(remote, trustedProxies)) {
+            return remote;
+        }
+
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            List<String> hops = new ArrayList<>();
+            for (String hop : forwarded.split(",")) {
+                String value = hop.trim();
+                if (!value.isEmpty() && !UNKNOWN.equalsIgnoreCase(value)) {
+                    hops.add(value);
+                }
+            }
+            for (int i = hops.size() - 1; i >= 0; i--) {
+                if (!isTrusted(hops.get(i), trustedProxies)) {
+                    return hops.get(i);
+                }
+            }
+            if (!hops.isEmpty()) {
+                // 整条链都是受信任代理，取最早的一跳
+                return hops.get(0);
+            }
+        }
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && !realIp.isBlank() && !UNKNOWN.equalsIgnoreCase(realIp.trim())) {
+            return realIp.trim();
+        }
+        return remote;
+    }
+
+    private static boolean isTrusted(String address, Collection<String> trustedProxies) {
+        for (String proxy : trustedProxies) {
+            if (proxy == null || proxy.isBlank()) {
+                continue;
+            }
+            try {
+                if (MATCHERS.computeIfAbsent(proxy.trim(), IpAddressMatcher::new).matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // 非法地址（伪造的转发头或错误的配置项）一律视为不受信任
+            }
+        }
+        return false;
+    }
+}
@@ -1,17 +1,30 @@
 package com.quiz.utils;
 
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.quiz.dto.TokenClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 
 /**
  * JWT工具类
+ * <p>
+ * 签名密钥与解析器在启动时构建一次；验证通过的 Token 以 SHA-256 摘要为键缓存到其过期时间，
+ * 同一 Token 在有效期内每个节点只做一次签名校验。
  *
  * @author Quiz System
  * @since 2024-09-26
@@ -25,6 +38,25 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${quiz.system.security.token-cache-capacity:10000}")
+    private int tokenCacheCapacity = 10000;
+
+    private Key key;
+    private JwtParser parser;
+    private LRUCache<String, TokenClaims> verifiedTokens;
+
+    /**
+     * 构建签名密钥、解析器与已验证 Token 缓存
+     */
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        verifiedTokens = CacheUtil.newLRUCache(tokenCacheCapacity);
+    }
+
     /**
      * 生成JWT Token
      */
@@ -32,8 +64,6 @@ public class JwtUtils {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration * 1000);
 
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-
         return Jwts.builder()
                 .setSubject(username)
                 .claim("userId", userId)
@@ -43,51 +73,77 @@ public class JwtUtils {
                 .compact();
     }
 
+    /**
+     * 验证Token并返回声明，无效或已过期时返回 null
+     */
+    public TokenClaims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String digest = digest(token);
+        TokenClaims cached = verifiedTokens.get(digest, false);
+        if (cached != null) {
+            return cached.isExpired() ? null : cached;
+        }
+
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            TokenClaims tokenClaims = new TokenClaims(claims.get("userId", Long.class), claims.getSubject(), claims.getExpiration());
+            if (tokenClaims.getExpiration() == null || tokenClaims.isExpired()) {
+                return null;
+            }
+            verifiedTokens.put(digest, tokenClaims, tokenClaims.getExpiration().getTime() - System.currentTimeMillis());
+            return tokenClaims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * 从Token中获取用户名
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getSubject();
+        return getClaimsFromToken(token).getUsername();
     }
 
     /**
      * 从Token中获取用户ID
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return getClaimsFromToken(token).getUserId();
     }
 
     /**
      * 验证Token是否有效
      */
     public boolean validateToken(String token) {
-        try {
-            Claims claims = getClaimsFromToken(token);
-            return !claims.getExpiration().before(new Date());
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token) != null;
     }
 
     /**
-     * 从Token中获取Claims
+     * 获取Token的过期时间
      */
-    private Claims getClaimsFromToken(String token) {
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Date getExpirationDateFromToken(String token) {
+        return getClaimsFromToken(token).getExpiration();
     }
 
     /**
-     * 获取Token的过期时间
+     * 从Token中获取声明，Token无效时抛出异常
      */
-    public Date getExpirationDateFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getExpiration();
+    private TokenClaims getClaimsFromToken(String token) {
+        TokenClaims claims = verify(token);
+        if (claims == null) {
+            throw new JwtException("Token无效或已过期");
+        }
+        return claims;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
     }
 }
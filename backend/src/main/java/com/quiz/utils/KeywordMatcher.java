@@ -0,0 +1,218 @@
+package com.quiz.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 多关键词匹配器（Aho–Corasick 自动机）
+ * <p>
+ * 构建一次后可被多线程共享；每次匹配只对文本做一次线性扫描，统计命中的不同关键词个数。
+ * 构建与匹配时均对字符做全角转半角、忽略大小写处理。
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public final class KeywordMatcher {
+
+    private static final int ROOT = 0;
+    private static final int[] NO_OUTPUT = new int[0];
+
+    /**
+     * 各状态的出边字符（升序）与目标状态
+     */
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+
+    /**
+     * 失配指针
+     */
+    private final int[] fail;
+
+    /**
+     * 到达各状态时命中的关键词下标（已合并失配链上的输出）
+     */
+    private final int[][] outputs;
+
+    private final int keywordCount;
+
+    private KeywordMatcher(char[][] edgeChars, int[][] edgeTargets, int[] fail, int[][] outputs, int keywordCount) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.outputs = outputs;
+        this.keywordCount = keywordCount;
+    }
+
+    /**
+     * 构建匹配器，空白关键词与重复关键词会被忽略
+     */
+    public static KeywordMatcher of(Collection<String> keywords) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.trim().isEmpty()) {
+                normalized.add(normalize(keyword.trim()));
+            }
+        }
+
+        // 构建字典树
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> own = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        own.add(new ArrayList<>());
+        int index = 0;
+        for (String keyword : normalized) {
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                Integer next = trie.get(state).get(keyword.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(state).put(keyword.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    own.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            own.get(state).add(index++);
+        }
+
+        int size = trie.size();
+        char[][] edgeChars = new char[size][];
+        int[][] edgeTargets = new int[size][];
+        for (int state = 0; state < size; state++) {
+            Map<Character, Integer> edges = trie.get(state);
+            edgeChars[state] = new char[edges.size()];
+            edgeTargets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[state][i] = edge.getKey();
+                edgeTargets[state][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // 按层序计算失配指针，并把失配状态的输出并入当前状态
+        int[] fail = new int[size];
+        int[][] outputs = new int[size][];
+        outputs[ROOT] = NO_OUTPUT;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[ROOT]) {
+            fail[target] = ROOT;
+            outputs[target] = toArray(own.get(target), NO_OUTPUT);
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < edgeChars[state].length; i++) {
+                char c = edgeChars[state][i];
+                int target = edgeTargets[state][i];
+                int f = fail[state];
+                while (f != ROOT && next(edgeChars, edgeTargets, f, c) < 0) {
+                    f = fail[f];
+                }
+                int fallback = next(edgeChars, edgeTargets, f, c);
+                fail[target] = fallback >= 0 ? fallback : ROOT;
+                outputs[target] = toArray(own.get(target), outputs[fail[target]]);
+                queue.add(target);
+            }
+        }
+        return new KeywordMatcher(edgeChars, edgeTargets, fail, outputs, normalized.size());
+    }
+
+    /**
+     * 关键词个数（去重后）
+     */
+    public int size() {
+        return keywordCount;
+    }
+
+    /**
+     * 统计文本中命中的不同关键词个数
+     */
+    public int countMatches(CharSequence text) {
+        if (keywordCount == 0 || text == null) {
+            return 0;
+        }
+        long[] seen = new long[(keywordCount + 63) >>> 6];
+        int matched = 0;
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = normalize(text.charAt(i));
+            int target = next(edgeChars, edgeTargets, state, c);
+            while (target < 0 && state != ROOT) {
+                state = fail[state];
+                target = next(edgeChars, edgeTargets, state, c);
+            }
+            state = target >= 0 ? target : ROOT;
+            for (int keyword : outputs[state]) {
+                long bit = 1L << keyword;
+                if ((seen[keyword >>> 6] & bit) == 0) {
+                    seen[keyword >>> 6] |= bit;
+                    if (++matched == keywordCount) {
+                        return matched;
+                    }
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 字符标准化：全角转半角、转小写
+     */
+    public static char normalize(char c) {
+        if (c == '　') {
+            return ' ';
+        }
+        if (c >= '！' && c <= '～') {
+            c = (char) (c - 0xFEE0);
+        }
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * 字符串标准化：全角转半角、转小写
+     */
+    public static String normalize(String value) {
+        char[] chars = new char[value.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = normalize(value.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private static int next(char[][] edgeChars, int[][] edgeTargets, int state, char c) {
+        char[] chars = edgeChars[state];
+        int low = 0;
+        int high = chars.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chars[mid] < c) {
+                low = mid + 1;
+            } else if (chars[mid] > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[state][mid];
+            }
+        }
+        return -1;
+    }
+
+    private static int[] toArray(List<Integer> own, int[] inherited) {
+        if (own.isEmpty()) {
+            return inherited;
+        }
+        int[] result = new int[own.size() + inherited.length];
+        for (int i = 0; i < own.size(); i++) {
+            result[i] = own.get(i);
+        }
+        System.arraycopy(inherited, 0, result, own.size(), inherited.length);
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package com.quiz.utils;
+
+import java.security.SecureRandom;
+
+/**
+ * 随机码生成工具类
+ * 全局共享一个 SecureRandom 实例（线程安全），用于验证码、临时密码等安全敏感的随机串
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public final class RandomCodeGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final char[] DIGITS = "0123456789".toCharArray();
+    private static final char[] ALPHANUMERIC =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    private RandomCodeGenerator() {
+    }
+
+    /**
+     * 生成指定长度的数字验证码
+     */
+    public static String numeric(int length) {
+        return generate(DIGITS, length);
+    }
+
+    /**
+     * 生成指定长度的字母数字随机串
+     */
+    public static String alphanumeric(int length) {
+        return generate(ALPHANUMERIC, length);
+    }
+
+    private static String generate(char[] alphabet, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet[RANDOM.nextInt(alphabet.length)];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,42 @@
+package com.quiz.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 随机抽样工具类
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public final class SamplingUtils {
+
+    private SamplingUtils() {
+    }
+
+    /**
+     * 从ID数组中无放回地抽取 k 个元素（稀疏 Fisher–Yates）
+     * 不复制、不修改原数组，只记录被交换过的位置，耗时与内存均为 O(k)；
+     * 相同的数组与随机源状态得到相同的结果，可用于按种子复现。
+     *
+     * @param ids 候选ID
+     * @param k 抽取数量，超过候选数量时取全部
+     * @param random 随机源
+     * @return 抽中的ID（按抽取顺序）
+     */
+    public static long[] sample(long[] ids, int k, SplittableRandom random) {
+        int n = ids.length;
+        int count = Math.min(Math.max(k, 0), n);
+        long[] result = new long[count];
+        Map<Integer, Integer> swapped = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(n - i);
+            int valueAtJ = swapped.getOrDefault(j, j);
+            int valueAtI = swapped.getOrDefault(i, i);
+            swapped.put(j, valueAtI);
+            result[i] = ids[valueAtJ];
+        }
+        return result;
+    }
+}
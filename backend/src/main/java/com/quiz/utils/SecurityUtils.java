@@ -1,6 +1,7 @@
 package com.quiz.utils;
 
 import com.quiz.config.CustomUserDetails;
+import com.quiz.dto.UserPrincipal;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -39,6 +40,17 @@ public class SecurityUtils {
         return null;
     }
 
+    /**
+     * 获取当前登录用户快照（由JWT认证过滤器放入，未登录时返回 null）
+     */
+    public static UserPrincipal getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails) {
+            return ((CustomUserDetails) authentication.getPrincipal()).getPrincipal();
+        }
+        return null;
+    }
+
     /**
      * 获取当前登录用户名
      */
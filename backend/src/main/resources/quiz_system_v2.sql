@@ -75,6 +75,9 @@ CREATE TABLE `questions` (
   `sort_order` int DEFAULT 0 COMMENT '排序顺序',
   `status` tinyint DEFAULT 1 COMMENT '状态（0-禁用，1-启用）',
   `created_by` bigint NULL COMMENT '创建者ID',
+  `view_count` bigint NOT NULL DEFAULT 0 COMMENT '浏览次数',
+  `answer_count` bigint NOT NULL DEFAULT 0 COMMENT '答题次数',
+  `correct_count` bigint NOT NULL DEFAULT 0 COMMENT '答对次数',
   `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
@@ -130,11 +133,14 @@ CREATE TABLE `user_answers` (
   `question_index` int NOT NULL COMMENT '题目索引',
   `user_answer` text NULL COMMENT '用户答案',
   `is_correct` tinyint NULL COMMENT '是否正确（NULL-未判定）',
+  `wrong_count` int NOT NULL DEFAULT 0 COMMENT '写回模式下本会话该题已计入错题本的答错次数',
   `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
   UNIQUE INDEX `idx_session_question` (`session_id`, `question_id`),
   INDEX `idx_user_id` (`user_id`),
+  INDEX `idx_user_created` (`user_id`, `created_at`),
+  INDEX `idx_user_question_correct` (`user_id`, `question_id`, `is_correct`),
   INDEX `idx_session_id` (`session_id`),
   INDEX `idx_question_id` (`question_id`),
   CONSTRAINT `fk_answer_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE,
@@ -188,6 +194,78 @@ CREATE TABLE `favorites` (
   CONSTRAINT `fk_favorite_question` FOREIGN KEY (`question_id`) REFERENCES `questions` (`id`) ON DELETE CASCADE
 ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = '收藏表';
 
+-- ----------------------------
+-- Table structure for session_papers (新增)
+-- ----------------------------
+DROP TABLE IF EXISTS `session_papers`;
+CREATE TABLE `session_papers` (
+  `session_id` varchar(100) NOT NULL COMMENT '会话标识',
+  `question_ids` mediumtext NOT NULL COMMENT '有序题目ID列表（JSON数组）',
+  `question_count` int NOT NULL COMMENT '题目数量',
+  `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`session_id`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = '会话试卷表';
+
+-- ----------------------------
+-- Table structure for email_outbox (新增)
+-- ----------------------------
+DROP TABLE IF EXISTS `email_outbox`;
+CREATE TABLE `email_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '邮件ID',
+  `recipient` varchar(255) NOT NULL COMMENT '收件人邮箱',
+  `subject` varchar(500) NOT NULL COMMENT '邮件主题',
+  `content` mediumtext NULL COMMENT '邮件内容（HTML），发送成功或最终失败后清空',
+  `status` enum('pending','sending','sent','failed') NOT NULL DEFAULT 'pending' COMMENT '投递状态',
+  `attempts` int NOT NULL DEFAULT 0 COMMENT '已尝试投递次数',
+  `next_attempt_at` datetime NOT NULL COMMENT '下次可投递时间（投递中时为租约到期时间）',
+  `claim_token` varchar(64) DEFAULT NULL COMMENT '当前认领批次标识',
+  `last_error` varchar(500) DEFAULT NULL COMMENT '最近一次投递失败原因',
+  `sent_at` datetime DEFAULT NULL COMMENT '发送成功时间',
+  `created_at` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  INDEX `idx_status_next_attempt` (`status`, `next_attempt_at`),
+  INDEX `idx_claim_token` (`claim_token`),
+  INDEX `idx_sent_at` (`sent_at`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = '邮件发件箱表';
+
+-- ----------------------------
+-- Table structure for user_daily_stats (新增)
+-- ----------------------------
+DROP TABLE IF EXISTS `user_daily_stats`;
+CREATE TABLE `user_daily_stats` (
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `stat_date` date NOT NULL COMMENT '统计日期',
+  `answered` int NOT NULL DEFAULT 0 COMMENT '答题数',
+  `correct` int NOT NULL DEFAULT 0 COMMENT '正确数',
+  `single_count` int NOT NULL DEFAULT 0 COMMENT '单选题答题数',
+  `multiple_count` int NOT NULL DEFAULT 0 COMMENT '多选题答题数',
+  `judge_count` int NOT NULL DEFAULT 0 COMMENT '判断题答题数',
+  `essay_count` int NOT NULL DEFAULT 0 COMMENT '简答题答题数',
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`user_id`, `stat_date`),
+  INDEX `idx_stat_date` (`stat_date`),
+  CONSTRAINT `fk_daily_stats_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = '用户每日答题统计表';
+
+-- ----------------------------
+-- Table structure for question_item_stats (新增)
+-- ----------------------------
+DROP TABLE IF EXISTS `question_item_stats`;
+CREATE TABLE `question_item_stats` (
+  `question_id` bigint NOT NULL COMMENT '题目ID',
+  `bank_id` bigint NOT NULL COMMENT '题库ID',
+  `attempts` bigint NOT NULL DEFAULT 0 COMMENT '作答次数',
+  `correct` bigint NOT NULL DEFAULT 0 COMMENT '答对次数',
+  `difficulty` decimal(6,4) NULL DEFAULT NULL COMMENT '难度（p 值，答对比例）',
+  `discrimination` decimal(6,4) NULL DEFAULT NULL COMMENT '区分度（点二列相关，样本不足时为空）',
+  `option_counts` json NULL COMMENT '各选项被选次数',
+  `computed_at` datetime NOT NULL COMMENT '计算时间',
+  PRIMARY KEY (`question_id`),
+  INDEX `idx_bank_id` (`bank_id`),
+  CONSTRAINT `fk_item_stats_question` FOREIGN KEY (`question_id`) REFERENCES `questions` (`id`) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = '题目条目分析表';
+
 SET FOREIGN_KEY_CHECKS = 1;
 
 -- ----------------------------
@@ -195,3 +273,15 @@ SET FOREIGN_KEY_CHECKS = 1;
 -- ----------------------------
 -- ALTER TABLE `quiz_sessions` ADD COLUMN `deleted` tinyint DEFAULT 0 COMMENT '是否已删除（0-未删除，1-已删除）' AFTER `status`;
 -- ALTER TABLE `quiz_sessions` ADD INDEX `idx_deleted` (`deleted`);
+-- 已有数据库单独执行上方 session_papers 建表语句（分窗获取题目）
+-- 已有数据库单独执行上方 email_outbox 建表语句（邮件异步投递）
+-- 已有数据库单独执行上方 user_daily_stats 建表语句（每日统计汇总，建表后调用 POST /admin/statistics/daily/rebuild 回填历史数据）
+-- ALTER TABLE `user_answers` ADD INDEX `idx_user_created` (`user_id`, `created_at`);
+-- ALTER TABLE `user_answers` ADD INDEX `idx_user_question_correct` (`user_id`, `question_id`, `is_correct`);
+-- ALTER TABLE `user_answers` ADD COLUMN `wrong_count` int NOT NULL DEFAULT 0 COMMENT '写回模式下本会话该题已计入错题本的答错次数' AFTER `is_correct`;
+-- ALTER TABLE `questions` ADD COLUMN `view_count` bigint NOT NULL DEFAULT 0 COMMENT '浏览次数' AFTER `created_by`,
+--   ADD COLUMN `answer_count` bigint NOT NULL DEFAULT 0 COMMENT '答题次数' AFTER `view_count`,
+--   ADD COLUMN `correct_count` bigint NOT NULL DEFAULT 0 COMMENT '答对次数' AFTER `answer_count`;
+-- 已有数据库单独执行上方 question_item_stats 建表语句（题目条目分析）
+-- ALTER TABLE `email_outbox` MODIFY COLUMN `content` mediumtext NULL COMMENT '邮件内容（HTML），发送成功或最终失败后清空';
+-- UPDATE `email_outbox` SET `content` = NULL WHERE `status` IN ('sent', 'failed');
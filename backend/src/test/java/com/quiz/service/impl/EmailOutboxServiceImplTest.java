@@ -0,0 +1,145 @@
+package com.quiz.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.entity.EmailOutbox;
+import com.quiz.mapper.EmailOutboxMapper;
+import com.quiz.support.SmtpStandIn;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+
+/**
+ * 邮件发件箱投递测试（进程内 SMTP 替身接收邮件，发件箱表被替换为桩）
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+class EmailOutboxServiceImplTest {
+
+    private static final int MESSAGES = 50;
+
+    private final AtomicLong ids = new AtomicLong();
+    private SmtpStandIn smtp;
+    private EmailOutboxMapper mapper;
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // LambdaUpdateWrapper 解析列名需要实体的表信息
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), EmailOutbox.class);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new SmtpStandIn();
+        mapper = Mockito.mock(EmailOutboxMapper.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void dispatchDeliversEveryMessageOverOneConnectionPerBatch(int batchSize) throws MessagingException {
+        EmailOutboxServiceImpl outboxService = createService(batchSize);
+
+        int dispatched = 0;
+        while (dispatched < MESSAGES) {
+            dispatched += outboxService.dispatchBatch();
+        }
+
+        Set<String> subjects = new HashSet<>();
+        for (byte[] raw : smtp.drainCaptured()) {
+            subjects.add(new MimeMessage(null, new ByteArrayInputStream(raw)).getSubject());
+        }
+        assertEquals(MESSAGES, subjects.size());
+        assertEquals(MESSAGES, counter("sent"));
+        assertEquals(0, counter("retry"));
+        assertEquals(0, counter("failed"));
+        assertEquals(MESSAGES / batchSize, smtp.getConnections());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50})
+    void deliveredMessagesHaveTheirBodyCleared(int batchSize) {
+        EmailOutboxServiceImpl outboxService = createService(batchSize);
+
+        outboxService.dispatchBatch();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Wrapper<EmailOutbox>> updates = ArgumentCaptor.forClass(Wrapper.class);
+        Mockito.verify(mapper).update(isNull(), updates.capture());
+        assertTrue(updates.getValue().getSqlSet().contains("content="), updates.getValue().getSqlSet());
+    }
+
+    private EmailOutboxServiceImpl createService(int batchSize) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtp.getPort());
+
+        Mockito.when(mapper.claimBatch(anyString(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> invocation.<Integer>getArgument(3));
+        Mockito.when(mapper.findClaimed(anyString())).thenAnswer(invocation -> claimed(batchSize));
+        Mockito.when(mapper.update(any(), any())).thenReturn(1);
+
+        QuizSystemProperties properties = new QuizSystemProperties();
+        properties.getMail().setBatchSize(batchSize);
+        EmailOutboxServiceImpl outboxService = new EmailOutboxServiceImpl(mapper, mailSender, properties, meterRegistry);
+        ReflectionTestUtils.setField(outboxService, "fromEmail", "noreply@quiz.local");
+        return outboxService;
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("quiz.mail.outbox").tag("result", result).counter().count();
+    }
+
+    private List<EmailOutbox> claimed(int count) {
+        List<EmailOutbox> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = ids.incrementAndGet();
+            EmailOutbox outbox = new EmailOutbox();
+            outbox.setId(id);
+            outbox.setRecipient("user" + id % 10 + "@quiz.local");
+            outbox.setSubject("在线答题系统 - 邮箱验证码 #" + id);
+            outbox.setContent("<p>您的验证码是：<strong>" + (100000 + id % 900000) + "</strong></p>");
+            outbox.setStatus(EmailOutbox.OutboxStatus.sending);
+            outbox.setAttempts(1);
+            outbox.setNextAttemptAt(LocalDateTime.now().plusSeconds(60));
+            batch.add(outbox);
+        }
+        return batch;
+    }
+}
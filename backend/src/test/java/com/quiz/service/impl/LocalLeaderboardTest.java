@@ -0,0 +1,83 @@
+package com.quiz.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 本地排行榜测试：随机操作序列与按分数排序的参照实现比较
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+class LocalLeaderboardTest {
+
+    private static final int OPERATIONS = 200_000;
+    private static final int USERS = 3000;
+    private static final int CHECK_INTERVAL = 20_000;
+
+    @Test
+    void matchesSortedReference() {
+        LocalLeaderboard board = new LocalLeaderboard();
+        Map<Long, Double> reference = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < OPERATIONS; i++) {
+            long userId = random.nextInt(USERS);
+            int op = random.nextInt(10);
+            if (op == 0) {
+                board.remove(userId);
+                reference.remove(userId);
+            } else if (op < 5) {
+                double delta = random.nextInt(50);
+                board.increment(userId, delta);
+                reference.merge(userId, delta, Double::sum);
+            } else {
+                double score = random.nextInt(100);
+                board.replace(userId, score);
+                reference.put(userId, score);
+            }
+            if (i % CHECK_INTERVAL == 0 || i == OPERATIONS - 1) {
+                assertMatches(reference, board);
+            }
+        }
+    }
+
+    @Test
+    void replaceAllDiscardsPreviousEntries() {
+        LocalLeaderboard board = new LocalLeaderboard();
+        board.replace(1L, 10);
+        board.replace(2L, 20);
+
+        board.replaceAll(Map.of(2L, 5.0, 3L, 7.0));
+
+        assertEquals(List.of(3L, 2L), board.top(10));
+        assertNull(board.score(1L));
+        assertNull(board.rank(1L));
+        assertEquals(0, board.score(1L, 0), 0);
+    }
+
+    /**
+     * 按分数降序、分数相同按用户 ID 升序比较完整榜单、前 10 名与每个用户的名次
+     */
+    private static void assertMatches(Map<Long, Double> reference, LocalLeaderboard board) {
+        List<Long> expected = new ArrayList<>(reference.keySet());
+        expected.sort(Comparator.comparingDouble((Long userId) -> -reference.get(userId))
+                .thenComparingLong(userId -> userId));
+        assertEquals(expected, board.top(expected.size() + 5));
+        assertEquals(expected.subList(0, Math.min(10, expected.size())), board.top(10));
+        for (int i = 0; i < expected.size(); i++) {
+            Long userId = expected.get(i);
+            assertEquals((long) i, board.rank(userId));
+            assertEquals(reference.get(userId), board.score(userId));
+        }
+        assertNull(board.rank(-1L));
+    }
+}
@@ -0,0 +1,180 @@
+package com.quiz.strategy.impl;
+
+import com.quiz.config.properties.QuizSystemProperties;
+import com.quiz.entity.Question;
+import com.quiz.service.QuestionService;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * 事件模型（SAX）读取与 XSSFWorkbook 整表读取的一致性测试
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+class XlsxRowReaderTest {
+
+    private static final int ROWS = 500;
+
+    private static final String[] TYPES = {"单选题", "多选题", "判断题", "简答题"};
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * 逐个单元格比较两种读取方式的文本；未计算公式时文件中没有缓存值，两者都应读到空串
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void saxReadsTheSameCellTextAsWorkbook(boolean evaluateFormulas) throws Exception {
+        File file = tempDir.resolve("cells.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            CellStyle thousands = style(workbook, "#,##0");
+            CellStyle date = style(workbook, "yyyy-mm-dd");
+            CellStyle percent = style(workbook, "0.00%");
+            for (int r = 0; r < ROWS; r++) {
+                Row row = sheet.createRow(r);
+                int c = 0;
+                row.createCell(c++).setCellValue("  text " + r + " ");
+                row.createCell(c++).setCellValue(r);
+                row.createCell(c++).setCellValue(r + 0.25);
+                styled(row.createCell(c++), thousands).setCellValue(1000.0 * r);
+                styled(row.createCell(c++), date).setCellValue(new Date(1700000000000L + r * 86400000L));
+                styled(row.createCell(c++), percent).setCellValue(r / 7.0);
+                row.createCell(c++).setCellValue(r % 2 == 0);
+                row.createCell(c++).setCellFormula("B" + (r + 1) + "*2");
+                row.createCell(c++).setCellFormula("\"f \"&A" + (r + 1));
+                row.createCell(c++).setCellFormula("B" + (r + 1) + ">10");
+                row.createCell(c++).setCellFormula("1/0");
+                row.createCell(c++).setCellValue("007");
+                row.createCell(c++).setCellValue(1e10);
+                row.createCell(c++).setCellValue(1e20);
+                // 留一个空单元格
+                c++;
+                row.createCell(c).setCellValue("after gap");
+            }
+            if (evaluateFormulas) {
+                workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            }
+            workbook.write(out);
+        }
+
+        List<String> sax = new ArrayList<>();
+        XlsxRowReader.read(file, (rowNum, cells) -> sax.add(rowNum + ":" + cells));
+        List<String> dom = new ArrayList<>();
+        try (Workbook workbook = new XSSFWorkbook(new FileInputStream(file))) {
+            for (Row row : workbook.getSheetAt(0)) {
+                List<String> cells = new ArrayList<>();
+                for (int i = 0; i < row.getLastCellNum(); i++) {
+                    cells.add(XlsxRowReader.cellText(row.getCell(i)));
+                }
+                dom.add(row.getRowNum() + ":" + cells);
+            }
+        }
+
+        assertEquals(ROWS, sax.size());
+        assertEquals(dom, sax);
+    }
+
+    /**
+     * 同一个导入文件分别以两种方式导入，保存的题目应完全一致
+     */
+    @Test
+    void streamingImportParsesTheSameQuestions() throws IOException {
+        File file = tempDir.resolve("questions.xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            CellStyle thousands = style(workbook, "#,##0");
+            CellStyle date = style(workbook, "yyyy-mm-dd");
+            String[] header = {"试题类型", "题目", "答案", "解析", "选项1", "选项2", "选项3", "选项4"};
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < header.length; i++) {
+                headerRow.createCell(i).setCellValue(header[i]);
+            }
+            for (int r = 1; r <= ROWS; r++) {
+                Row row = sheet.createRow(r);
+                String type = TYPES[r % TYPES.length];
+                row.createCell(0).setCellValue(type);
+                row.createCell(1).setCellValue("第" + r + "题：关于 Java 内存模型的描述，下列说法正确的是？");
+                if (type.equals("判断题")) {
+                    row.createCell(2).setCellValue(r % 8 == 2);
+                } else if (type.equals("单选题")) {
+                    // 数值答案（选项序号）
+                    row.createCell(2).setCellValue(r / 4 % 4 + 1);
+                } else {
+                    row.createCell(2).setCellValue("A,C");
+                }
+                if (r % 3 == 0) {
+                    row.createCell(3).setCellFormula("\"happens-before 规则保证了可见性，题号 \"&ROW()");
+                } else {
+                    row.createCell(3).setCellValue("happens-before 规则保证了可见性。");
+                }
+                if (type.equals("单选题") || type.equals("多选题")) {
+                    styled(row.createCell(4), thousands).setCellValue(1000.0 * r);
+                    styled(row.createCell(5), date).setCellValue(new Date(1700000000000L + r * 86400000L));
+                    row.createCell(6).setCellFormula("ROW()*0.5");
+                    row.createCell(7).setCellFormula("ROW()>" + ROWS / 2);
+                }
+            }
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(out);
+        }
+
+        List<Question> streamed = importQuestions(file, true);
+        List<Question> loaded = importQuestions(file, false);
+
+        assertEquals(ROWS, streamed.size());
+        assertEquals(loaded, streamed);
+    }
+
+    private List<Question> importQuestions(File file, boolean streaming) {
+        List<Question> saved = new ArrayList<>();
+        QuestionService questionService = Mockito.mock(QuestionService.class);
+        Mockito.when(questionService.save(any())).thenReturn(true);
+        Mockito.when(questionService.insertBatch(any())).thenAnswer(invocation -> {
+            List<Question> batch = invocation.getArgument(0);
+            saved.addAll(batch);
+            return batch.size();
+        });
+        QuizSystemProperties properties = new QuizSystemProperties();
+        properties.getFile().setExcelStreamingRead(streaming);
+        ExcelQuestionImportStrategy strategy = new ExcelQuestionImportStrategy(questionService, properties);
+        ReflectionTestUtils.setField(strategy, "uploadPath", file.getParent());
+        strategy.importQuestions(file.getPath(), 1L, 1L);
+        return saved;
+    }
+
+    private static CellStyle style(Workbook workbook, String format) {
+        CellStyle style = workbook.createCellStyle();
+        style.setDataFormat(workbook.createDataFormat().getFormat(format));
+        return style;
+    }
+
+    private static Cell styled(Cell cell, CellStyle style) {
+        cell.setCellStyle(style);
+        return cell;
+    }
+}
@@ -0,0 +1,122 @@
+package com.quiz.support;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 最小的 SMTP 服务替身：接受所有命令，统计连接数，按需保存收到的原始邮件
+ *
+ * @author Quiz System
+ * @since 2024
+ */
+public final class SmtpStandIn implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Queue<byte[]> captured = new ConcurrentLinkedQueue<>();
+    private volatile boolean capture = true;
+
+    public SmtpStandIn() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * 是否保存收到的邮件；基准测试中关闭以免占用内存
+     */
+    public void setCapture(boolean capture) {
+        this.capture = capture;
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * 取出已收到的原始邮件（去除点转义后的 DATA 内容）
+     */
+    public List<byte[]> drainCaptured() {
+        List<byte[]> messages = new ArrayList<>();
+        byte[] raw;
+        while ((raw = captured.poll()) != null) {
+            messages.add(raw);
+        }
+        return messages;
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                Thread session = new Thread(() -> serve(socket), "smtp-stand-in-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                // 服务关闭
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    ByteArrayOutputStream data = new ByteArrayOutputStream();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        // 去除点转义
+                        String content = line.startsWith(".") ? line.substring(1) : line;
+                        data.write(content.getBytes(StandardCharsets.ISO_8859_1));
+                        data.write('\r');
+                        data.write('\n');
+                    }
+                    if (capture) {
+                        captured.add(data.toByteArray());
+                    }
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // 客户端断开
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+}
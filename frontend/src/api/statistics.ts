@@ -5,7 +5,8 @@ import type {
   RankingItem,
   DetailedStats,
   AnswerTrendItem,
-  TypeStatsItem
+  TypeStatsItem,
+  BankStatsItem
 } from '@/types/index'
 
 // 获取系统统计数据
@@ -26,6 +27,14 @@ export const getRankingData = (params?: {
   return request.get('/statistics/ranking', { params })
 }
 
+// 获取我的排名（未上榜时为 null）
+export const getMyRanking = (params?: {
+  type?: string
+  period?: string
+}): Promise<RankingItem | null> => {
+  return request.get('/statistics/ranking/me', { params })
+}
+
 // 获取详细统计数据
 export const getDetailedStats = (): Promise<DetailedStats> => {
   return request.get('/statistics/detailed')
@@ -43,12 +52,23 @@ export const getTypeStats = (): Promise<TypeStatsItem[]> => {
   return request.get('/statistics/type')
 }
 
-// 导出统计报告
+// 获取题库统计数据
+export const getBankStats = (): Promise<BankStatsItem[]> => {
+  return request.get('/statistics/bank')
+}
+
+// 导出统计报告（text 为统计摘要，csv/xlsx 为答题记录）
 export const exportStatisticsReport = (params: {
-  format: string
+  format: 'text' | 'csv' | 'xlsx'
+  bankId?: number
+  userIds?: number[]
+  startDate?: string
+  endDate?: string
 }): Promise<Blob> => {
   return request.get('/statistics/export', {
     params,
-    responseType: 'blob'
-  })
+    paramsSerializer: { indexes: null },
+    responseType: 'blob',
+    timeout: 300000
+  }).then((response: any) => response.data)
 }
@@ -216,6 +216,7 @@ export interface SystemStats {
   totalUsers: number
   totalSessions: number
   totalBanks: number
+  activeUsersToday: number
 }
 
 export interface UserStats {
@@ -258,6 +259,17 @@ export interface AnswerTrendItem {
 export interface TypeStatsItem {
   type: string
   count: number
+  answered: number
+  correct: number
+  accuracy: number
+}
+
+export interface BankStatsItem {
+  bankId: number
+  bankName: string
+  answered: number
+  correct: number
+  accuracy: number
 }
 
 export interface WrongQuestionStats {